@@ -0,0 +1,155 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.async;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A concurrency limit adapted to the observed latency of the tasks, using an additive-increase /
+ * multiplicative-decrease (AIMD) algorithm.
+ * <p>
+ * The limit grows by one each time a full window of tasks, as large as the current limit, completes under
+ * the latency threshold. It is multiplied by the backoff ratio as soon as a task goes over the threshold.
+ * The latency is measured from the submission of the task, so a growing queue lowers the limit before
+ * the queue is full.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    /** Constant <code>DEFAULT_BACKOFF_RATIO=0.9</code> */
+    public static final double DEFAULT_BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final long latencyThresholdNanos;
+
+    private final double backoffRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile int limit;
+
+    private int successes;
+
+    /**
+     * <p>Constructor for AdaptiveConcurrencyLimit.</p>
+     *
+     * @param initialLimit the initial limit.
+     * @param minLimit the minimum limit, at least 1.
+     * @param maxLimit the maximum limit.
+     * @param latencyThreshold the task latency over which the limit is decreased.
+     */
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, Duration latencyThreshold) {
+        this(initialLimit, minLimit, maxLimit, latencyThreshold, DEFAULT_BACKOFF_RATIO);
+    }
+
+    /**
+     * <p>Constructor for AdaptiveConcurrencyLimit.</p>
+     *
+     * @param initialLimit the initial limit.
+     * @param minLimit the minimum limit, at least 1.
+     * @param maxLimit the maximum limit.
+     * @param latencyThreshold the task latency over which the limit is decreased.
+     * @param backoffRatio the ratio applied to the limit when it is decreased, between 0 and 1.
+     */
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, Duration latencyThreshold,
+                                    double backoffRatio) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= minLimit <= maxLimit");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Backoff ratio must be between 0 and 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Acquires a slot if less tasks than the current limit are in flight.
+     *
+     * @return true if the slot was acquired.
+     */
+    boolean tryAcquire() {
+        for (;;) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Acquires a slot regardless of the limit, used when a task runs anyway.
+     */
+    void forceAcquire() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * Releases a slot for a task which did not run.
+     */
+    void cancel() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Releases a slot for a task which completed, and adapts the limit to its latency.
+     *
+     * @param latencyNanos the task latency, from submission to completion.
+     */
+    void release(long latencyNanos) {
+        inFlight.decrementAndGet();
+        synchronized (this) {
+            if (latencyNanos > latencyThresholdNanos) {
+                limit = Math.max(minLimit, (int) (limit * backoffRatio));
+                successes = 0;
+            } else if (++successes >= limit) {
+                limit = Math.min(maxLimit, limit + 1);
+                successes = 0;
+            }
+        }
+    }
+
+    /**
+     * <p>Getter for the field <code>limit</code>.</p>
+     *
+     * @return the current limit.
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * <p>getInFlight.</p>
+     *
+     * @return the number of tasks currently in flight.
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.async;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Binds the metrics of an {@link ExceptionHandlingAsyncTaskExecutor} to a {@link MeterRegistry}.
+ * <p>
+ * Every task going through the executor records the time it spent waiting in the queue and its
+ * execution time, as well as rejections and failures. When the wrapped executor is a
+ * {@link org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor}, the pool and queue
+ * state are also published as gauges. All meters are tagged with the executor name.
+ */
+public class AsyncTaskExecutorMetrics implements MeterBinder {
+
+    /** Constant <code>METRIC_PREFIX="jhipster.async"</code> */
+    public static final String METRIC_PREFIX = "jhipster.async";
+
+    private static final String TAG_NAME = "name";
+
+    private final ExceptionHandlingAsyncTaskExecutor executor;
+
+    private final Iterable<Tag> tags;
+
+    private Timer waitTimer;
+
+    private Timer executionTimer;
+
+    private Counter rejectedCounter;
+
+    private Counter failedCounter;
+
+    /**
+     * <p>Constructor for AsyncTaskExecutorMetrics.</p>
+     *
+     * @param executor the {@link ExceptionHandlingAsyncTaskExecutor} to instrument.
+     * @param executorName the name used to tag the meters, usually the bean name.
+     */
+    public AsyncTaskExecutorMetrics(ExceptionHandlingAsyncTaskExecutor executor, String executorName) {
+        this(executor, executorName, Tags.empty());
+    }
+
+    /**
+     * <p>Constructor for AsyncTaskExecutorMetrics.</p>
+     *
+     * @param executor the {@link ExceptionHandlingAsyncTaskExecutor} to instrument.
+     * @param executorName the name used to tag the meters, usually the bean name.
+     * @param tags additional tags added to all the meters.
+     */
+    public AsyncTaskExecutorMetrics(ExceptionHandlingAsyncTaskExecutor executor, String executorName, Iterable<Tag> tags) {
+        this.executor = executor;
+        this.tags = Tags.concat(tags, TAG_NAME, executorName);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.waitTimer = Timer.builder(METRIC_PREFIX + ".tasks.wait")
+            .description("Time spent by tasks in the queue before being executed")
+            .tags(tags)
+            .register(registry);
+        this.executionTimer = Timer.builder(METRIC_PREFIX + ".tasks.execution")
+            .description("Time spent executing tasks")
+            .tags(tags)
+            .register(registry);
+        this.rejectedCounter = Counter.builder(METRIC_PREFIX + ".tasks.rejected")
+            .description("Number of tasks rejected by the executor")
+            .tags(tags)
+            .register(registry);
+        this.failedCounter = Counter.builder(METRIC_PREFIX + ".tasks.failed")
+            .description("Number of tasks which completed with an exception")
+            .tags(tags)
+            .register(registry);
+
+        if (executor.isThreadPoolBacked()) {
+            registerPoolGauge(registry, ".pool.active", "Number of threads actively executing tasks",
+                ThreadPoolExecutor::getActiveCount);
+            registerPoolGauge(registry, ".pool.size", "Current number of threads in the pool",
+                ThreadPoolExecutor::getPoolSize);
+            registerPoolGauge(registry, ".queue.size", "Number of tasks waiting in the queue",
+                pool -> pool.getQueue().size());
+            registerPoolGauge(registry, ".queue.remaining", "Number of additional tasks the queue can accept",
+                pool -> pool.getQueue().remainingCapacity());
+        }
+
+        executor.setMetrics(this);
+    }
+
+    private void registerPoolGauge(MeterRegistry registry, String name, String description,
+                                   ToDoubleFunction<ThreadPoolExecutor> value) {
+        Gauge.builder(METRIC_PREFIX + name, executor, e -> {
+                ThreadPoolExecutor pool = e.getThreadPoolExecutor();
+                return pool != null ? value.applyAsDouble(pool) : Double.NaN;
+            })
+            .description(description)
+            .tags(tags)
+            .register(registry);
+    }
+
+    long taskStarted(long submitTime) {
+        long startTime = System.nanoTime();
+        waitTimer.record(startTime - submitTime, TimeUnit.NANOSECONDS);
+        return startTime;
+    }
+
+    void taskCompleted(long startTime) {
+        executionTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+    }
+
+    void taskFailed() {
+        failedCounter.increment();
+    }
+
+    void taskRejected() {
+        rejectedCounter.increment();
+    }
+}
@@ -23,15 +23,35 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.task.AsyncListenableTaskExecutor;
 import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.ListenableFutureTask;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 /**
  * <p>ExceptionHandlingAsyncTaskExecutor class.</p>
  */
-public class ExceptionHandlingAsyncTaskExecutor implements AsyncTaskExecutor,
+public class ExceptionHandlingAsyncTaskExecutor implements AsyncListenableTaskExecutor,
     InitializingBean, DisposableBean {
 
     static final String EXCEPTION_MESSAGE = "Caught async exception";
@@ -40,6 +60,28 @@ public class ExceptionHandlingAsyncTaskExecutor implements AsyncTaskExecutor,
 
     private final AsyncTaskExecutor executor;
 
+    private volatile AsyncTaskExecutorMetrics metrics;
+
+    private volatile TaskContextPropagator[] contextPropagators = new TaskContextPropagator[0];
+
+    private volatile SaturationPolicy saturationPolicy = SaturationPolicy.ABORT;
+
+    private volatile long blockTimeoutNanos;
+
+    private volatile AdaptiveConcurrencyLimit concurrencyLimit;
+
+    private final Object capacityMonitor = new Object();
+
+    private final AtomicLong completedTasks = new AtomicLong();
+
+    private final AtomicInteger blockedSubmitters = new AtomicInteger();
+
+    private volatile Duration drainTimeout = Duration.ZERO;
+
+    private volatile Consumer<List<Runnable>> abandonedTaskHandler;
+
+    private volatile boolean shuttingDown;
+
     /**
      * <p>Constructor for ExceptionHandlingAsyncTaskExecutor.</p>
      *
@@ -49,39 +91,223 @@ public class ExceptionHandlingAsyncTaskExecutor implements AsyncTaskExecutor,
         this.executor = executor;
     }
 
+    /**
+     * Sets the thread-bound contexts to propagate from the submitting thread to the thread running the task,
+     * see {@link TaskContextPropagator#defaults()}. No context is propagated by default, the defaults are applied
+     * to the executor beans unless <code>jhipster.async.propagate-context</code> is false.
+     *
+     * @param contextPropagators the {@link TaskContextPropagator} to apply, in order.
+     */
+    public void setContextPropagators(List<TaskContextPropagator> contextPropagators) {
+        this.contextPropagators = contextPropagators.toArray(new TaskContextPropagator[0]);
+    }
+
+    /**
+     * Sets what to do with a task when the wrapped executor or the concurrency limit is saturated.
+     * Defaults to {@link SaturationPolicy#ABORT}.
+     *
+     * @param saturationPolicy the {@link SaturationPolicy} to apply.
+     * @param blockTimeout how long to wait for capacity with {@link SaturationPolicy#BLOCK}.
+     */
+    public void setSaturationPolicy(SaturationPolicy saturationPolicy, Duration blockTimeout) {
+        this.saturationPolicy = saturationPolicy;
+        this.blockTimeoutNanos = blockTimeout.toNanos();
+    }
+
+    /**
+     * Limits the number of tasks in flight, queued or running, with an {@link AdaptiveConcurrencyLimit}.
+     * Tasks over the limit are handled by the {@link SaturationPolicy}. There is no limit by default,
+     * it should be set before any task is submitted.
+     *
+     * @param concurrencyLimit the {@link AdaptiveConcurrencyLimit} to apply.
+     */
+    public void setConcurrencyLimit(AdaptiveConcurrencyLimit concurrencyLimit) {
+        this.concurrencyLimit = concurrencyLimit;
+    }
+
+    /**
+     * Enables the graceful drain on shutdown: new tasks are rejected, and the tasks already submitted
+     * are given this much time to complete before the remaining ones are abandoned. Only applies when
+     * the wrapped executor is a {@link ThreadPoolTaskExecutor}. Disabled by default.
+     *
+     * @param drainTimeout the maximum time to wait for the submitted tasks on shutdown.
+     */
+    public void setDrainTimeout(Duration drainTimeout) {
+        this.drainTimeout = drainTimeout;
+    }
+
+    /**
+     * Sets a handler receiving the queued tasks which were not started before the drain timeout,
+     * for instance to persist them. They are only logged by default, and their futures are cancelled.
+     *
+     * @param abandonedTaskHandler the handler of the abandoned tasks.
+     */
+    public void setAbandonedTaskHandler(Consumer<List<Runnable>> abandonedTaskHandler) {
+        this.abandonedTaskHandler = abandonedTaskHandler;
+    }
+
     /** {@inheritDoc} */
     @Override
     public void execute(Runnable task) {
-        executor.execute(createWrappedRunnable(task));
+        dispatch(createWrappedRunnable(task), TIMEOUT_INDEFINITE);
     }
 
     /** {@inheritDoc} */
     @Override
     public void execute(Runnable task, long startTimeout) {
-        executor.execute(createWrappedRunnable(task), startTimeout);
+        dispatch(createWrappedRunnable(task), startTimeout);
     }
 
     private <T> Callable<T> createCallable(final Callable<T> task) {
+        final AsyncTaskExecutorMetrics taskMetrics = this.metrics;
+        final long submitTime = taskMetrics != null ? System.nanoTime() : 0L;
+        final TaskContextSnapshot context = TaskContextSnapshot.capture(this.contextPropagators);
         return () -> {
+            long startTime = taskMetrics != null ? taskMetrics.taskStarted(submitTime) : 0L;
+            Object[] previousContext = context != null ? context.restore() : null;
             try {
                 return task.call();
             } catch (Exception e) {
+                if (taskMetrics != null) {
+                    taskMetrics.taskFailed();
+                }
                 handle(e);
                 throw e;
+            } finally {
+                if (context != null) {
+                    context.reset(previousContext);
+                }
+                if (taskMetrics != null) {
+                    taskMetrics.taskCompleted(startTime);
+                }
             }
         };
     }
 
     private Runnable createWrappedRunnable(final Runnable task) {
+        final Callable<Object> callable = createCallable(Executors.callable(task));
         return () -> {
             try {
-                task.run();
+                callable.call();
             } catch (Exception e) {
-                handle(e);
+                // Already handled
             }
         };
     }
 
+    private void taskFinished(AdaptiveConcurrencyLimit limit, long submitTime, boolean ran) {
+        if (limit != null) {
+            if (ran) {
+                limit.release(System.nanoTime() - submitTime);
+            } else {
+                limit.cancel();
+            }
+        }
+        completedTasks.incrementAndGet();
+        if (blockedSubmitters.get() > 0) {
+            synchronized (capacityMonitor) {
+                capacityMonitor.notifyAll();
+            }
+        }
+    }
+
+    private TrackedTask dispatch(Runnable command, long startTimeout) {
+        rejectIfShuttingDown();
+        final AdaptiveConcurrencyLimit limit = this.concurrencyLimit;
+        TrackedTask tracked = null;
+        Runnable wrapped = command;
+        if (limit != null || saturationPolicy == SaturationPolicy.BLOCK) {
+            // Tracked outside of the task itself, so that a cancelled future still frees its slot
+            tracked = new TrackedTask(command, limit);
+            wrapped = tracked;
+        }
+        long deadline = 0L;
+        for (;;) {
+            long completed = completedTasks.get();
+            TaskRejectedException rejection = tryDispatch(wrapped, limit, startTimeout);
+            if (rejection == null) {
+                return tracked;
+            }
+            if (saturationPolicy == SaturationPolicy.BLOCK) {
+                // The capacity will never come back once the executor is shutting down
+                rejectIfShuttingDown();
+                if (deadline == 0L) {
+                    deadline = System.nanoTime() + blockTimeoutNanos;
+                }
+                if (awaitCapacity(completed, deadline)) {
+                    continue;
+                }
+            }
+            onSaturation(wrapped, limit, rejection);
+            return null;
+        }
+    }
+
+    private TaskRejectedException tryDispatch(Runnable wrapped, AdaptiveConcurrencyLimit limit, long startTimeout) {
+        if (limit != null && !limit.tryAcquire()) {
+            return new TaskRejectedException("Concurrency limit of " + limit.getLimit() + " tasks reached");
+        }
+        try {
+            if (startTimeout == TIMEOUT_INDEFINITE) {
+                executor.execute(wrapped);
+            } else {
+                executor.execute(wrapped, startTimeout);
+            }
+            return null;
+        } catch (TaskRejectedException e) {
+            if (limit != null) {
+                limit.cancel();
+            }
+            return e;
+        }
+    }
+
+    private boolean awaitCapacity(long completed, long deadline) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0L) {
+            return false;
+        }
+        blockedSubmitters.incrementAndGet();
+        try {
+            synchronized (capacityMonitor) {
+                if (!shuttingDown && completedTasks.get() == completed) {
+                    TimeUnit.NANOSECONDS.timedWait(capacityMonitor, remaining);
+                }
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            blockedSubmitters.decrementAndGet();
+        }
+    }
+
+    private void onSaturation(Runnable wrapped, AdaptiveConcurrencyLimit limit, TaskRejectedException rejection) {
+        if (saturationPolicy == SaturationPolicy.CALLER_RUNS) {
+            if (limit != null) {
+                limit.forceAcquire();
+            }
+            wrapped.run();
+        } else {
+            rejected(rejection);
+        }
+    }
+
+    private void rejectIfShuttingDown() {
+        if (shuttingDown) {
+            rejected(new TaskRejectedException("Executor is shutting down, task rejected"));
+        }
+    }
+
+    private void rejected(TaskRejectedException rejection) {
+        AsyncTaskExecutorMetrics taskMetrics = this.metrics;
+        if (taskMetrics != null) {
+            taskMetrics.taskRejected();
+        }
+        throw rejection;
+    }
+
     /**
      * <p>handle.</p>
      *
@@ -94,24 +320,201 @@ public class ExceptionHandlingAsyncTaskExecutor implements AsyncTaskExecutor,
     /** {@inheritDoc} */
     @Override
     public Future<?> submit(Runnable task) {
-        return executor.submit(createWrappedRunnable(task));
+        return submitListenable(task);
     }
 
     /** {@inheritDoc} */
     @Override
     public <T> Future<T> submit(Callable<T> task) {
-        return executor.submit(createCallable(task));
+        return submitListenable(task);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ListenableFuture<?> submitListenable(Runnable task) {
+        ListenableFutureTask<Object> future = new ListenableFutureTask<>(createWrappedRunnable(task), null);
+        releaseWhenCancelled(future, dispatch(future, TIMEOUT_INDEFINITE));
+        return future;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public <T> ListenableFuture<T> submitListenable(Callable<T> task) {
+        ListenableFutureTask<T> future = new ListenableFutureTask<>(createCallable(task));
+        releaseWhenCancelled(future, dispatch(future, TIMEOUT_INDEFINITE));
+        return future;
+    }
+
+    private void releaseWhenCancelled(ListenableFuture<?> future, TrackedTask tracked) {
+        if (tracked != null) {
+            future.addCallback(result -> { }, ex -> {
+                if (future.isCancelled()) {
+                    taskCancelled(tracked);
+                }
+            });
+        }
+    }
+
+    private void taskCancelled(TrackedTask tracked) {
+        // Otherwise a cancelled task keeps its place in the queue until a worker gets to it
+        ThreadPoolExecutor pool = getThreadPoolExecutor();
+        if (pool != null) {
+            pool.remove(tracked);
+        }
+        tracked.finish(false);
+    }
+
+    /**
+     * Submits a {@link Runnable} task for execution, receiving a {@link CompletableFuture} representing that task.
+     * The future completes exceptionally if the task throws an exception, once it has been handled.
+     *
+     * @param task the {@link Runnable} to execute.
+     * @return a {@link CompletableFuture} completing when the task completes.
+     */
+    public CompletableFuture<Void> submitCompletable(Runnable task) {
+        return submitCompletable(Executors.callable(task, (Void) null));
+    }
+
+    /**
+     * Submits a {@link Callable} task for execution, receiving a {@link CompletableFuture} representing that task.
+     * The future completes exceptionally if the task throws an exception, once it has been handled.
+     *
+     * @param task the {@link Callable} to execute.
+     * @param <T> the type of the task result.
+     * @return a {@link CompletableFuture} completing with the task result.
+     */
+    public <T> CompletableFuture<T> submitCompletable(Callable<T> task) {
+        CompletableTask<T> completableTask = new CompletableTask<>(createCallable(task));
+        TrackedTask tracked = dispatch(completableTask, TIMEOUT_INDEFINITE);
+        if (tracked != null) {
+            completableTask.future.whenComplete((result, ex) -> {
+                if (completableTask.future.isCancelled()) {
+                    taskCancelled(tracked);
+                }
+            });
+        }
+        return completableTask.future;
+    }
+
+    /**
+     * Submits all the given tasks and waits for them to complete, until a deadline shared by the whole batch.
+     * Tasks which are not completed when the deadline expires are cancelled.
+     *
+     * @param tasks the {@link Callable} tasks to execute.
+     * @param timeout the maximum time to wait for the whole batch.
+     * @param unit the time unit of the timeout argument.
+     * @param <T> the type of the task results.
+     * @return the list of {@link Future}, in the same order as the tasks, all of them being done.
+     * @throws java.lang.InterruptedException if interrupted while waiting, in which case unfinished tasks are cancelled.
+     */
+    public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+        throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        try {
+            for (Callable<T> task : tasks) {
+                futures.add(submit(task));
+            }
+            for (Future<T> future : futures) {
+                long remaining = deadline - System.nanoTime();
+                if (!future.isDone()) {
+                    if (remaining <= 0L) {
+                        break;
+                    }
+                    try {
+                        future.get(remaining, TimeUnit.NANOSECONDS);
+                    } catch (ExecutionException | CancellationException e) {
+                        // The failure is reported by the future itself
+                    } catch (TimeoutException e) {
+                        break;
+                    }
+                }
+            }
+        } finally {
+            // No-op for the tasks which are already done
+            futures.forEach(future -> future.cancel(true));
+        }
+        return futures;
+    }
+
+    /**
+     * Returns the {@link ThreadPoolExecutor} backing the wrapped executor, when it is a
+     * {@link ThreadPoolTaskExecutor} that has already been initialized.
+     *
+     * @return the native thread pool, or {@code null} if not available.
+     */
+    ThreadPoolExecutor getThreadPoolExecutor() {
+        if (executor instanceof ThreadPoolTaskExecutor) {
+            try {
+                return ((ThreadPoolTaskExecutor) executor).getThreadPoolExecutor();
+            } catch (IllegalStateException e) {
+                // Not initialized yet
+                return null;
+            }
+        }
+        return null;
+    }
+
+    boolean isThreadPoolBacked() {
+        return executor instanceof ThreadPoolTaskExecutor;
+    }
+
+    void setMetrics(AsyncTaskExecutorMetrics metrics) {
+        this.metrics = metrics;
     }
 
     /** {@inheritDoc} */
     @Override
     public void destroy() throws Exception {
+        shuttingDown = true;
+        synchronized (capacityMonitor) {
+            capacityMonitor.notifyAll();
+        }
+        ThreadPoolExecutor pool = getThreadPoolExecutor();
+        if (pool != null && !drainTimeout.isZero() && !drainTimeout.isNegative()) {
+            drain(pool);
+        }
         if (executor instanceof DisposableBean) {
             DisposableBean bean = (DisposableBean) executor;
             bean.destroy();
         }
     }
 
+    private void drain(ThreadPoolExecutor pool) throws InterruptedException {
+        long pending = pool.getActiveCount() + pool.getQueue().size();
+        log.debug("Draining {} async tasks, for up to {} ms", pending, drainTimeout.toMillis());
+        pool.shutdown();
+        if (pool.awaitTermination(drainTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+            log.debug("Drained all async tasks");
+            return;
+        }
+        int interrupted = pool.getActiveCount();
+        List<Runnable> abandoned = pool.shutdownNow();
+        log.warn("Async tasks not drained after {} ms: {} running tasks interrupted, {} queued tasks abandoned",
+            drainTimeout.toMillis(), interrupted, abandoned.size());
+        Consumer<List<Runnable>> handler = this.abandonedTaskHandler;
+        if (handler != null && !abandoned.isEmpty()) {
+            try {
+                handler.accept(abandoned);
+            } catch (Exception e) {
+                handle(e);
+            }
+        }
+        // Don't leave the submitters waiting for tasks which will never run
+        for (Runnable task : abandoned) {
+            if (task instanceof TrackedTask) {
+                TrackedTask tracked = (TrackedTask) task;
+                tracked.finish(false);
+                task = tracked.command;
+            }
+            if (task instanceof Future) {
+                ((Future<?>) task).cancel(false);
+            } else if (task instanceof CompletableTask) {
+                ((CompletableTask<?>) task).future.cancel(false);
+            }
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     public void afterPropertiesSet() throws Exception {
@@ -120,4 +523,58 @@ public class ExceptionHandlingAsyncTaskExecutor implements AsyncTaskExecutor,
             bean.afterPropertiesSet();
         }
     }
+
+    private final class TrackedTask implements Runnable {
+
+        private final Runnable command;
+
+        private final AdaptiveConcurrencyLimit limit;
+
+        private final long submitTime = System.nanoTime();
+
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        private TrackedTask(Runnable command, AdaptiveConcurrencyLimit limit) {
+            this.command = command;
+            this.limit = limit;
+        }
+
+        @Override
+        public void run() {
+            try {
+                command.run();
+            } finally {
+                finish(true);
+            }
+        }
+
+        /**
+         * Frees the slot of the task, only once whether the task ran or was cancelled.
+         */
+        void finish(boolean ran) {
+            if (finished.compareAndSet(false, true)) {
+                taskFinished(limit, submitTime, ran);
+            }
+        }
+    }
+
+    private static final class CompletableTask<T> implements Runnable {
+
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        private final Callable<T> callable;
+
+        private CompletableTask(Callable<T> callable) {
+            this.callable = callable;
+        }
+
+        @Override
+        public void run() {
+            try {
+                future.complete(callable.call());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }
+    }
 }
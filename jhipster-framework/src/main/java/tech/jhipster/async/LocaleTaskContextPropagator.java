@@ -0,0 +1,49 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.async;
+
+import org.springframework.context.i18n.LocaleContext;
+import org.springframework.context.i18n.LocaleContextHolder;
+
+/**
+ * {@link TaskContextPropagator} for the Spring {@link LocaleContextHolder}.
+ */
+public class LocaleTaskContextPropagator implements TaskContextPropagator {
+
+    /** {@inheritDoc} */
+    @Override
+    public Object capture() {
+        return LocaleContextHolder.getLocaleContext();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Object restore(Object captured) {
+        LocaleContext previous = LocaleContextHolder.getLocaleContext();
+        LocaleContextHolder.setLocaleContext((LocaleContext) captured);
+        return previous;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void reset(Object previous) {
+        LocaleContextHolder.setLocaleContext((LocaleContext) previous);
+    }
+}
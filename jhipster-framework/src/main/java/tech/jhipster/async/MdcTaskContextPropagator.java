@@ -0,0 +1,59 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.async;
+
+import org.slf4j.MDC;
+
+import java.util.Map;
+
+/**
+ * {@link TaskContextPropagator} for the SLF4J {@link MDC}.
+ */
+public class MdcTaskContextPropagator implements TaskContextPropagator {
+
+    /** {@inheritDoc} */
+    @Override
+    public Object capture() {
+        return MDC.getCopyOfContextMap();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Object restore(Object captured) {
+        Map<String, String> previous = MDC.getCopyOfContextMap();
+        setContextMap(captured);
+        return previous;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void reset(Object previous) {
+        setContextMap(previous);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void setContextMap(Object contextMap) {
+        if (contextMap == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap((Map<String, String>) contextMap);
+        }
+    }
+}
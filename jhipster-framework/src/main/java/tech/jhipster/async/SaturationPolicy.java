@@ -0,0 +1,43 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.async;
+
+/**
+ * What {@link ExceptionHandlingAsyncTaskExecutor} does with a task when the wrapped executor, or its
+ * {@link AdaptiveConcurrencyLimit}, cannot accept it.
+ */
+public enum SaturationPolicy {
+
+    /**
+     * Rejects the task with a {@link org.springframework.core.task.TaskRejectedException}.
+     */
+    ABORT,
+
+    /**
+     * Runs the task in the submitting thread, which naturally slows down the producers.
+     */
+    CALLER_RUNS,
+
+    /**
+     * Blocks the submitting thread until a running task completes, and rejects the task if no capacity
+     * was freed before the configured timeout.
+     */
+    BLOCK
+}
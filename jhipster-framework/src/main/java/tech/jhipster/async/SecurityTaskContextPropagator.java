@@ -0,0 +1,63 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.async;
+
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * {@link TaskContextPropagator} for the Spring Security {@link SecurityContextHolder}.
+ * <p>
+ * Only a context holding an authentication is propagated. The context of the submitting thread is only read: it is
+ * left as is, even when it is empty.
+ */
+public class SecurityTaskContextPropagator implements TaskContextPropagator {
+
+    /** {@inheritDoc} */
+    @Override
+    public Object capture() {
+        SecurityContext context = SecurityContextHolder.getContext();
+        return context.getAuthentication() != null ? context : null;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Object restore(Object captured) {
+        if (captured == null) {
+            return null;
+        }
+        SecurityContext previous = SecurityContextHolder.getContext();
+        SecurityContextHolder.setContext((SecurityContext) captured);
+        return previous;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void reset(Object previous) {
+        if (previous == null) {
+            return;
+        }
+        if (SecurityContextHolder.createEmptyContext().equals(previous)) {
+            SecurityContextHolder.clearContext();
+        } else {
+            SecurityContextHolder.setContext((SecurityContext) previous);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.async;
+
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Propagates a thread-bound context, like the logging MDC or the security context, from the thread
+ * submitting a task to the thread running it.
+ * <p>
+ * The context is captured once when the task is submitted, restored before the task runs and reset
+ * once it completes, so that pooled threads never leak the context of a previous task.
+ */
+public interface TaskContextPropagator {
+
+    /**
+     * Captures the context of the current (submitting) thread.
+     *
+     * @return the captured context, can be {@code null}.
+     */
+    Object capture();
+
+    /**
+     * Installs a previously captured context on the current (executing) thread.
+     *
+     * @param captured the value returned by {@link #capture()}.
+     * @return the context the executing thread had before, to be given back to {@link #reset(Object)}.
+     */
+    Object restore(Object captured);
+
+    /**
+     * Resets the current (executing) thread to the context it had before {@link #restore(Object)}.
+     *
+     * @param previous the value returned by {@link #restore(Object)}.
+     */
+    void reset(Object previous);
+
+    /**
+     * Returns the propagators for the MDC, the locale and, when Spring Security is on the classpath,
+     * the security context.
+     *
+     * @return a new list of {@link TaskContextPropagator}.
+     */
+    static List<TaskContextPropagator> defaults() {
+        List<TaskContextPropagator> propagators = new ArrayList<>();
+        propagators.add(new MdcTaskContextPropagator());
+        propagators.add(new LocaleTaskContextPropagator());
+        if (ClassUtils.isPresent("org.springframework.security.core.context.SecurityContextHolder",
+            TaskContextPropagator.class.getClassLoader())) {
+            propagators.add(new SecurityTaskContextPropagator());
+        }
+        return propagators;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.async;
+
+/**
+ * The contexts captured by a set of {@link TaskContextPropagator} when a task is submitted.
+ */
+final class TaskContextSnapshot {
+
+    private final TaskContextPropagator[] propagators;
+
+    private final Object[] captured;
+
+    private TaskContextSnapshot(TaskContextPropagator[] propagators, Object[] captured) {
+        this.propagators = propagators;
+        this.captured = captured;
+    }
+
+    /**
+     * Captures the contexts of the current thread.
+     *
+     * @param propagators the propagators to use.
+     * @return the snapshot, or {@code null} when there is nothing to propagate.
+     */
+    static TaskContextSnapshot capture(TaskContextPropagator[] propagators) {
+        if (propagators.length == 0) {
+            return null;
+        }
+        Object[] captured = new Object[propagators.length];
+        for (int i = 0; i < propagators.length; i++) {
+            captured[i] = propagators[i].capture();
+        }
+        return new TaskContextSnapshot(propagators, captured);
+    }
+
+    /**
+     * Restores the captured contexts on the current thread.
+     *
+     * @return the previous contexts of the current thread.
+     */
+    Object[] restore() {
+        Object[] previous = new Object[propagators.length];
+        for (int i = 0; i < propagators.length; i++) {
+            previous[i] = propagators[i].restore(captured[i]);
+        }
+        return previous;
+    }
+
+    /**
+     * Resets the current thread to its previous contexts, in reverse order.
+     *
+     * @param previous the value returned by {@link #restore()}.
+     */
+    void reset(Object[] previous) {
+        for (int i = propagators.length - 1; i >= 0; i--) {
+            propagators[i].reset(previous[i]);
+        }
+    }
+}
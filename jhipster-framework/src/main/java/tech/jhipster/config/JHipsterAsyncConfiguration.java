@@ -0,0 +1,89 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tech.jhipster.async.AdaptiveConcurrencyLimit;
+import tech.jhipster.async.ExceptionHandlingAsyncTaskExecutor;
+import tech.jhipster.async.TaskContextPropagator;
+
+import java.time.Duration;
+
+/**
+ * Applies the <code>jhipster.async</code> properties to every {@link ExceptionHandlingAsyncTaskExecutor} bean,
+ * before it is initialized.
+ */
+@Configuration
+public class JHipsterAsyncConfiguration {
+
+    /**
+     * <p>asyncTaskExecutorPostProcessor.</p>
+     *
+     * @param jHipsterProperties the {@link JHipsterProperties}, resolved when the first executor is created.
+     * @return a {@link AsyncTaskExecutorPostProcessor} object.
+     */
+    @Bean
+    public static AsyncTaskExecutorPostProcessor asyncTaskExecutorPostProcessor(
+        ObjectProvider<JHipsterProperties> jHipsterProperties) {
+        return new AsyncTaskExecutorPostProcessor(jHipsterProperties);
+    }
+
+    /**
+     * Configures the saturation policy, the concurrency limit, the drain timeout and the context propagation of the
+     * {@link ExceptionHandlingAsyncTaskExecutor} beans.
+     */
+    public static class AsyncTaskExecutorPostProcessor implements BeanPostProcessor {
+
+        private final ObjectProvider<JHipsterProperties> jHipsterProperties;
+
+        AsyncTaskExecutorPostProcessor(ObjectProvider<JHipsterProperties> jHipsterProperties) {
+            this.jHipsterProperties = jHipsterProperties;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Object postProcessBeforeInitialization(Object bean, String beanName) {
+            if (bean instanceof ExceptionHandlingAsyncTaskExecutor) {
+                JHipsterProperties properties = jHipsterProperties.getIfAvailable();
+                if (properties != null) {
+                    configure((ExceptionHandlingAsyncTaskExecutor) bean, properties.getAsync());
+                }
+            }
+            return bean;
+        }
+
+        private void configure(ExceptionHandlingAsyncTaskExecutor executor, JHipsterProperties.Async async) {
+            executor.setSaturationPolicy(async.getSaturationPolicy(), Duration.ofMillis(async.getBlockTimeoutInMillis()));
+            JHipsterProperties.Async.ConcurrencyLimit concurrencyLimit = async.getConcurrencyLimit();
+            if (concurrencyLimit.isEnabled()) {
+                executor.setConcurrencyLimit(new AdaptiveConcurrencyLimit(concurrencyLimit.getInitialLimit(),
+                    concurrencyLimit.getMinLimit(), concurrencyLimit.getMaxLimit(),
+                    Duration.ofMillis(concurrencyLimit.getLatencyThresholdInMillis())));
+            }
+            executor.setDrainTimeout(Duration.ofSeconds(async.getDrainTimeoutInSeconds()));
+            if (async.isPropagateContext()) {
+                executor.setContextPropagators(TaskContextPropagator.defaults());
+            }
+        }
+    }
+}
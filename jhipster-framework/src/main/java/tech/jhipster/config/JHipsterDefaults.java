@@ -19,6 +19,8 @@
 
 package tech.jhipster.config;
 
+import tech.jhipster.async.SaturationPolicy;
+
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -34,6 +36,34 @@ public interface JHipsterDefaults {
         int corePoolSize = 2;
         int maxPoolSize = 50;
         int queueCapacity = 10000;
+        SaturationPolicy saturationPolicy = SaturationPolicy.ABORT;
+        long blockTimeoutInMillis = 1000; // 1 second
+        long drainTimeoutInSeconds = 0; // no drain
+        boolean propagateContext = true;
+
+        interface ConcurrencyLimit {
+
+            boolean enabled = false;
+            int initialLimit = 50;
+            int minLimit = 2;
+            int maxLimit = 10050;
+            long latencyThresholdInMillis = 1000; // 1 second
+        }
+    }
+
+    interface Liquibase {
+
+        boolean asyncStart = false;
+        boolean skipWhenUnchanged = false;
+        long slownessThresholdInSeconds = 5;
+
+        interface Pool {
+
+            boolean reuseDataSource = true;
+            int maximumPoolSize = 2;
+            long connectionTimeoutInMillis = 10000; // 10 seconds
+            boolean warmUp = false;
+        }
     }
 
     interface Http {
@@ -41,6 +71,9 @@ public interface JHipsterDefaults {
         interface Cache {
 
             int timeToLiveInDays = 1461; // 4 years (including leap day)
+            String immutablePattern = ".*[.-][0-9a-fA-F]{8,}\\.[a-zA-Z0-9]+$"; // fingerprinted assets, e.g. main.4f2a9c1e.js
+            String revalidatePattern = ".*\\.html$";
+            String[] paths = {"/i18n/**", "/content/**", "/app/**"};
         }
     }
 
@@ -221,4 +254,10 @@ public interface JHipsterDefaults {
 
         int retentionPeriod = 30;
     }
+
+    interface Metrics {
+
+        long snapshotRefreshIntervalInMillis = 5000; // 5 seconds while the metrics are read, 0 to compute them on each read
+        long clusterDigestTtlInSeconds = 60; // 1 minute
+    }
 }
@@ -21,6 +21,7 @@ package tech.jhipster.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.web.cors.CorsConfiguration;
+import tech.jhipster.async.SaturationPolicy;
 
 import javax.validation.constraints.NotNull;
 import java.util.ArrayList;
@@ -44,6 +45,8 @@ public class JHipsterProperties {
 
     private final Database database = new Database();
 
+    private final Liquibase liquibase = new Liquibase();
+
     private final Cache cache = new Cache();
 
     private final Mail mail = new Mail();
@@ -66,6 +69,8 @@ public class JHipsterProperties {
 
     private final AuditEvents auditEvents = new AuditEvents();
 
+    private final Metrics metrics = new Metrics();
+
     /**
      * <p>Getter for the field <code>async</code>.</p>
      *
@@ -93,6 +98,15 @@ public class JHipsterProperties {
         return database;
     }
 
+    /**
+     * <p>Getter for the field <code>liquibase</code>.</p>
+     *
+     * @return a {@link JHipsterProperties.Liquibase} object.
+     */
+    public Liquibase getLiquibase() {
+        return liquibase;
+    }
+
     /**
      * <p>Getter for the field <code>cache</code>.</p>
      *
@@ -192,6 +206,15 @@ public class JHipsterProperties {
         return auditEvents;
     }
 
+    /**
+     * <p>Getter for the field <code>metrics</code>.</p>
+     *
+     * @return a {@link JHipsterProperties.Metrics} object.
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
     public static class Async {
 
         private int corePoolSize = JHipsterDefaults.Async.corePoolSize;
@@ -200,6 +223,16 @@ public class JHipsterProperties {
 
         private int queueCapacity = JHipsterDefaults.Async.queueCapacity;
 
+        private SaturationPolicy saturationPolicy = JHipsterDefaults.Async.saturationPolicy;
+
+        private long blockTimeoutInMillis = JHipsterDefaults.Async.blockTimeoutInMillis;
+
+        private long drainTimeoutInSeconds = JHipsterDefaults.Async.drainTimeoutInSeconds;
+
+        private boolean propagateContext = JHipsterDefaults.Async.propagateContext;
+
+        private final ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit();
+
         public int getCorePoolSize() {
             return corePoolSize;
         }
@@ -223,6 +256,95 @@ public class JHipsterProperties {
         public void setQueueCapacity(int queueCapacity) {
             this.queueCapacity = queueCapacity;
         }
+
+        public SaturationPolicy getSaturationPolicy() {
+            return saturationPolicy;
+        }
+
+        public void setSaturationPolicy(SaturationPolicy saturationPolicy) {
+            this.saturationPolicy = saturationPolicy;
+        }
+
+        public long getBlockTimeoutInMillis() {
+            return blockTimeoutInMillis;
+        }
+
+        public void setBlockTimeoutInMillis(long blockTimeoutInMillis) {
+            this.blockTimeoutInMillis = blockTimeoutInMillis;
+        }
+
+        public long getDrainTimeoutInSeconds() {
+            return drainTimeoutInSeconds;
+        }
+
+        public void setDrainTimeoutInSeconds(long drainTimeoutInSeconds) {
+            this.drainTimeoutInSeconds = drainTimeoutInSeconds;
+        }
+
+        public boolean isPropagateContext() {
+            return propagateContext;
+        }
+
+        public void setPropagateContext(boolean propagateContext) {
+            this.propagateContext = propagateContext;
+        }
+
+        public ConcurrencyLimit getConcurrencyLimit() {
+            return concurrencyLimit;
+        }
+
+        public static class ConcurrencyLimit {
+
+            private boolean enabled = JHipsterDefaults.Async.ConcurrencyLimit.enabled;
+
+            private int initialLimit = JHipsterDefaults.Async.ConcurrencyLimit.initialLimit;
+
+            private int minLimit = JHipsterDefaults.Async.ConcurrencyLimit.minLimit;
+
+            private int maxLimit = JHipsterDefaults.Async.ConcurrencyLimit.maxLimit;
+
+            private long latencyThresholdInMillis = JHipsterDefaults.Async.ConcurrencyLimit.latencyThresholdInMillis;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getInitialLimit() {
+                return initialLimit;
+            }
+
+            public void setInitialLimit(int initialLimit) {
+                this.initialLimit = initialLimit;
+            }
+
+            public int getMinLimit() {
+                return minLimit;
+            }
+
+            public void setMinLimit(int minLimit) {
+                this.minLimit = minLimit;
+            }
+
+            public int getMaxLimit() {
+                return maxLimit;
+            }
+
+            public void setMaxLimit(int maxLimit) {
+                this.maxLimit = maxLimit;
+            }
+
+            public long getLatencyThresholdInMillis() {
+                return latencyThresholdInMillis;
+            }
+
+            public void setLatencyThresholdInMillis(long latencyThresholdInMillis) {
+                this.latencyThresholdInMillis = latencyThresholdInMillis;
+            }
+        }
     }
 
     public static class Http {
@@ -237,6 +359,12 @@ public class JHipsterProperties {
 
             private int timeToLiveInDays = JHipsterDefaults.Http.Cache.timeToLiveInDays;
 
+            private String immutablePattern = JHipsterDefaults.Http.Cache.immutablePattern;
+
+            private String revalidatePattern = JHipsterDefaults.Http.Cache.revalidatePattern;
+
+            private String[] paths = JHipsterDefaults.Http.Cache.paths;
+
             public int getTimeToLiveInDays() {
                 return timeToLiveInDays;
             }
@@ -244,6 +372,30 @@ public class JHipsterProperties {
             public void setTimeToLiveInDays(int timeToLiveInDays) {
                 this.timeToLiveInDays = timeToLiveInDays;
             }
+
+            public String getImmutablePattern() {
+                return immutablePattern;
+            }
+
+            public void setImmutablePattern(String immutablePattern) {
+                this.immutablePattern = immutablePattern;
+            }
+
+            public String getRevalidatePattern() {
+                return revalidatePattern;
+            }
+
+            public void setRevalidatePattern(String revalidatePattern) {
+                this.revalidatePattern = revalidatePattern;
+            }
+
+            public String[] getPaths() {
+                return paths;
+            }
+
+            public void setPaths(String[] paths) {
+                this.paths = paths;
+            }
         }
     }
 
@@ -270,6 +422,88 @@ public class JHipsterProperties {
         }
     }
 
+    public static class Liquibase {
+
+        private boolean asyncStart = JHipsterDefaults.Liquibase.asyncStart;
+
+        private boolean skipWhenUnchanged = JHipsterDefaults.Liquibase.skipWhenUnchanged;
+
+        private long slownessThresholdInSeconds = JHipsterDefaults.Liquibase.slownessThresholdInSeconds;
+
+        private final Pool pool = new Pool();
+
+        public boolean isAsyncStart() {
+            return asyncStart;
+        }
+
+        public void setAsyncStart(boolean asyncStart) {
+            this.asyncStart = asyncStart;
+        }
+
+        public boolean isSkipWhenUnchanged() {
+            return skipWhenUnchanged;
+        }
+
+        public void setSkipWhenUnchanged(boolean skipWhenUnchanged) {
+            this.skipWhenUnchanged = skipWhenUnchanged;
+        }
+
+        public long getSlownessThresholdInSeconds() {
+            return slownessThresholdInSeconds;
+        }
+
+        public void setSlownessThresholdInSeconds(long slownessThresholdInSeconds) {
+            this.slownessThresholdInSeconds = slownessThresholdInSeconds;
+        }
+
+        public Pool getPool() {
+            return pool;
+        }
+
+        public static class Pool {
+
+            private boolean reuseDataSource = JHipsterDefaults.Liquibase.Pool.reuseDataSource;
+
+            private int maximumPoolSize = JHipsterDefaults.Liquibase.Pool.maximumPoolSize;
+
+            private long connectionTimeoutInMillis = JHipsterDefaults.Liquibase.Pool.connectionTimeoutInMillis;
+
+            private boolean warmUp = JHipsterDefaults.Liquibase.Pool.warmUp;
+
+            public boolean isReuseDataSource() {
+                return reuseDataSource;
+            }
+
+            public void setReuseDataSource(boolean reuseDataSource) {
+                this.reuseDataSource = reuseDataSource;
+            }
+
+            public int getMaximumPoolSize() {
+                return maximumPoolSize;
+            }
+
+            public void setMaximumPoolSize(int maximumPoolSize) {
+                this.maximumPoolSize = maximumPoolSize;
+            }
+
+            public long getConnectionTimeoutInMillis() {
+                return connectionTimeoutInMillis;
+            }
+
+            public void setConnectionTimeoutInMillis(long connectionTimeoutInMillis) {
+                this.connectionTimeoutInMillis = connectionTimeoutInMillis;
+            }
+
+            public boolean isWarmUp() {
+                return warmUp;
+            }
+
+            public void setWarmUp(boolean warmUp) {
+                this.warmUp = warmUp;
+            }
+        }
+    }
+
     public static class Cache {
 
         private final Hazelcast hazelcast = new Hazelcast();
@@ -1158,4 +1392,27 @@ public class JHipsterProperties {
             this.retentionPeriod = retentionPeriod;
         }
     }
+
+    public static class Metrics {
+
+        private long snapshotRefreshIntervalInMillis = JHipsterDefaults.Metrics.snapshotRefreshIntervalInMillis;
+
+        private long clusterDigestTtlInSeconds = JHipsterDefaults.Metrics.clusterDigestTtlInSeconds;
+
+        public long getSnapshotRefreshIntervalInMillis() {
+            return snapshotRefreshIntervalInMillis;
+        }
+
+        public void setSnapshotRefreshIntervalInMillis(long snapshotRefreshIntervalInMillis) {
+            this.snapshotRefreshIntervalInMillis = snapshotRefreshIntervalInMillis;
+        }
+
+        public long getClusterDigestTtlInSeconds() {
+            return clusterDigestTtlInSeconds;
+        }
+
+        public void setClusterDigestTtlInSeconds(long clusterDigestTtlInSeconds) {
+            this.clusterDigestTtlInSeconds = clusterDigestTtlInSeconds;
+        }
+    }
 }
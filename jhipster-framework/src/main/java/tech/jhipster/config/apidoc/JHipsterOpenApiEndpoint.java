@@ -21,9 +21,12 @@ package tech.jhipster.config.apidoc;
 
 import static org.springdoc.core.Constants.DEFAULT_GROUP_NAME;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 import org.springdoc.core.SpringDocConfigProperties;
@@ -40,6 +43,8 @@ public class JHipsterOpenApiEndpoint {
     private final SpringDocConfigProperties springDocConfigProperties;
     private final String appName;
 
+    private volatile List<Map<String, String>> groups = Collections.emptyList();
+
     /**
      * <p>Constructor for JHipsterOpenApiEndpoint.</p>
      *
@@ -53,14 +58,34 @@ public class JHipsterOpenApiEndpoint {
     /**
      * GET /management/jhiopenapigroups
      * <p>
-     * Give openApi displayed on OpenApi page
+     * Give openApi displayed on OpenApi page. The groups are only listed again when the configured groups changed,
+     * as when they are lazily initialized.
      *
      * @return a Map with a String defining a category of openApi as Key and
      * another Map containing openApi related to this category as Value
      */
     @ReadOperation
     public List<Map<String, String>> allOpenApi() {
-        return springDocConfigProperties.getGroupConfigs().stream().map(this::createGroupMap).collect(Collectors.toList());
+        Collection<GroupConfig> groupConfigs = springDocConfigProperties.getGroupConfigs();
+        List<Map<String, String>> current = groups;
+        if (!sameGroups(current, groupConfigs)) {
+            current = Collections.unmodifiableList(groupConfigs.stream().map(this::createGroupMap).collect(Collectors.toList()));
+            groups = current;
+        }
+        return current;
+    }
+
+    private static boolean sameGroups(List<Map<String, String>> groups, Collection<GroupConfig> groupConfigs) {
+        if (groups.size() != groupConfigs.size()) {
+            return false;
+        }
+        int i = 0;
+        for (GroupConfig groupConfig : groupConfigs) {
+            if (!Objects.equals(groups.get(i++).get("group"), groupConfig.getGroup())) {
+                return false;
+            }
+        }
+        return true;
     }
 
     private Map<String, String> createGroupMap(GroupConfig group) {
@@ -69,6 +94,6 @@ public class JHipsterOpenApiEndpoint {
         map.put("group", groupName);
         String description = this.appName + " (" + (DEFAULT_GROUP_NAME.equals(groupName) ? "default" : groupName) + ")";
         map.put("description", description);
-        return map;
+        return Collections.unmodifiableMap(map);
     }
 }
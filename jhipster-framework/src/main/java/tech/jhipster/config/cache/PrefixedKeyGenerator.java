@@ -5,6 +5,7 @@ import org.apache.commons.lang3.RandomStringUtils;
 import org.springframework.boot.info.BuildProperties;
 import org.springframework.boot.info.GitProperties;
 import org.springframework.cache.interceptor.KeyGenerator;
+import tech.jhipster.config.startup.StartupTimeline;
 
 import java.lang.reflect.Method;
 import java.time.Instant;
@@ -38,7 +39,7 @@ public class PrefixedKeyGenerator implements KeyGenerator {
      */
     public PrefixedKeyGenerator(GitProperties gitProperties, BuildProperties buildProperties) {
 
-        this.prefix = generatePrefix(gitProperties, buildProperties);
+        this.prefix = StartupTimeline.record("cache.key-prefix", () -> generatePrefix(gitProperties, buildProperties));
     }
 
     String getPrefix() {
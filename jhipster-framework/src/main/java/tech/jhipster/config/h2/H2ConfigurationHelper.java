@@ -19,6 +19,8 @@
 
 package tech.jhipster.config.h2;
 
+import tech.jhipster.config.startup.StartupTimeline;
+
 import javax.servlet.Servlet;
 import javax.servlet.ServletContext;
 import javax.servlet.ServletRegistration;
@@ -52,7 +54,7 @@ public class H2ConfigurationHelper {
      * @throws java.sql.SQLException if any.
      */
     public static Object createServer(String port) throws SQLException {
-        try {
+        try (StartupTimeline.Step ignored = StartupTimeline.start("h2.tcp-server")) {
             ClassLoader loader = Thread.currentThread().getContextClassLoader();
             Class<?> serverClass = Class.forName("org.h2.tools.Server", true, loader);
             Method createServer = serverClass.getMethod("createTcpServer", String[].class);
@@ -91,7 +93,7 @@ public class H2ConfigurationHelper {
      * @param propertiesLocation the location where to find .h2.server.properties
      */
     static void initH2Console(String propertiesLocation) {
-        try {
+        try (StartupTimeline.Step ignored = StartupTimeline.start("h2.console")) {
             // We don't want to include H2 when we are packaging for the "prod" profile and won't
             // actually need it, so we have to load / invoke things at runtime through reflection.
             ClassLoader loader = Thread.currentThread().getContextClassLoader();
@@ -112,7 +114,7 @@ public class H2ConfigurationHelper {
      * @param servletContext a {@link javax.servlet.ServletContext} object.
      */
     public static void initH2Console(ServletContext servletContext) {
-        try {
+        try (StartupTimeline.Step ignored = StartupTimeline.start("h2.console")) {
             // We don't want to include H2 when we are packaging for the "prod" profile and won't
             // actually need it, so we have to load / invoke things at runtime through reflection.
             ClassLoader loader = Thread.currentThread().getContextClassLoader();
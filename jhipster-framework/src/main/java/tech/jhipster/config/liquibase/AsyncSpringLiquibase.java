@@ -18,17 +18,27 @@
  */
 package tech.jhipster.config.liquibase;
 
+import liquibase.Liquibase;
 import liquibase.exception.LiquibaseException;
+import liquibase.lockservice.LockService;
+import liquibase.lockservice.LockServiceFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.liquibase.DataSourceClosingSpringLiquibase;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.Profiles;
-import org.springframework.util.StopWatch;
+import org.springframework.util.ReflectionUtils;
+import tech.jhipster.config.startup.StartupTimeline;
 
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.Method;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 import static tech.jhipster.config.JHipsterConstants.*;
 
@@ -40,6 +50,11 @@ import static tech.jhipster.config.JHipsterConstants.*;
  * starts</li> </ul> But as this is a rather slow process, we use this asynchronous version to speed up our start-up
  * time: <ul> <li>On a recent MacBook Pro, start-up time is down from 14 seconds to 8 seconds</li> <li>In production,
  * this can help your application run on platforms like Heroku, where it must start/restart very quickly</li> </ul>
+ * <p> It can also be enabled for any profile with the "jhipster.liquibase.async-start" property. The progress of the
+ * migration is then exposed by {@link #getMigrationStatus()}, and by the {@link LiquibaseMigrationHealthIndicator}
+ * which can be added to the readiness health group so that no traffic is routed before the database is ready.</p>
+ * <p> With the "jhipster.liquibase.skip-when-unchanged" property, the update is skipped when the checksum of the
+ * changelog matches the one stored after the last successful update, see {@link ChangelogChecksum}.</p>
  */
 public class AsyncSpringLiquibase extends DataSourceClosingSpringLiquibase {
 
@@ -60,6 +75,43 @@ public class AsyncSpringLiquibase extends DataSourceClosingSpringLiquibase {
     public static final long SLOWNESS_THRESHOLD = 5; // seconds
     /** Constant <code>SLOWNESS_MESSAGE="Warning, Liquibase took more than {} se"{trunked}</code> */
     public static final String SLOWNESS_MESSAGE = "Warning, Liquibase took more than {} seconds to start up!";
+    /** Constant <code>SLOW_CHANGE_SET_MESSAGE="Slow Liquibase change set {} took {} m"{trunked}</code> */
+    public static final String SLOW_CHANGE_SET_MESSAGE = "Slow Liquibase change set {} took {} ms";
+    /** Constant <code>LISTENER_EXCEPTION_MESSAGE="Liquibase migration listener failed: {"{trunked}</code> */
+    public static final String LISTENER_EXCEPTION_MESSAGE = "Liquibase migration listener failed: {}";
+
+    /** Constant <code>SLOWNESS_THRESHOLD_PROPERTY="jhipster.liquibase.slowness-threshold-in-seconds"</code> */
+    public static final String SLOWNESS_THRESHOLD_PROPERTY = "jhipster.liquibase.slowness-threshold-in-seconds";
+
+    private static final int SLOWEST_CHANGE_SETS = 5;
+
+    /** Constant <code>UNCHANGED_MESSAGE="Liquibase changelog is unchanged, skipp"{trunked}</code> */
+    public static final String UNCHANGED_MESSAGE = "Liquibase changelog is unchanged, skipping the update";
+    /** Constant <code>CHECKSUM_EXCEPTION_MESSAGE="Could not check the Liquibase changelog"{trunked}</code> */
+    public static final String CHECKSUM_EXCEPTION_MESSAGE = "Could not check the Liquibase changelog checksum, " +
+        "running a full update: {}";
+
+    /** Constant <code>SKIP_WHEN_UNCHANGED_PROPERTY="jhipster.liquibase.skip-when-unchanged"</code> */
+    public static final String SKIP_WHEN_UNCHANGED_PROPERTY = "jhipster.liquibase.skip-when-unchanged";
+
+    /** Constant <code>ASYNC_START_PROPERTY="jhipster.liquibase.async-start"</code> */
+    public static final String ASYNC_START_PROPERTY = "jhipster.liquibase.async-start";
+
+    /**
+     * The progress of the database migration.
+     */
+    public enum MigrationStatus {
+        /** The migration has not started yet. */
+        PENDING,
+        /** The migration is running. */
+        RUNNING,
+        /** The migration has completed successfully. */
+        COMPLETED,
+        /** The migration has failed, see {@link #getMigrationFailure()}. */
+        FAILED,
+        /** Liquibase is disabled. */
+        DISABLED
+    }
 
     // named "logger" because there is already a field called "log" in "SpringLiquibase"
     private final Logger logger = LoggerFactory.getLogger(AsyncSpringLiquibase.class);
@@ -68,6 +120,20 @@ public class AsyncSpringLiquibase extends DataSourceClosingSpringLiquibase {
 
     private final Environment env;
 
+    private volatile MigrationStatus migrationStatus = MigrationStatus.PENDING;
+
+    private volatile Throwable migrationFailure;
+
+    private volatile long migrationTimeMillis;
+
+    private boolean closeDataSourceOnceMigrated = true;
+
+    private volatile LiquibaseMigrationRecorder recorder;
+
+    private volatile LiquibaseMigrationReport migrationReport;
+
+    private final List<Consumer<LiquibaseMigrationReport>> migrationListeners = new ArrayList<>();
+
     /**
      * <p>Constructor for AsyncSpringLiquibase.</p>
      *
@@ -83,43 +149,260 @@ public class AsyncSpringLiquibase extends DataSourceClosingSpringLiquibase {
     @Override
     public void afterPropertiesSet() throws LiquibaseException {
         if (!env.acceptsProfiles(Profiles.of(SPRING_PROFILE_NO_LIQUIBASE))) {
-            if (env.acceptsProfiles(Profiles.of(SPRING_PROFILE_DEVELOPMENT + "|" + SPRING_PROFILE_HEROKU))) {
+            if (isAsyncStart()) {
                 // Prevent Thread Lock with spring-cloud-context GenericScope
                 // https://github.com/spring-cloud/spring-cloud-commons/commit/aaa7288bae3bb4d6fdbef1041691223238d77b7b#diff-afa0715eafc2b0154475fe672dab70e4R328
                 try (Connection connection = getDataSource().getConnection()) {
                     executor.execute(() -> {
                         try {
                             logger.warn(STARTING_ASYNC_MESSAGE);
-                            initDb();
-                        } catch (LiquibaseException e) {
+                            migrate();
+                        } catch (LiquibaseException | RuntimeException e) {
                             logger.error(EXCEPTION_MESSAGE, e.getMessage(), e);
                         }
                     });
                 } catch (SQLException e) {
+                    migrationFailed(e);
                     logger.error(EXCEPTION_MESSAGE, e.getMessage(), e);
                 }
             } else {
                 logger.debug(STARTING_SYNC_MESSAGE);
-                initDb();
+                migrate();
             }
         } else {
+            migrationStatus = MigrationStatus.DISABLED;
             logger.debug(DISABLED_MESSAGE);
         }
     }
 
+    /**
+     * Whether the migration runs asynchronously: always for the "dev" and "heroku" profiles,
+     * otherwise when the "jhipster.liquibase.async-start" property is set.
+     *
+     * @return true if the migration does not block the application start-up.
+     */
+    protected boolean isAsyncStart() {
+        return env.acceptsProfiles(Profiles.of(SPRING_PROFILE_DEVELOPMENT + "|" + SPRING_PROFILE_HEROKU)) ||
+            env.getProperty(ASYNC_START_PROPERTY, Boolean.class, false);
+    }
+
+    private void migrate() throws LiquibaseException {
+        long start = System.currentTimeMillis();
+        migrationStatus = MigrationStatus.RUNNING;
+        try {
+            initDb();
+        } catch (LiquibaseException | RuntimeException e) {
+            migrationFailed(e);
+            throw e;
+        }
+        migrationTimeMillis = System.currentTimeMillis() - start;
+        migrationStatus = MigrationStatus.COMPLETED;
+    }
+
+    private void migrationFailed(Exception e) {
+        migrationFailure = e;
+        migrationStatus = MigrationStatus.FAILED;
+    }
+
+    /**
+     * <p>Getter for the field <code>migrationStatus</code>.</p>
+     *
+     * @return the progress of the database migration.
+     */
+    public MigrationStatus getMigrationStatus() {
+        return migrationStatus;
+    }
+
+    /**
+     * <p>Getter for the field <code>migrationFailure</code>.</p>
+     *
+     * @return the cause of the failure when the status is {@link MigrationStatus#FAILED}, null otherwise.
+     */
+    public Throwable getMigrationFailure() {
+        return migrationFailure;
+    }
+
+    /**
+     * <p>Getter for the field <code>migrationTimeMillis</code>.</p>
+     *
+     * @return the duration of the migration in milliseconds, once completed.
+     */
+    public long getMigrationTimeMillis() {
+        return migrationTimeMillis;
+    }
+
     /**
      * <p>initDb.</p>
      *
      * @throws liquibase.exception.LiquibaseException if any.
      */
     protected void initDb() throws LiquibaseException {
-        StopWatch watch = new StopWatch();
-        watch.start();
-        super.afterPropertiesSet();
-        watch.stop();
-        logger.debug(STARTED_MESSAGE, watch.getTotalTimeMillis());
-        if (watch.getTotalTimeMillis() > SLOWNESS_THRESHOLD * 1000L) {
-            logger.warn(SLOWNESS_MESSAGE, SLOWNESS_THRESHOLD);
+        LiquibaseMigrationRecorder migrationRecorder = new LiquibaseMigrationRecorder();
+        this.recorder = migrationRecorder;
+        StartupTimeline.Step step = StartupTimeline.start("liquibase.migration");
+        boolean skipped = false;
+        LiquibaseMigrationReport report;
+        try {
+            if (env.getProperty(SKIP_WHEN_UNCHANGED_PROPERTY, Boolean.class, false)) {
+                skipped = !updateUnlessUnchanged();
+            } else {
+                super.afterPropertiesSet();
+            }
+        } finally {
+            step.end();
+            this.recorder = null;
+            report = migrationRecorder.report(skipped);
+            migrationReported(report);
+        }
+        long totalTime = report.getTotalTime().toMillis();
+        logger.debug(STARTED_MESSAGE, totalTime);
+        long slownessThreshold = env.getProperty(SLOWNESS_THRESHOLD_PROPERTY, Long.class, SLOWNESS_THRESHOLD);
+        if (totalTime > slownessThreshold * 1000L) {
+            logger.warn(SLOWNESS_MESSAGE, slownessThreshold);
+            for (LiquibaseMigrationReport.ChangeSetTiming changeSet : report.getSlowestChangeSets(SLOWEST_CHANGE_SETS)) {
+                logger.warn(SLOW_CHANGE_SET_MESSAGE, changeSet.getName(), changeSet.getDuration().toMillis());
+            }
         }
     }
+
+    /** {@inheritDoc} */
+    @Override
+    protected Liquibase createLiquibase(Connection c) throws LiquibaseException {
+        Liquibase liquibase = super.createLiquibase(c);
+        LiquibaseMigrationRecorder migrationRecorder = this.recorder;
+        if (migrationRecorder != null) {
+            migrationRecorder.connected();
+        }
+        return liquibase;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void performUpdate(Liquibase liquibase) throws LiquibaseException {
+        LiquibaseMigrationRecorder migrationRecorder = this.recorder;
+        if (migrationRecorder == null) {
+            super.performUpdate(liquibase);
+            return;
+        }
+        // Parsed and locked ahead of the update to time them, the update then reuses the changelog and the lock
+        liquibase.getDatabaseChangeLog();
+        migrationRecorder.parsed();
+        LockService lockService = null;
+        if (!isDropFirst()) {
+            lockService = LockServiceFactory.getInstance().getLockService(liquibase.getDatabase());
+            lockService.waitForLock();
+            migrationRecorder.locked();
+        }
+        liquibase.setChangeExecListener(migrationRecorder);
+        try {
+            super.performUpdate(liquibase);
+        } finally {
+            if (lockService != null && lockService.hasChangeLogLock()) {
+                lockService.releaseLock();
+            }
+        }
+    }
+
+    /**
+     * Registers a listener notified with the {@link LiquibaseMigrationReport} once the migration has run, or
+     * immediately if it has already run.
+     *
+     * @param listener the listener to notify.
+     */
+    public void addMigrationListener(Consumer<LiquibaseMigrationReport> listener) {
+        LiquibaseMigrationReport report;
+        synchronized (migrationListeners) {
+            report = this.migrationReport;
+            if (report == null) {
+                migrationListeners.add(listener);
+                return;
+            }
+        }
+        listener.accept(report);
+    }
+
+    private void migrationReported(LiquibaseMigrationReport report) {
+        List<Consumer<LiquibaseMigrationReport>> listeners;
+        synchronized (migrationListeners) {
+            this.migrationReport = report;
+            listeners = new ArrayList<>(migrationListeners);
+            migrationListeners.clear();
+        }
+        for (Consumer<LiquibaseMigrationReport> listener : listeners) {
+            try {
+                listener.accept(report);
+            } catch (RuntimeException e) {
+                logger.warn(LISTENER_EXCEPTION_MESSAGE, e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * <p>Getter for the field <code>migrationReport</code>.</p>
+     *
+     * @return the timings of the migration once it has run, null otherwise.
+     */
+    public LiquibaseMigrationReport getMigrationReport() {
+        return migrationReport;
+    }
+
+    /**
+     * Runs the update only if the changelog checksum differs from the one stored by the last successful update,
+     * see {@link ChangelogChecksum}. A changelog without checksum, or any failure to compute or check it, falls back
+     * to a full update.
+     *
+     * @return true if the update was run, false if it was skipped.
+     * @throws liquibase.exception.LiquibaseException if the update fails.
+     */
+    private boolean updateUnlessUnchanged() throws LiquibaseException {
+        DataSource dataSource = getDataSource();
+        boolean closeDataSource = closeDataSourceOnceMigrated;
+        // Keep the DataSource open to store the checksum after the update
+        super.setCloseDataSourceOnceMigrated(false);
+        try {
+            String checksum = null;
+            try {
+                checksum = ChangelogChecksum.compute(this, parameters);
+            } catch (IOException | RuntimeException e) {
+                logger.warn(CHECKSUM_EXCEPTION_MESSAGE, e.getMessage());
+            }
+            boolean unchanged = checksum != null && ChangelogChecksum.isApplied(dataSource, this, checksum);
+            LiquibaseMigrationRecorder migrationRecorder = this.recorder;
+            if (migrationRecorder != null) {
+                migrationRecorder.checksummed();
+            }
+            if (unchanged) {
+                logger.debug(UNCHANGED_MESSAGE);
+                return false;
+            }
+            super.afterPropertiesSet();
+            if (checksum != null) {
+                try {
+                    ChangelogChecksum.markApplied(dataSource, this, checksum);
+                } catch (SQLException e) {
+                    logger.warn(CHECKSUM_EXCEPTION_MESSAGE, e.getMessage());
+                }
+            }
+            return true;
+        } finally {
+            super.setCloseDataSourceOnceMigrated(closeDataSource);
+            if (closeDataSource) {
+                closeDataSource(dataSource);
+            }
+        }
+    }
+
+    private void closeDataSource(DataSource dataSource) {
+        Method closeMethod = ReflectionUtils.findMethod(dataSource.getClass(), "close");
+        if (closeMethod != null) {
+            ReflectionUtils.invokeMethod(closeMethod, dataSource);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setCloseDataSourceOnceMigrated(boolean closeDataSourceOnceMigrated) {
+        super.setCloseDataSourceOnceMigrated(closeDataSourceOnceMigrated);
+        this.closeDataSourceOnceMigrated = closeDataSourceOnceMigrated;
+    }
 }
@@ -0,0 +1,320 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.liquibase;
+
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.datatype.DataTypeFactory;
+import liquibase.exception.LiquibaseException;
+import liquibase.integration.spring.SpringLiquibase;
+import liquibase.sql.Sql;
+import liquibase.sqlgenerator.SqlGeneratorFactory;
+import liquibase.statement.NotNullConstraint;
+import liquibase.statement.core.CreateTableStatement;
+import liquibase.util.LiquibaseUtil;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternUtils;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Checksum of the Liquibase changelog, stored in a marker table once the changelog has been applied, so that
+ * {@link AsyncSpringLiquibase} can skip parsing the changelog and querying the DATABASECHANGELOG table when
+ * nothing has changed.
+ * <p>
+ * The checksum covers the raw content of every resource located under the directory of the master changelog, the
+ * changelog parameters, the contexts, labels and default schema of the update, and the Liquibase version. The
+ * changelogs are not parsed: they are only scanned for what a checksum of their content can not cover, in which
+ * case there is no checksum and the changelog is applied on every start. That is a change set which runs always,
+ * or which may be skipped by its preconditions without being marked as ran, and an include of a resource outside
+ * of the hashed ones. The marker also records the number of applied change sets, so that a rollback done outside
+ * of the application invalidates it.
+ */
+final class ChangelogChecksum {
+
+    /** Name of the marker table. */
+    static final String TABLE_NAME = "JHI_LIQUIBASE_CHECKSUM";
+
+    private static final String DEFAULT_CHANGELOG_TABLE = "DATABASECHANGELOG";
+
+    private static final String CLASSPATH_PREFIX = "classpath:";
+
+    private static final String CLASSPATH_ALL_PREFIX = "classpath*:";
+
+    private static final Pattern CHANGELOG_EXTENSION = Pattern.compile(".*\\.(xml|ya?ml|json|sql)$");
+
+    private static final Pattern ALWAYS_APPLIED = Pattern.compile(
+        "(runAlways\\W{0,3}[=:]\\W{0,3}true|on(Fail|Error)\\W{0,3}[=:]\\W{0,3}CONTINUE)", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern XML_INCLUDE = Pattern.compile("<include(All)?\\b([^>]*)>");
+
+    private static final Pattern XML_INCLUDE_PATH = Pattern.compile("\\b(file|path)\\s*=\\s*[\"']([^\"']*)[\"']");
+
+    private static final Pattern XML_RELATIVE = Pattern.compile("\\brelativeToChangelogFile\\s*=\\s*[\"']true[\"']");
+
+    private static final Pattern OTHER_INCLUDE = Pattern.compile("(\\binclude(All)?\\W{0,3}:|^--\\s*include)",
+        Pattern.MULTILINE);
+
+    private ChangelogChecksum() {
+    }
+
+    /**
+     * Computes the checksum of the changelog configured in the given {@link SpringLiquibase}.
+     *
+     * @param liquibase the {@link SpringLiquibase} to compute the checksum for.
+     * @param changeLogParameters the changelog parameters of the {@link SpringLiquibase}, or null.
+     * @return the hexadecimal SHA-256 checksum, or null if the changelog must be applied on every start.
+     * @throws java.io.IOException if a changelog resource can not be read.
+     */
+    static String compute(SpringLiquibase liquibase, Map<String, String> changeLogParameters) throws IOException {
+        String directory = changelogDirectory(liquibase.getChangeLog());
+        ResourcePatternResolver resolver = ResourcePatternUtils.getResourcePatternResolver(liquibase.getResourceLoader());
+        // Relative to the root of the classpath, as the absolute location changes with the deployment
+        Map<String, Resource> resources = new TreeMap<>();
+        if (directory.isEmpty()) {
+            // A master changelog at the root of the classpath is hashed alone, rather than the whole classpath
+            resources.put(stripPrefix(liquibase.getChangeLog()), resolver.getResource(liquibase.getChangeLog()));
+        } else {
+            for (Resource resource : resolver.getResources(CLASSPATH_ALL_PREFIX + directory + "**/*.*")) {
+                String url = resource.getURL().toString();
+                resources.put(url.substring(url.lastIndexOf(directory)), resource);
+            }
+        }
+        MessageDigest digest = sha256();
+        for (Map.Entry<String, Resource> entry : resources.entrySet()) {
+            byte[] content;
+            try (InputStream in = entry.getValue().getInputStream()) {
+                content = StreamUtils.copyToByteArray(in);
+            }
+            if (CHANGELOG_EXTENSION.matcher(entry.getKey()).matches() &&
+                !isCovered(entry.getKey(), new String(content, StandardCharsets.UTF_8), directory, resources)) {
+                return null;
+            }
+            update(digest, entry.getKey());
+            digest.update(content);
+        }
+        update(digest, changeLogParameters != null ? new TreeMap<>(changeLogParameters).toString() : null);
+        update(digest, liquibase.getChangeLog());
+        update(digest, liquibase.getContexts());
+        update(digest, liquibase.getLabels());
+        update(digest, liquibase.getDefaultSchema());
+        update(digest, LiquibaseUtil.getBuildVersion());
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Checks whether the checksum of the hashed resources covers everything the given changelog applies.
+     */
+    private static boolean isCovered(String path, String changeLog, String directory, Map<String, Resource> resources) {
+        if (ALWAYS_APPLIED.matcher(changeLog).find()) {
+            return false;
+        }
+        if (!path.endsWith(".xml")) {
+            return !OTHER_INCLUDE.matcher(changeLog).find();
+        }
+        Matcher include = XML_INCLUDE.matcher(changeLog);
+        while (include.find()) {
+            Matcher includePath = XML_INCLUDE_PATH.matcher(include.group(2));
+            if (!includePath.find()) {
+                return false;
+            }
+            String included = XML_RELATIVE.matcher(include.group(2)).find() ?
+                path.substring(0, path.lastIndexOf('/') + 1) + includePath.group(2) : stripPrefix(includePath.group(2));
+            included = StringUtils.cleanPath(included);
+            boolean covered = include.group(1) != null ?
+                !directory.isEmpty() && !included.contains("..") && (included + "/").startsWith(directory) :
+                resources.containsKey(included);
+            if (!covered) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether the marker table holds the given checksum for the changelog, and whether the number of applied
+     * change sets is unchanged since it was stored.
+     *
+     * @param dataSource the {@link DataSource} of the database to migrate.
+     * @param liquibase the {@link SpringLiquibase} holding the changelog configuration.
+     * @param checksum the current checksum of the changelog.
+     * @return true if the changelog has already been applied, false if it changed or if the marker is missing.
+     */
+    static boolean isApplied(DataSource dataSource, SpringLiquibase liquibase, String checksum) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                 "SELECT CHECKSUM, CHANGESET_COUNT FROM " + markerTable(liquibase) + " WHERE ID = ?")) {
+            statement.setString(1, liquibase.getChangeLog());
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && checksum.equals(rs.getString(1)) &&
+                    rs.getLong(2) == countChangeSets(connection, liquibase);
+            }
+        } catch (SQLException e) {
+            // The marker table does not exist yet
+            return false;
+        }
+    }
+
+    /**
+     * Stores the checksum of the changelog in the marker table, creating the table if needed.
+     *
+     * @param dataSource the {@link DataSource} of the migrated database.
+     * @param liquibase the {@link SpringLiquibase} holding the changelog configuration.
+     * @param checksum the checksum of the applied changelog.
+     * @throws java.sql.SQLException if the marker can not be stored.
+     */
+    static void markApplied(DataSource dataSource, SpringLiquibase liquibase, String checksum) throws SQLException {
+        String table = markerTable(liquibase);
+        try (Connection connection = dataSource.getConnection()) {
+            long count = countChangeSets(connection, liquibase);
+            if (!tableExists(connection, table)) {
+                createTable(connection, liquibase);
+            }
+            int updated;
+            try (PreparedStatement statement = connection.prepareStatement(
+                "UPDATE " + table + " SET CHECKSUM = ?, CHANGESET_COUNT = ? WHERE ID = ?")) {
+                statement.setString(1, checksum);
+                statement.setLong(2, count);
+                statement.setString(3, liquibase.getChangeLog());
+                updated = statement.executeUpdate();
+            }
+            if (updated == 0) {
+                try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO " + table + " (ID, CHECKSUM, CHANGESET_COUNT) VALUES (?, ?, ?)")) {
+                    statement.setString(1, liquibase.getChangeLog());
+                    statement.setString(2, checksum);
+                    statement.setLong(3, count);
+                    statement.executeUpdate();
+                }
+            }
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+        }
+    }
+
+    /**
+     * Creates the marker table with the SQL generated by Liquibase for the database, so that its column types are
+     * the ones of the database, as in the DATABASECHANGELOG table.
+     */
+    private static void createTable(Connection connection, SpringLiquibase liquibase) throws SQLException {
+        try {
+            Database database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection));
+            DataTypeFactory types = DataTypeFactory.getInstance();
+            CreateTableStatement createTable = new CreateTableStatement(null, schema(liquibase), TABLE_NAME)
+                .addPrimaryKeyColumn("ID", types.fromDescription("VARCHAR(255)", database), null, null, null)
+                .addColumn("CHECKSUM", types.fromDescription("VARCHAR(64)", database), new NotNullConstraint())
+                .addColumn("CHANGESET_COUNT", types.fromDescription("BIGINT", database), new NotNullConstraint());
+            try (Statement statement = connection.createStatement()) {
+                for (Sql sql : SqlGeneratorFactory.getInstance().generateSql(createTable, database)) {
+                    statement.execute(sql.toSql());
+                }
+            }
+        } catch (LiquibaseException e) {
+            throw new SQLException("Could not create the " + TABLE_NAME + " table", e);
+        }
+    }
+
+    private static boolean tableExists(Connection connection, String table) {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeQuery("SELECT COUNT(*) FROM " + table).close();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private static long countChangeSets(Connection connection, SpringLiquibase liquibase) throws SQLException {
+        String table = liquibase.getDatabaseChangeLogTable() != null ?
+            liquibase.getDatabaseChangeLogTable() : DEFAULT_CHANGELOG_TABLE;
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM " + qualify(liquibase, table))) {
+            return rs.next() ? rs.getLong(1) : 0L;
+        }
+    }
+
+    private static String markerTable(SpringLiquibase liquibase) {
+        return qualify(liquibase, TABLE_NAME);
+    }
+
+    private static String qualify(SpringLiquibase liquibase, String table) {
+        String schema = schema(liquibase);
+        return schema != null ? schema + "." + table : table;
+    }
+
+    private static String schema(SpringLiquibase liquibase) {
+        return liquibase.getLiquibaseSchema() != null ? liquibase.getLiquibaseSchema() : liquibase.getDefaultSchema();
+    }
+
+    static String changelogDirectory(String changeLog) {
+        String path = stripPrefix(changeLog);
+        return path.substring(0, path.lastIndexOf('/') + 1);
+    }
+
+    private static String stripPrefix(String location) {
+        String path = location;
+        if (path.startsWith(CLASSPATH_ALL_PREFIX)) {
+            path = path.substring(CLASSPATH_ALL_PREFIX.length());
+        } else if (path.startsWith(CLASSPATH_PREFIX)) {
+            path = path.substring(CLASSPATH_PREFIX.length());
+        }
+        return path.startsWith("/") ? path.substring(1) : path;
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform supports SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+}
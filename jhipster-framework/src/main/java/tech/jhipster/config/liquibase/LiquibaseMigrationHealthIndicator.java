@@ -0,0 +1,94 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.liquibase;
+
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@link org.springframework.boot.actuate.health.HealthIndicator} reporting the progress of the migration run by an
+ * {@link AsyncSpringLiquibase}: {@code OUT_OF_SERVICE} while the migration is pending or running, {@code UP} once
+ * it has completed or when Liquibase is disabled, and {@code DOWN} if it has failed.
+ * <p>
+ * Add it to the readiness group, with {@code management.endpoint.health.group.readiness.include=readinessState,liquibaseMigration},
+ * so that an application migrating its database asynchronously does not receive traffic before it is done.
+ * Once the migration has run, its {@link LiquibaseMigrationReport} is included in the details.
+ */
+public class LiquibaseMigrationHealthIndicator extends AbstractHealthIndicator {
+
+    private static final int SLOWEST_CHANGE_SETS = 10;
+
+    private final AsyncSpringLiquibase liquibase;
+
+    /**
+     * <p>Constructor for LiquibaseMigrationHealthIndicator.</p>
+     *
+     * @param liquibase the {@link AsyncSpringLiquibase} running the migration.
+     */
+    public LiquibaseMigrationHealthIndicator(AsyncSpringLiquibase liquibase) {
+        super("Liquibase migration health check failed");
+        this.liquibase = liquibase;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        AsyncSpringLiquibase.MigrationStatus status = liquibase.getMigrationStatus();
+        builder.withDetail("status", status);
+        switch (status) {
+            case COMPLETED:
+                builder.up().withDetail("durationMs", liquibase.getMigrationTimeMillis());
+                break;
+            case DISABLED:
+                builder.up();
+                break;
+            case FAILED:
+                builder.down(liquibase.getMigrationFailure());
+                break;
+            default:
+                builder.outOfService();
+        }
+        LiquibaseMigrationReport report = liquibase.getMigrationReport();
+        if (report != null) {
+            builder.withDetail("report", reportDetails(report));
+        }
+    }
+
+    private static Map<String, Object> reportDetails(LiquibaseMigrationReport report) {
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("skipped", report.isSkipped());
+        details.put("checksumMs", report.getChecksumTime().toMillis());
+        details.put("connectionMs", report.getConnectionTime().toMillis());
+        details.put("parseMs", report.getParseTime().toMillis());
+        details.put("lockWaitMs", report.getLockWaitTime().toMillis());
+        details.put("updateMs", report.getUpdateTime().toMillis());
+        details.put("totalMs", report.getTotalTime().toMillis());
+        details.put("changeSets", report.getChangeSets().size());
+        Map<String, Long> slowest = new LinkedHashMap<>();
+        for (LiquibaseMigrationReport.ChangeSetTiming changeSet : report.getSlowestChangeSets(SLOWEST_CHANGE_SETS)) {
+            slowest.put(changeSet.getName(), changeSet.getDuration().toMillis());
+        }
+        details.put("slowestChangeSetsMs", slowest);
+        return details;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.liquibase;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.time.Duration;
+
+/**
+ * Publishes the {@link LiquibaseMigrationReport} of an {@link AsyncSpringLiquibase} to a {@link MeterRegistry},
+ * once the migration has run: a {@code jhipster.liquibase.phase} timer tagged with the phase, and a
+ * {@code jhipster.liquibase.changeset} timer recording each change set which was run, tagged with its execution
+ * type only. The timings of the individual change sets are kept in the report, and the slowest ones are exposed by
+ * the {@link LiquibaseMigrationHealthIndicator}, as a tag per change set would grow without bound.
+ */
+public class LiquibaseMigrationMetrics implements MeterBinder {
+
+    /** Constant <code>METRIC_PREFIX="jhipster.liquibase"</code> */
+    public static final String METRIC_PREFIX = "jhipster.liquibase";
+
+    private final AsyncSpringLiquibase liquibase;
+
+    /**
+     * <p>Constructor for LiquibaseMigrationMetrics.</p>
+     *
+     * @param liquibase the {@link AsyncSpringLiquibase} running the migration.
+     */
+    public LiquibaseMigrationMetrics(AsyncSpringLiquibase liquibase) {
+        this.liquibase = liquibase;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        liquibase.addMigrationListener(report -> record(registry, report));
+    }
+
+    private void record(MeterRegistry registry, LiquibaseMigrationReport report) {
+        recordPhase(registry, "checksum", report.getChecksumTime());
+        recordPhase(registry, "connection", report.getConnectionTime());
+        recordPhase(registry, "parse", report.getParseTime());
+        recordPhase(registry, "lock", report.getLockWaitTime());
+        recordPhase(registry, "update", report.getUpdateTime());
+        recordPhase(registry, "total", report.getTotalTime());
+        for (LiquibaseMigrationReport.ChangeSetTiming changeSet : report.getChangeSets()) {
+            Timer.builder(METRIC_PREFIX + ".changeset")
+                .description("Execution time of the Liquibase change sets")
+                .tag("exec.type", changeSet.getExecType())
+                .register(registry)
+                .record(changeSet.getDuration());
+        }
+    }
+
+    private void recordPhase(MeterRegistry registry, String phase, Duration duration) {
+        Timer.builder(METRIC_PREFIX + ".phase")
+            .description("Time spent in each phase of the Liquibase migration")
+            .tag("phase", phase)
+            .register(registry)
+            .record(duration);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.liquibase;
+
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.changelog.visitor.AbstractChangeExecListener;
+import liquibase.database.Database;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the timings of a migration while it runs, and builds the resulting {@link LiquibaseMigrationReport}.
+ * Each phase ends when the next one starts, phases which did not run are reported as zero.
+ */
+final class LiquibaseMigrationRecorder extends AbstractChangeExecListener {
+
+    private static final String FAILED = "FAILED";
+
+    private final long start = System.nanoTime();
+
+    private long checksumTime;
+
+    private long connectionTime;
+
+    private long parseTime;
+
+    private long lockWaitTime;
+
+    private long phaseStart = start;
+
+    private long changeSetStart;
+
+    private final List<LiquibaseMigrationReport.ChangeSetTiming> changeSets = new ArrayList<>();
+
+    void checksummed() {
+        checksumTime = endPhase();
+    }
+
+    void connected() {
+        connectionTime = endPhase();
+    }
+
+    void parsed() {
+        parseTime = endPhase();
+    }
+
+    void locked() {
+        lockWaitTime = endPhase();
+    }
+
+    private long endPhase() {
+        long now = System.nanoTime();
+        long elapsed = now - phaseStart;
+        phaseStart = now;
+        return elapsed;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void willRun(ChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database,
+                        ChangeSet.RunStatus runStatus) {
+        changeSetStart = System.nanoTime();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void ran(ChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database,
+                    ChangeSet.ExecType execType) {
+        changeSetFinished(changeSet, String.valueOf(execType));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void runFailed(ChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database,
+                          Exception exception) {
+        changeSetFinished(changeSet, FAILED);
+    }
+
+    private void changeSetFinished(ChangeSet changeSet, String execType) {
+        Duration duration = Duration.ofNanos(System.nanoTime() - changeSetStart);
+        changeSets.add(new LiquibaseMigrationReport.ChangeSetTiming(changeSet.getId(), changeSet.getAuthor(),
+            changeSet.getFilePath(), execType, duration));
+    }
+
+    LiquibaseMigrationReport report(boolean skipped) {
+        long now = System.nanoTime();
+        // Without the update hooks, as when the update is skipped, the whole time is accounted to the update
+        long updateTime = now - phaseStart;
+        return new LiquibaseMigrationReport(Duration.ofNanos(checksumTime), Duration.ofNanos(connectionTime),
+            Duration.ofNanos(parseTime),
+            Duration.ofNanos(lockWaitTime), Duration.ofNanos(updateTime), Duration.ofNanos(now - start),
+            skipped, changeSets);
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.liquibase;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Timings of a database migration run by {@link AsyncSpringLiquibase}, phase by phase and change set by change set.
+ * <p>
+ * The phases are measured around the Liquibase hooks of {@link liquibase.integration.spring.SpringLiquibase}:
+ * the checksum time covers the computation and the check of the changelog checksum, when the update is skipped
+ * for an unchanged changelog, the connection time includes the database detection done with the new connection, and
+ * the update time covers the execution of the change sets, including the ones which were already applied and only
+ * checked.
+ */
+public final class LiquibaseMigrationReport {
+
+    private final Duration checksumTime;
+
+    private final Duration connectionTime;
+
+    private final Duration parseTime;
+
+    private final Duration lockWaitTime;
+
+    private final Duration updateTime;
+
+    private final Duration totalTime;
+
+    private final boolean skipped;
+
+    private final List<ChangeSetTiming> changeSets;
+
+    LiquibaseMigrationReport(Duration checksumTime, Duration connectionTime, Duration parseTime, Duration lockWaitTime,
+                             Duration updateTime, Duration totalTime, boolean skipped, List<ChangeSetTiming> changeSets) {
+        this.checksumTime = checksumTime;
+        this.connectionTime = connectionTime;
+        this.parseTime = parseTime;
+        this.lockWaitTime = lockWaitTime;
+        this.updateTime = updateTime;
+        this.totalTime = totalTime;
+        this.skipped = skipped;
+        this.changeSets = Collections.unmodifiableList(new ArrayList<>(changeSets));
+    }
+
+    /**
+     * <p>Getter for the field <code>checksumTime</code>.</p>
+     *
+     * @return the time spent computing the changelog checksum and checking it against the database.
+     */
+    public Duration getChecksumTime() {
+        return checksumTime;
+    }
+
+    /**
+     * <p>Getter for the field <code>connectionTime</code>.</p>
+     *
+     * @return the time spent acquiring the connection and detecting the database.
+     */
+    public Duration getConnectionTime() {
+        return connectionTime;
+    }
+
+    /**
+     * <p>Getter for the field <code>parseTime</code>.</p>
+     *
+     * @return the time spent parsing the changelog.
+     */
+    public Duration getParseTime() {
+        return parseTime;
+    }
+
+    /**
+     * <p>Getter for the field <code>lockWaitTime</code>.</p>
+     *
+     * @return the time spent waiting for the changelog lock.
+     */
+    public Duration getLockWaitTime() {
+        return lockWaitTime;
+    }
+
+    /**
+     * <p>Getter for the field <code>updateTime</code>.</p>
+     *
+     * @return the time spent running the change sets.
+     */
+    public Duration getUpdateTime() {
+        return updateTime;
+    }
+
+    /**
+     * <p>Getter for the field <code>totalTime</code>.</p>
+     *
+     * @return the total time of the migration.
+     */
+    public Duration getTotalTime() {
+        return totalTime;
+    }
+
+    /**
+     * <p>isSkipped.</p>
+     *
+     * @return true if the update was skipped because the changelog was unchanged.
+     */
+    public boolean isSkipped() {
+        return skipped;
+    }
+
+    /**
+     * <p>Getter for the field <code>changeSets</code>.</p>
+     *
+     * @return the timings of the change sets which were run, in execution order.
+     */
+    public List<ChangeSetTiming> getChangeSets() {
+        return changeSets;
+    }
+
+    /**
+     * <p>getSlowestChangeSets.</p>
+     *
+     * @param max the maximum number of change sets to return.
+     * @return the slowest change sets which were run, slowest first.
+     */
+    public List<ChangeSetTiming> getSlowestChangeSets(int max) {
+        List<ChangeSetTiming> slowest = new ArrayList<>(changeSets);
+        slowest.sort(Comparator.comparing(ChangeSetTiming::getDuration).reversed());
+        return slowest.subList(0, Math.min(max, slowest.size()));
+    }
+
+    /**
+     * Execution time of a change set.
+     */
+    public static final class ChangeSetTiming {
+
+        private final String id;
+
+        private final String author;
+
+        private final String filePath;
+
+        private final String execType;
+
+        private final Duration duration;
+
+        ChangeSetTiming(String id, String author, String filePath, String execType, Duration duration) {
+            this.id = id;
+            this.author = author;
+            this.filePath = filePath;
+            this.execType = execType;
+            this.duration = duration;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getAuthor() {
+            return author;
+        }
+
+        public String getFilePath() {
+            return filePath;
+        }
+
+        /**
+         * <p>Getter for the field <code>execType</code>.</p>
+         *
+         * @return the outcome of the change set, as a Liquibase {@code ExecType}, or {@code FAILED}.
+         */
+        public String getExecType() {
+            return execType;
+        }
+
+        public Duration getDuration() {
+            return duration;
+        }
+
+        /**
+         * <p>getName.</p>
+         *
+         * @return the unique name of the change set, as displayed by Liquibase.
+         */
+        public String getName() {
+            return filePath + "::" + id + "::" + author;
+        }
+    }
+}
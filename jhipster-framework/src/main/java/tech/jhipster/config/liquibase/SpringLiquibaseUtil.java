@@ -18,14 +18,20 @@
  */
 package tech.jhipster.config.liquibase;
 
+import com.zaxxer.hikari.HikariDataSource;
 import liquibase.integration.spring.SpringLiquibase;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
 import org.springframework.boot.autoconfigure.liquibase.DataSourceClosingSpringLiquibase;
 import org.springframework.boot.autoconfigure.liquibase.LiquibaseProperties;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.core.env.Environment;
+import org.springframework.util.ClassUtils;
+import tech.jhipster.config.JHipsterProperties;
 
 import javax.sql.DataSource;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.Executor;
 import java.util.function.Supplier;
@@ -39,6 +45,11 @@ import java.util.function.Supplier;
  */
 public final class SpringLiquibaseUtil {
 
+    private static final String POOL_NAME = "liquibase";
+
+    private static final boolean HIKARI_PRESENT =
+        ClassUtils.isPresent("com.zaxxer.hikari.HikariDataSource", SpringLiquibaseUtil.class.getClassLoader());
+
     private SpringLiquibaseUtil() {
     }
 
@@ -52,20 +63,36 @@ public final class SpringLiquibaseUtil {
      * @return a {@link liquibase.integration.spring.SpringLiquibase} object.
      */
     public static SpringLiquibase createSpringLiquibase(DataSource liquibaseDatasource, LiquibaseProperties liquibaseProperties, DataSource dataSource, DataSourceProperties dataSourceProperties) {
+        return createSpringLiquibase(liquibaseDatasource, liquibaseProperties, dataSource, dataSourceProperties, new JHipsterProperties.Liquibase.Pool());
+    }
+
+    /**
+     * <p>createSpringLiquibase.</p>
+     *
+     * @param liquibaseDatasource a {@link javax.sql.DataSource} object.
+     * @param liquibaseProperties a {@link org.springframework.boot.autoconfigure.liquibase.LiquibaseProperties} object.
+     * @param dataSource a {@link javax.sql.DataSource} object.
+     * @param dataSourceProperties a {@link org.springframework.boot.autoconfigure.jdbc.DataSourceProperties} object.
+     * @param pool the settings of the DataSource created for the migration, when the application one can not be used.
+     * @return a {@link liquibase.integration.spring.SpringLiquibase} object.
+     */
+    public static SpringLiquibase createSpringLiquibase(DataSource liquibaseDatasource, LiquibaseProperties liquibaseProperties, DataSource dataSource, DataSourceProperties dataSourceProperties, JHipsterProperties.Liquibase.Pool pool) {
         SpringLiquibase liquibase;
-        DataSource liquibaseDataSource = getDataSource(liquibaseDatasource, liquibaseProperties, dataSource);
+        DataSource liquibaseDataSource = getDataSource(liquibaseDatasource, liquibaseProperties, dataSource, dataSourceProperties, pool);
         if (liquibaseDataSource != null) {
             liquibase = new SpringLiquibase();
             liquibase.setDataSource(liquibaseDataSource);
             return liquibase;
         }
         liquibase = new DataSourceClosingSpringLiquibase();
-        liquibase.setDataSource(createNewDataSource(liquibaseProperties, dataSourceProperties));
+        liquibase.setDataSource(createNewDataSource(liquibaseProperties, dataSourceProperties, pool));
         return liquibase;
     }
 
     /**
      * <p>createAsyncSpringLiquibase.</p>
+     * <p>The DataSource created for the migration, when the application one can not be used, is configured with the
+     * "jhipster.liquibase.pool" properties.</p>
      *
      * @param env a {@link org.springframework.core.env.Environment} object.
      * @param executor a {@link java.util.concurrent.Executor} object.
@@ -77,35 +104,93 @@ public final class SpringLiquibaseUtil {
      */
     public static AsyncSpringLiquibase createAsyncSpringLiquibase(Environment env, Executor executor, DataSource liquibaseDatasource, LiquibaseProperties liquibaseProperties, DataSource dataSource, DataSourceProperties dataSourceProperties) {
         AsyncSpringLiquibase liquibase = new AsyncSpringLiquibase(executor, env);
-        DataSource liquibaseDataSource = getDataSource(liquibaseDatasource, liquibaseProperties, dataSource);
+        JHipsterProperties.Liquibase.Pool pool = getPoolProperties(env);
+        DataSource liquibaseDataSource = getDataSource(liquibaseDatasource, liquibaseProperties, dataSource, dataSourceProperties, pool);
         if (liquibaseDataSource != null) {
             liquibase.setCloseDataSourceOnceMigrated(false);
             liquibase.setDataSource(liquibaseDataSource);
         } else {
-            liquibase.setDataSource(createNewDataSource(liquibaseProperties, dataSourceProperties));
+            liquibase.setDataSource(createNewDataSource(liquibaseProperties, dataSourceProperties, pool));
         }
         return liquibase;
     }
 
-    private static DataSource getDataSource(DataSource liquibaseDataSource, LiquibaseProperties liquibaseProperties, DataSource dataSource) {
+    private static JHipsterProperties.Liquibase.Pool getPoolProperties(Environment env) {
+        if (env instanceof ConfigurableEnvironment) {
+            return Binder.get(env).bind("jhipster.liquibase.pool", JHipsterProperties.Liquibase.Pool.class)
+                .orElseGet(JHipsterProperties.Liquibase.Pool::new);
+        }
+        return new JHipsterProperties.Liquibase.Pool();
+    }
+
+    private static DataSource getDataSource(DataSource liquibaseDataSource, LiquibaseProperties liquibaseProperties, DataSource dataSource,
+                                            DataSourceProperties dataSourceProperties, JHipsterProperties.Liquibase.Pool pool) {
         if (liquibaseDataSource != null) {
             return liquibaseDataSource;
         }
         if (liquibaseProperties.getUrl() == null && liquibaseProperties.getUser() == null) {
             return dataSource;
         }
+        if (dataSource != null && pool.isReuseDataSource() && hasSameConnectionSettings(liquibaseProperties, dataSourceProperties)) {
+            // No need to open more connections next to the application pool
+            return dataSource;
+        }
         return null;
     }
 
-    private static DataSource createNewDataSource(LiquibaseProperties liquibaseProperties, DataSourceProperties dataSourceProperties) {
+    private static boolean hasSameConnectionSettings(LiquibaseProperties liquibaseProperties, DataSourceProperties dataSourceProperties) {
+        if (dataSourceProperties == null) {
+            return false;
+        }
+        try {
+            String url = dataSourceProperties.determineUrl();
+            String user = dataSourceProperties.determineUsername();
+            String password = dataSourceProperties.determinePassword();
+            return Objects.equals(getProperty(liquibaseProperties::getUrl, () -> url), url) &&
+                Objects.equals(getProperty(liquibaseProperties::getUser, () -> user), user) &&
+                Objects.equals(getProperty(liquibaseProperties::getPassword, () -> password), password);
+        } catch (RuntimeException e) {
+            // The application DataSource settings can not be determined
+            return false;
+        }
+    }
+
+    private static DataSource createNewDataSource(LiquibaseProperties liquibaseProperties, DataSourceProperties dataSourceProperties,
+                                                  JHipsterProperties.Liquibase.Pool pool) {
         String url = getProperty(liquibaseProperties::getUrl, dataSourceProperties::determineUrl);
         String user = getProperty(liquibaseProperties::getUser, dataSourceProperties::determineUsername);
         String password = getProperty(liquibaseProperties::getPassword, dataSourceProperties::determinePassword);
-        return DataSourceBuilder.create().url(url).username(user).password(password).build();
+        DataSource dataSource = DataSourceBuilder.create().url(url).username(user).password(password).build();
+        if (HIKARI_PRESENT) {
+            return HikariDataSourceConfigurer.configure(dataSource, pool);
+        }
+        return dataSource;
     }
 
     private static String getProperty(Supplier<String> property, Supplier<String> defaultValue) {
         return Optional.of(property).map(Supplier::get).orElseGet(defaultValue);
     }
 
+    /**
+     * Sizes the Hikari pool for the migration, kept apart so that Hikari stays an optional dependency.
+     */
+    private static final class HikariDataSourceConfigurer {
+
+        private static DataSource configure(DataSource dataSource, JHipsterProperties.Liquibase.Pool pool) {
+            if (!(dataSource instanceof HikariDataSource)) {
+                return dataSource;
+            }
+            HikariDataSource hikari = (HikariDataSource) dataSource;
+            hikari.setPoolName(POOL_NAME);
+            hikari.setMaximumPoolSize(pool.getMaximumPoolSize());
+            hikari.setMinimumIdle(pool.isWarmUp() ? 1 : 0);
+            hikari.setConnectionTimeout(pool.getConnectionTimeoutInMillis());
+            if (pool.isWarmUp()) {
+                // Starts the pool right away, opening its first connection in the background
+                hikari.setInitializationFailTimeout(-1);
+                return new HikariDataSource(hikari);
+            }
+            return hikari;
+        }
+    }
 }
@@ -7,6 +7,7 @@ import ch.qos.logback.classic.spi.LoggerContextListener;
 import ch.qos.logback.core.ConsoleAppender;
 import ch.qos.logback.core.spi.ContextAwareBase;
 import tech.jhipster.config.JHipsterProperties;
+import tech.jhipster.config.startup.StartupTimeline;
 import net.logstash.logback.appender.LogstashTcpSocketAppender;
 import net.logstash.logback.composite.ContextJsonProvider;
 import net.logstash.logback.composite.GlobalCustomFieldsJsonProvider;
@@ -39,17 +40,19 @@ public final class LoggingUtils {
      * @param customFields a {@link java.lang.String} object.
      */
     public static void addJsonConsoleAppender(LoggerContext context, String customFields) {
-        log.info("Initializing Console loggingProperties");
-
-        // More documentation is available at: https://github.com/logstash/logstash-logback-encoder
-        ConsoleAppender<ILoggingEvent> consoleAppender = new ConsoleAppender<>();
-        consoleAppender.setContext(context);
-        consoleAppender.setEncoder(compositeJsonEncoder(context, customFields));
-        consoleAppender.setName(CONSOLE_APPENDER_NAME);
-        consoleAppender.start();
-
-        context.getLogger(ch.qos.logback.classic.Logger.ROOT_LOGGER_NAME).detachAppender(CONSOLE_APPENDER_NAME);
-        context.getLogger(ch.qos.logback.classic.Logger.ROOT_LOGGER_NAME).addAppender(consoleAppender);
+        try (StartupTimeline.Step ignored = StartupTimeline.start("logging.json-console-appender")) {
+            log.info("Initializing Console loggingProperties");
+
+            // More documentation is available at: https://github.com/logstash/logstash-logback-encoder
+            ConsoleAppender<ILoggingEvent> consoleAppender = new ConsoleAppender<>();
+            consoleAppender.setContext(context);
+            consoleAppender.setEncoder(compositeJsonEncoder(context, customFields));
+            consoleAppender.setName(CONSOLE_APPENDER_NAME);
+            consoleAppender.start();
+
+            context.getLogger(ch.qos.logback.classic.Logger.ROOT_LOGGER_NAME).detachAppender(CONSOLE_APPENDER_NAME);
+            context.getLogger(ch.qos.logback.classic.Logger.ROOT_LOGGER_NAME).addAppender(consoleAppender);
+        }
     }
 
     /**
@@ -61,18 +64,20 @@ public final class LoggingUtils {
      */
     public static void addLogstashTcpSocketAppender(LoggerContext context, String customFields,
                                                     JHipsterProperties.Logging.Logstash logstashProperties) {
-        log.info("Initializing Logstash loggingProperties");
-
-        // More documentation is available at: https://github.com/logstash/logstash-logback-encoder
-        LogstashTcpSocketAppender logstashAppender = new LogstashTcpSocketAppender();
-        logstashAppender.addDestinations(new InetSocketAddress(logstashProperties.getHost(), logstashProperties.getPort()));
-        logstashAppender.setContext(context);
-        logstashAppender.setEncoder(logstashEncoder(customFields));
-        logstashAppender.setName(ASYNC_LOGSTASH_APPENDER_NAME);
-        logstashAppender.setQueueSize(logstashProperties.getQueueSize());
-        logstashAppender.start();
-
-        context.getLogger(ch.qos.logback.classic.Logger.ROOT_LOGGER_NAME).addAppender(logstashAppender);
+        try (StartupTimeline.Step ignored = StartupTimeline.start("logging.logstash-appender")) {
+            log.info("Initializing Logstash loggingProperties");
+
+            // More documentation is available at: https://github.com/logstash/logstash-logback-encoder
+            LogstashTcpSocketAppender logstashAppender = new LogstashTcpSocketAppender();
+            logstashAppender.addDestinations(new InetSocketAddress(logstashProperties.getHost(), logstashProperties.getPort()));
+            logstashAppender.setContext(context);
+            logstashAppender.setEncoder(logstashEncoder(customFields));
+            logstashAppender.setName(ASYNC_LOGSTASH_APPENDER_NAME);
+            logstashAppender.setQueueSize(logstashProperties.getQueueSize());
+            logstashAppender.start();
+
+            context.getLogger(ch.qos.logback.classic.Logger.ROOT_LOGGER_NAME).addAppender(logstashAppender);
+        }
     }
 
     /**
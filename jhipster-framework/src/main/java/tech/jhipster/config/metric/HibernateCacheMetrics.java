@@ -0,0 +1,205 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.metric;
+
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.CacheableDataStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The statistics of the Hibernate second-level and query caches, reported in the "cache" section of the
+ * {@link JHipsterMetricsEndpoint} alongside the Spring caches.
+ * <p>
+ * Each region gets the hit, miss and put counts, the hit ratio and the size of the region, keyed by region name,
+ * which is also the name of the Spring cache when the region is shared with Spring. The evictions are read from the
+ * JCache statistics MBeans, so they are only available when the JCache provider has statistics enabled. The MBeans
+ * are looked up once, and again when the second-level cache regions change or one of them is unregistered. The
+ * "hibernate.second.level.cache" entry holds the totals, including the number of cached entities and collections,
+ * and the "hibernate.query.cache" entry the statistics of the query cache.
+ * <p>
+ * Hibernate only collects these statistics when <code>spring.jpa.properties.hibernate.generate_statistics</code> is
+ * true.
+ */
+public class HibernateCacheMetrics {
+
+    /** Constant <code>SECOND_LEVEL_CACHE="hibernate.second.level.cache"</code> */
+    public static final String SECOND_LEVEL_CACHE = "hibernate.second.level.cache";
+
+    /** Constant <code>QUERY_CACHE="hibernate.query.cache"</code> */
+    public static final String QUERY_CACHE = "hibernate.query.cache";
+
+    private final Logger log = LoggerFactory.getLogger(HibernateCacheMetrics.class);
+
+    private final Statistics statistics;
+
+    private volatile JCacheStatisticsNames jCacheStatisticsNames;
+
+    /**
+     * <p>Constructor for HibernateCacheMetrics.</p>
+     *
+     * @param statistics the {@link Statistics} of the Hibernate session factory.
+     */
+    public HibernateCacheMetrics(Statistics statistics) {
+        this.statistics = statistics;
+    }
+
+    /**
+     * <p>cacheMetrics.</p>
+     *
+     * @return the statistics of each second-level cache region, their totals and the query cache statistics, or
+     * nothing when the statistics are disabled.
+     */
+    public Map<String, Map<String, Number>> cacheMetrics() {
+        Map<String, Map<String, Number>> resultsCache = new HashMap<>();
+        if (!statistics.isStatisticsEnabled()) {
+            return resultsCache;
+        }
+
+        Set<String> entityRegions = new HashSet<>();
+        for (String entityName : statistics.getEntityNames()) {
+            addRegion(entityRegions, statistics.getEntityStatistics(entityName));
+        }
+        Set<String> collectionRegions = new HashSet<>();
+        for (String role : statistics.getCollectionRoleNames()) {
+            addRegion(collectionRegions, statistics.getCollectionStatistics(role));
+        }
+        String[] regionNames = statistics.getSecondLevelCacheRegionNames();
+        Map<String, Long> evictions = jCacheEvictions(regionNames);
+
+        long entities = 0;
+        long collections = 0;
+        for (String regionName : regionNames) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region == null) {
+                continue;
+            }
+            Map<String, Number> resultsRegion = counts(SECOND_LEVEL_CACHE, region.getHitCount(), region.getMissCount(),
+                region.getPutCount());
+            resultsRegion.put(SECOND_LEVEL_CACHE + ".elementCountInMemory", region.getElementCountInMemory());
+            resultsRegion.put(SECOND_LEVEL_CACHE + ".elementCountOnDisk", region.getElementCountOnDisk());
+            resultsRegion.put(SECOND_LEVEL_CACHE + ".sizeInMemory", region.getSizeInMemory());
+            Long regionEvictions = evictions.get(regionName);
+            if (regionEvictions != null) {
+                resultsRegion.put(SECOND_LEVEL_CACHE + ".evictions", regionEvictions);
+            }
+            resultsCache.put(regionName, resultsRegion);
+
+            long elementCount = Math.max(0, region.getElementCountInMemory());
+            if (entityRegions.contains(regionName)) {
+                entities += elementCount;
+            } else if (collectionRegions.contains(regionName)) {
+                collections += elementCount;
+            }
+        }
+
+        Map<String, Number> resultsTotal = counts(SECOND_LEVEL_CACHE, statistics.getSecondLevelCacheHitCount(),
+            statistics.getSecondLevelCacheMissCount(), statistics.getSecondLevelCachePutCount());
+        resultsTotal.put(SECOND_LEVEL_CACHE + ".entities", entities);
+        resultsTotal.put(SECOND_LEVEL_CACHE + ".collections", collections);
+        resultsCache.put(SECOND_LEVEL_CACHE, resultsTotal);
+
+        resultsCache.put(QUERY_CACHE, counts(QUERY_CACHE, statistics.getQueryCacheHitCount(),
+            statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount()));
+        return resultsCache;
+    }
+
+    private static void addRegion(Set<String> regions, CacheableDataStatistics cacheableStatistics) {
+        if (cacheableStatistics != null && cacheableStatistics.getCacheRegionName() != null) {
+            regions.add(cacheableStatistics.getCacheRegionName());
+        }
+    }
+
+    private static Map<String, Number> counts(String prefix, long hits, long misses, long puts) {
+        Map<String, Number> results = new HashMap<>();
+        results.put(prefix + ".hit", hits);
+        results.put(prefix + ".miss", misses);
+        results.put(prefix + ".put", puts);
+        if (hits + misses > 0) {
+            results.put(prefix + ".hitRatio", (double) hits / (hits + misses));
+        }
+        return results;
+    }
+
+    private Map<String, Long> jCacheEvictions(String[] regionNames) {
+        Map<String, Long> evictions = new HashMap<>();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            for (Map.Entry<ObjectName, String> entry : jCacheStatisticsNames(server, regionNames).entrySet()) {
+                Object value = server.getAttribute(entry.getKey(), "CacheEvictions");
+                if (value instanceof Number) {
+                    evictions.merge(entry.getValue(), ((Number) value).longValue(), Long::sum);
+                }
+            }
+        } catch (InstanceNotFoundException e) {
+            jCacheStatisticsNames = null;
+            log.debug("A JCache statistics MBean was unregistered: {}", e.getMessage());
+        } catch (JMException e) {
+            log.debug("Could not read the JCache evictions: {}", e.getMessage());
+        }
+        return evictions;
+    }
+
+    private Map<ObjectName, String> jCacheStatisticsNames(MBeanServer server, String[] regionNames)
+        throws MalformedObjectNameException {
+        Set<String> regions = new HashSet<>(Arrays.asList(regionNames));
+        JCacheStatisticsNames names = jCacheStatisticsNames;
+        if (names == null || !names.regions.equals(regions)) {
+            Map<ObjectName, String> caches = new HashMap<>();
+            for (ObjectName name : server.queryNames(new ObjectName("javax.cache:type=CacheStatistics,*"), null)) {
+                String cache = name.getKeyProperty("Cache");
+                if (cache != null) {
+                    caches.put(name, cache.startsWith("\"") ? ObjectName.unquote(cache) : cache);
+                }
+            }
+            names = new JCacheStatisticsNames(regions, caches);
+            jCacheStatisticsNames = names;
+        }
+        return names.caches;
+    }
+
+    /**
+     * The names of the JCache statistics MBeans, with their cache, found for a set of second-level cache regions.
+     */
+    private static final class JCacheStatisticsNames {
+
+        private final Set<String> regions;
+
+        private final Map<ObjectName, String> caches;
+
+        private JCacheStatisticsNames(Set<String> regions, Map<ObjectName, String> caches) {
+            this.regions = regions;
+            this.caches = caches;
+        }
+    }
+}
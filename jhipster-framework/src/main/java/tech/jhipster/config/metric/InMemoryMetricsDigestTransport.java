@@ -0,0 +1,46 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.metric;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link MetricsDigestTransport} keeping the digests in memory, so only sharing them between the nodes running in
+ * the same JVM. It is mostly useful for development and tests.
+ */
+public class InMemoryMetricsDigestTransport implements MetricsDigestTransport {
+
+    private final Map<String, MetricsDigest> digests = new ConcurrentHashMap<>();
+
+    /** {@inheritDoc} */
+    @Override
+    public void publish(MetricsDigest digest) {
+        digests.put(digest.getNodeId(), digest);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Collection<MetricsDigest> getDigests() {
+        return Collections.unmodifiableCollection(digests.values());
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.metric;
+
+import javax.cache.Cache;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A {@link MetricsDigestTransport} sharing the digests through a distributed JCache cache, for instance
+ * a Hazelcast, Infinispan or Redisson cache, keyed by node identifier.
+ * <p>
+ * The cache should have an expiry policy slightly longer than
+ * <code>jhipster.metrics.cluster-digest-ttl-in-seconds</code>, so that the digests of stopped nodes are removed.
+ * <p>
+ * Example:
+ * <pre>
+ * &#64;Bean
+ * public MetricsDigestTransport metricsDigestTransport(javax.cache.CacheManager cacheManager) {
+ *     MutableConfiguration&lt;String, MetricsDigest&gt; configuration = new MutableConfiguration&lt;String, MetricsDigest&gt;()
+ *         .setTypes(String.class, MetricsDigest.class)
+ *         .setExpiryPolicyFactory(CreatedExpiryPolicy.factoryOf(Duration.TWO_MINUTES));
+ *     return new JCacheMetricsDigestTransport(cacheManager.createCache("jhipster-metrics-digests", configuration));
+ * }
+ * </pre>
+ */
+public class JCacheMetricsDigestTransport implements MetricsDigestTransport {
+
+    private final Cache<String, MetricsDigest> cache;
+
+    /**
+     * <p>Constructor for JCacheMetricsDigestTransport.</p>
+     *
+     * @param cache the cache holding the digests, keyed by node identifier.
+     */
+    public JCacheMetricsDigestTransport(Cache<String, MetricsDigest> cache) {
+        this.cache = cache;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void publish(MetricsDigest digest) {
+        cache.put(digest.getNodeId(), digest);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Collection<MetricsDigest> getDigests() {
+        List<MetricsDigest> digests = new ArrayList<>();
+        for (Cache.Entry<String, MetricsDigest> entry : cache) {
+            digests.add(entry.getValue());
+        }
+        return digests;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.metric;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.export.simple.SimpleMetricsExportAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Configuration;
+import tech.jhipster.async.AsyncTaskExecutorMetrics;
+import tech.jhipster.async.ExceptionHandlingAsyncTaskExecutor;
+
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Binds the metrics of every {@link ExceptionHandlingAsyncTaskExecutor} bean to the {@link MeterRegistry},
+ * using the bean name as executor name.
+ */
+@Configuration
+@ConditionalOnClass(Timed.class)
+@AutoConfigureAfter({MetricsAutoConfiguration.class, SimpleMetricsExportAutoConfiguration.class})
+@ConditionalOnBean({Executor.class, MeterRegistry.class})
+public class JHipsterAsyncMetricsConfiguration {
+
+    /**
+     * <p>bindAsyncTaskExecutorsToRegistry.</p>
+     *
+     * @param executors the {@link java.util.concurrent.Executor} beans, by bean name.
+     * @param registry a {@link io.micrometer.core.instrument.MeterRegistry} object.
+     */
+    @Autowired
+    public void bindAsyncTaskExecutorsToRegistry(Map<String, Executor> executors, MeterRegistry registry) {
+        executors.forEach((beanName, executor) -> {
+            if (executor instanceof ExceptionHandlingAsyncTaskExecutor) {
+                new AsyncTaskExecutorMetrics((ExceptionHandlingAsyncTaskExecutor) executor, beanName).bindTo(registry);
+            }
+        });
+    }
+}
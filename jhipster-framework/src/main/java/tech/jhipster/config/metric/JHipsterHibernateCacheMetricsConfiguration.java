@@ -0,0 +1,56 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.metric;
+
+import org.hibernate.SessionFactory;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnSingleCandidate;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Reports the Hibernate second-level and query cache statistics in the "cache" section of the
+ * {@link JHipsterMetricsEndpoint}.
+ */
+@Configuration
+@ConditionalOnClass({SessionFactory.class, EntityManagerFactory.class})
+@AutoConfigureAfter({JHipsterMetricsEndpointConfiguration.class, HibernateJpaAutoConfiguration.class})
+@ConditionalOnBean(JHipsterMetricsEndpoint.class)
+@ConditionalOnSingleCandidate(EntityManagerFactory.class)
+public class JHipsterHibernateCacheMetricsConfiguration {
+
+    /**
+     * <p>hibernateCacheMetrics.</p>
+     *
+     * @param entityManagerFactory the Hibernate {@link EntityManagerFactory}.
+     * @return a {@link HibernateCacheMetrics} object.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public HibernateCacheMetrics hibernateCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        return new HibernateCacheMetrics(entityManagerFactory.unwrap(SessionFactory.class).getStatistics());
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.metric;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import liquibase.integration.spring.SpringLiquibase;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.export.simple.SimpleMetricsExportAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnSingleCandidate;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tech.jhipster.config.liquibase.AsyncSpringLiquibase;
+import tech.jhipster.config.liquibase.LiquibaseMigrationMetrics;
+
+/**
+ * Publishes the timings of the migration run by the {@link AsyncSpringLiquibase} bean to the {@link MeterRegistry}.
+ */
+@Configuration
+@ConditionalOnClass({Timed.class, SpringLiquibase.class})
+@AutoConfigureAfter({MetricsAutoConfiguration.class, SimpleMetricsExportAutoConfiguration.class})
+@ConditionalOnBean(MeterRegistry.class)
+@ConditionalOnSingleCandidate(AsyncSpringLiquibase.class)
+public class JHipsterLiquibaseMetricsConfiguration {
+
+    /**
+     * <p>liquibaseMigrationMetrics.</p>
+     *
+     * @param liquibase the {@link AsyncSpringLiquibase} running the migration.
+     * @return a {@link LiquibaseMigrationMetrics} object.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public LiquibaseMigrationMetrics liquibaseMigrationMetrics(AsyncSpringLiquibase liquibase) {
+        return new LiquibaseMigrationMetrics(liquibase);
+    }
+}
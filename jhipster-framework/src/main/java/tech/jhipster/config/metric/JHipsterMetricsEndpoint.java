@@ -6,11 +6,19 @@ import io.micrometer.core.instrument.distribution.ValueAtPercentile;
 import io.micrometer.core.instrument.search.Search;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
 import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import tech.jhipster.async.AsyncTaskExecutorMetrics;
 
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * <p>JHipsterMetricsEndpoint class.</p>
@@ -20,6 +28,28 @@ public class JHipsterMetricsEndpoint {
 
     private final MeterRegistry meterRegistry;
 
+    private final SlidingWindowMetrics windows;
+
+    private final ProfilingMetrics profiling;
+
+    private final SlowSampleReservoir slowRequests;
+
+    private final SlowSampleReservoir slowQueries;
+
+    private final List<Consumer<Map<String, Map>>> snapshotListeners = new CopyOnWriteArrayList<>();
+
+    private volatile Map<String, Map> snapshot;
+
+    private final AtomicBoolean read = new AtomicBoolean();
+
+    private String nodeId = ManagementFactory.getRuntimeMXBean().getName();
+
+    private MetricsDigestTransport digestTransport;
+
+    private Duration digestTtl;
+
+    private ObjectProvider<HibernateCacheMetrics> hibernateCacheMetrics;
+
     private final Logger logger = LoggerFactory.getLogger(JHipsterMetricsEndpoint.class);
 
     /** Constant <code>MISSING_NAME_TAG_MESSAGE="Missing name tag for metric {}"</code> */
@@ -31,39 +61,196 @@ public class JHipsterMetricsEndpoint {
      * @param meterRegistry a {@link io.micrometer.core.instrument.MeterRegistry} object.
      */
     public JHipsterMetricsEndpoint(MeterRegistry meterRegistry) {
+        this(meterRegistry, new SlowSampleReservoir(), new SlowSampleReservoir());
+    }
+
+    /**
+     * <p>Constructor for JHipsterMetricsEndpoint.</p>
+     *
+     * @param meterRegistry a {@link io.micrometer.core.instrument.MeterRegistry} object.
+     * @param slowRequests the {@link SlowSampleReservoir} of the slowest recent HTTP requests.
+     * @param slowQueries the {@link SlowSampleReservoir} of the slowest recent SQL statements.
+     */
+    public JHipsterMetricsEndpoint(MeterRegistry meterRegistry, SlowSampleReservoir slowRequests,
+                                   SlowSampleReservoir slowQueries) {
         this.meterRegistry = meterRegistry;
+        this.slowRequests = slowRequests;
+        this.slowQueries = slowQueries;
+        this.windows = new SlidingWindowMetrics(meterRegistry);
+        this.profiling = new ProfilingMetrics(meterRegistry.config().clock());
     }
 
     /**
      * GET /management/jhi-metrics
      * <p>
-     * Give metrics displayed on Metrics page
+     * Give metrics displayed on Metrics page. Returns the latest snapshot when snapshots are refreshed, see
+     * {@link #refreshSnapshot()}, and computes the metrics otherwise. Each read is recorded, see {@link #markRead()}.
      *
      * @return a Map with a String defining a category of metrics as Key and
      * another Map containing metrics related to this category as Value
      */
     @ReadOperation
     public Map<String, Map> allMetrics() {
+        read.set(true);
+        Map<String, Map> current = snapshot;
+        return current != null ? current : computeMetrics();
+    }
+
+    /**
+     * Computes the metrics and publishes them as an immutable snapshot, returned by {@link #allMetrics()} until the
+     * next refresh. The snapshot is a {@link MetricsRecord}, whose keys and numbers are encoded once, however many
+     * times it is read.
+     * <p>
+     * Each refresh also samples the meters for the "windows" section, the rates over the last 1, 5 and 15 minutes,
+     * and the threads for the "profiling" section, the allocation, CPU, lock contention and compilation statistics
+     * since the previous refresh. Both are empty until two refreshes have run.
+     */
+    public void refreshSnapshot() {
+        windows.sample();
+        profiling.sample();
+        Map<String, Map> current = MetricsRecord.of(computeMetrics());
+        snapshot = current;
+        snapshotListeners.forEach(listener -> listener.accept(current));
+    }
+
+    /**
+     * Records that the metrics are being read other than through {@link #allMetrics()}, such as by a stream
+     * subscriber waiting for the next snapshot, so that the {@link JHipsterMetricsSnapshotRefresher} keeps
+     * refreshing them.
+     */
+    public void markRead() {
+        read.set(true);
+    }
+
+    boolean pollRead() {
+        return read.getAndSet(false);
+    }
+
+    void clearSnapshot() {
+        if (snapshot != null) {
+            snapshot = null;
+            snapshotListeners.forEach(listener -> listener.accept(null));
+        }
+    }
+
+    /**
+     * Adds a listener notified with each new snapshot, from the thread refreshing the snapshot, and with null when
+     * the snapshot is dropped as it is no longer read.
+     *
+     * @param listener the listener.
+     */
+    public void addSnapshotListener(Consumer<Map<String, Map>> listener) {
+        snapshotListeners.add(listener);
+    }
+
+    /**
+     * Enables the "cluster" section, with the HTTP requests metrics of all the nodes sharing the transport: each node
+     * publishes its {@link MetricsDigest} when computing its metrics, and merges the digests of all the nodes into
+     * cluster totals, as well as a breakdown per node.
+     *
+     * @param digestTransport the transport exchanging the digests.
+     * @param nodeId the identifier of the current node, unique in the cluster.
+     * @param digestTtl the age after which the digest of a node which stopped publishing is ignored.
+     */
+    public void setDigestTransport(MetricsDigestTransport digestTransport, String nodeId, Duration digestTtl) {
+        this.digestTransport = digestTransport;
+        this.nodeId = nodeId;
+        this.digestTtl = digestTtl;
+    }
+
+    /**
+     * Adds the Hibernate second-level and query cache statistics to the "cache" section.
+     *
+     * @param hibernateCacheMetrics the provider of the {@link HibernateCacheMetrics}, resolved when the metrics are
+     * computed.
+     */
+    public void setHibernateCacheMetrics(ObjectProvider<HibernateCacheMetrics> hibernateCacheMetrics) {
+        this.hibernateCacheMetrics = hibernateCacheMetrics;
+    }
 
+    private Map<String, Map> computeMetrics() {
         Map<String, Map> results = new HashMap<>();
+        MetricsDigest httpServerRequests = MetricsDigest.of(nodeId, System.currentTimeMillis(),
+            this.meterRegistry.find("http.server.requests").timers());
         // JVM stats
         results.put("jvm", this.jvmMemoryMetrics());
         // HTTP requests stats
-        results.put("http.server.requests", this.httpRequestsMetrics());
+        results.put("http.server.requests", httpServerRequests.httpRequestsMetrics());
         // Cache stats
         results.put("cache", this.cacheMetrics());
         // Service stats
-        results.put("services", this.serviceMetrics());
+        results.put("services", httpServerRequests.serviceMetrics());
         // Database stats
         results.put("databases", this.databaseMetrics());
         // Garbage collector
         results.put("garbageCollector", this.garbageCollectorMetrics());
         // Process stats
         results.put("processMetrics", this.processMetrics());
+        // Async executors stats
+        results.put("executors", this.executorMetrics());
+        // Rates over sliding windows
+        results.put("windows", this.windows.toMap());
+        // Allocation, CPU, lock contention and compilation stats
+        results.put("profiling", this.profiling.toMap());
+        // Slowest recent requests and SQL statements
+        results.put("slowest", this.slowestMetrics());
+        // Cluster-wide HTTP requests stats
+        if (digestTransport != null) {
+            results.put("cluster", this.clusterMetrics(httpServerRequests));
+        }
 
         return results;
     }
 
+    private Map<String, Object> clusterMetrics(MetricsDigest local) {
+        Collection<MetricsDigest> digests;
+        try {
+            digestTransport.publish(local);
+            long oldest = local.getTimestamp() - digestTtl.toMillis();
+            digests = digestTransport.getDigests().stream()
+                .filter(digest -> digest.getTimestamp() >= oldest)
+                .collect(Collectors.toList());
+        } catch (RuntimeException e) {
+            logger.warn("Could not exchange the metrics digests with the cluster: {}", e.getMessage());
+            digests = Collections.singletonList(local);
+        }
+
+        Map<String, Map> resultsPerNode = new HashMap<>();
+        digests.forEach(digest -> {
+            Map<String, Object> resultsNode = new HashMap<>();
+            resultsNode.put("timestamp", digest.getTimestamp());
+            resultsNode.put("http.server.requests", digest.httpRequestsMetrics());
+            resultsNode.put("services", digest.serviceMetrics());
+            resultsPerNode.put(digest.getNodeId(), resultsNode);
+        });
+
+        MetricsDigest total = MetricsDigest.merge(digests);
+        Map<String, Object> resultsCluster = new HashMap<>();
+        resultsCluster.put("http.server.requests", total.httpRequestsMetrics());
+        resultsCluster.put("services", total.serviceMetrics());
+        resultsCluster.put("nodes", resultsPerNode);
+        return resultsCluster;
+    }
+
+    private Map<String, List<Map<String, Object>>> slowestMetrics() {
+        Map<String, List<Map<String, Object>>> resultsSlowest = new HashMap<>();
+        resultsSlowest.put("requests", slowSamples(slowRequests));
+        resultsSlowest.put("queries", slowSamples(slowQueries));
+        return resultsSlowest;
+    }
+
+    private static List<Map<String, Object>> slowSamples(SlowSampleReservoir reservoir) {
+        List<Map<String, Object>> resultsSamples = new ArrayList<>();
+        reservoir.getSamples().forEach(sample -> {
+            Map<String, Object> resultsSample = new HashMap<>();
+            resultsSample.put("name", sample.getName());
+            resultsSample.put("duration", sample.getDurationInNanos() / 1e6);
+            resultsSample.put("timestamp", sample.getTimestamp());
+            resultsSamples.add(resultsSample);
+        });
+        return resultsSamples;
+    }
+
     private Map<String, Number> processMetrics() {
         Map<String, Number> resultsProcess = new HashMap<>();
 
@@ -143,42 +330,6 @@ public class JHipsterMetricsEndpoint {
         return resultsDatabase;
     }
 
-    private Map<String, Map> serviceMetrics() {
-        Collection<String> crudOperation = Arrays.asList("GET", "POST", "PUT", "DELETE");
-
-        Set<String> uris = new HashSet<>();
-        Collection<Timer> timers = this.meterRegistry.find("http.server.requests").timers();
-
-        timers.forEach(timer -> uris.add(timer.getId().getTag("uri")));
-        Map<String, Map> resultsHttpPerUri = new HashMap<>();
-
-        uris.forEach(uri -> {
-            Map<String, Map> resultsPerUri = new HashMap<>();
-
-            crudOperation.forEach(operation -> {
-                Map<String, Number> resultsPerUriPerCrudOperation = new HashMap<>();
-
-                Collection<Timer> httpTimersStream = this.meterRegistry.find("http.server.requests").tags("uri", uri, "method", operation).timers();
-                long count = httpTimersStream.stream().map(Timer::count).reduce((x, y) -> x + y).orElse(0L);
-
-                if (count != 0) {
-                    double max = httpTimersStream.stream().map(x -> x.totalTime(TimeUnit.MILLISECONDS)).reduce((x, y) -> x > y ? x : y).orElse((double) 0);
-                    double totalTime = httpTimersStream.stream().map(x -> x.totalTime(TimeUnit.MILLISECONDS)).reduce((x, y) -> (x + y)).orElse((double) 0);
-
-                    resultsPerUriPerCrudOperation.put("count", count);
-                    resultsPerUriPerCrudOperation.put("max", max);
-                    resultsPerUriPerCrudOperation.put("mean", totalTime / count);
-
-                    resultsPerUri.put(operation, resultsPerUriPerCrudOperation);
-                }
-            });
-
-            resultsHttpPerUri.put(uri, resultsPerUri);
-        });
-
-        return resultsHttpPerUri;
-    }
-
     private Map<String, Map<String, Number>> cacheMetrics() {
         Map<String, Map<String, Number>> resultsCache = new HashMap<>();
 
@@ -208,9 +359,44 @@ public class JHipsterMetricsEndpoint {
                 logger.warn(MISSING_NAME_TAG_MESSAGE, key);
             }
         });
+
+        if (hibernateCacheMetrics != null) {
+            hibernateCacheMetrics.ifAvailable(metrics -> metrics.cacheMetrics().forEach((name, resultsRegion) ->
+                resultsCache.computeIfAbsent(name, k -> new HashMap<>()).putAll(resultsRegion)));
+        }
         return resultsCache;
     }
 
+    private Map<String, Map<String, Object>> executorMetrics() {
+        Map<String, Map<String, Object>> resultsExecutors = new HashMap<>();
+        String prefix = AsyncTaskExecutorMetrics.METRIC_PREFIX + ".";
+
+        Search.in(this.meterRegistry).name(s -> s.startsWith(prefix)).meters().forEach(meter -> {
+            String name = meter.getId().getTag("name");
+            if (name == null) {
+                logger.warn(MISSING_NAME_TAG_MESSAGE, meter.getId().getName());
+                return;
+            }
+            String key = meter.getId().getName().substring(prefix.length());
+            Map<String, Object> resultsPerExecutor = resultsExecutors.computeIfAbsent(name, k -> new HashMap<>());
+            if (meter instanceof Timer) {
+                Timer timer = (Timer) meter;
+                Map<String, Number> timerResults = new HashMap<>();
+                timerResults.put("count", timer.count());
+                timerResults.put("max", timer.max(TimeUnit.MILLISECONDS));
+                timerResults.put("totalTime", timer.totalTime(TimeUnit.MILLISECONDS));
+                timerResults.put("mean", timer.mean(TimeUnit.MILLISECONDS));
+                resultsPerExecutor.put(key, timerResults);
+            } else if (meter instanceof Counter) {
+                resultsPerExecutor.put(key, ((Counter) meter).count());
+            } else if (meter instanceof Gauge) {
+                resultsPerExecutor.put(key, ((Gauge) meter).value());
+            }
+        });
+
+        return resultsExecutors;
+    }
+
     private Map<String, Map<String, Number>> jvmMemoryMetrics() {
         Map<String, Map<String, Number>> resultsJvm = new HashMap<>();
 
@@ -239,41 +425,4 @@ public class JHipsterMetricsEndpoint {
 
         return resultsJvm;
     }
-
-    private Map<String, Map> httpRequestsMetrics() {
-        Set<String> statusCode = new HashSet<>();
-        Collection<Timer> timers = this.meterRegistry.find("http.server.requests").timers();
-
-        timers.forEach(timer -> statusCode.add(timer.getId().getTag("status")));
-
-        Map<String, Map> resultsHttp = new HashMap<>();
-        Map<String, Map<String, Number>> resultsHttpPerCode = new HashMap<>();
-
-        statusCode.forEach(code -> {
-            Map<String, Number> resultsPerCode = new HashMap<>();
-
-            Collection<Timer> httpTimersStream = this.meterRegistry.find("http.server.requests").tag("status", code).timers();
-            long count = httpTimersStream.stream().map(Timer::count).reduce((x, y) -> x + y).orElse(0L);
-            double max = httpTimersStream.stream().map(x -> x.max(TimeUnit.MILLISECONDS)).reduce((x, y) -> x > y ? x : y).orElse((double) 0);
-            double totalTime = httpTimersStream.stream().map(x -> x.totalTime(TimeUnit.MILLISECONDS)).reduce((x, y) -> (x + y)).orElse((double) 0);
-
-            resultsPerCode.put("count", count);
-            resultsPerCode.put("max", max);
-            resultsPerCode.put("mean", count != 0 ? totalTime / count : 0);
-
-            resultsHttpPerCode.put(code, resultsPerCode);
-        });
-
-        resultsHttp.put("percode", resultsHttpPerCode);
-
-        timers = this.meterRegistry.find("http.server.requests").timers();
-        long countAllrequests = timers.stream().map(Timer::count).reduce((x, y) -> x + y).orElse(0L);
-        Map<String, Number> resultsHTTPAll = new HashMap<>();
-        resultsHTTPAll.put("count", countAllrequests);
-
-        resultsHttp.put("all", resultsHTTPAll);
-
-        return resultsHttp;
-    }
-
 }
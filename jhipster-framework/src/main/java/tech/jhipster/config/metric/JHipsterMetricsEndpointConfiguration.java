@@ -2,6 +2,8 @@ package tech.jhipster.config.metric;
 
 import io.micrometer.core.annotation.Timed;
 import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
 import org.springframework.boot.actuate.autoconfigure.metrics.MetricsEndpointAutoConfiguration;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
@@ -10,6 +12,10 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import tech.jhipster.config.JHipsterProperties;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
 
 /**
  * <p>JHipsterMetricsEndpointConfiguration class.</p>
@@ -19,17 +25,80 @@ import org.springframework.context.annotation.Configuration;
 @AutoConfigureAfter(MetricsEndpointAutoConfiguration.class)
 public class JHipsterMetricsEndpointConfiguration {
 
+    /**
+     * <p>slowRequestReservoir.</p>
+     *
+     * <p>
+     * The slowest recent HTTP requests, recorded by the servlet or reactive
+     * {@link tech.jhipster.web.filter.SlowRequestFilter} of the application.
+     *
+     * @return a {@link SlowSampleReservoir} object.
+     */
+    @Bean(SlowSampleReservoir.REQUESTS_BEAN_NAME)
+    @ConditionalOnMissingBean(name = SlowSampleReservoir.REQUESTS_BEAN_NAME)
+    public SlowSampleReservoir slowRequestReservoir() {
+        return new SlowSampleReservoir();
+    }
+
+    /**
+     * <p>slowQueryReservoir.</p>
+     *
+     * <p>
+     * The slowest recent SQL statements, recorded by Hibernate, see {@link JHipsterSlowQueryConfiguration}.
+     *
+     * @return a {@link SlowSampleReservoir} object.
+     */
+    @Bean(SlowSampleReservoir.QUERIES_BEAN_NAME)
+    @ConditionalOnMissingBean(name = SlowSampleReservoir.QUERIES_BEAN_NAME)
+    public SlowSampleReservoir slowQueryReservoir() {
+        return new SlowSampleReservoir();
+    }
+
     /**
      * <p>jHipsterMetricsEndpoint.</p>
      *
+     * <p>
+     * The endpoint returns cluster-wide metrics when a {@link MetricsDigestTransport} bean is defined, and the
+     * Hibernate cache statistics when a {@link HibernateCacheMetrics} bean is defined.
+     *
      * @param meterRegistry a {@link io.micrometer.core.instrument.MeterRegistry} object.
+     * @param jHipsterProperties a {@link JHipsterProperties} object.
+     * @param digestTransport the {@link MetricsDigestTransport}, if any.
+     * @param slowRequests the {@link SlowSampleReservoir} of the slowest recent HTTP requests.
+     * @param slowQueries the {@link SlowSampleReservoir} of the slowest recent SQL statements.
+     * @param hibernateCacheMetrics the {@link HibernateCacheMetrics}, if any.
      * @return a {@link JHipsterMetricsEndpoint} object.
      */
     @Bean
     @ConditionalOnBean({MeterRegistry.class})
     @ConditionalOnMissingBean
     @ConditionalOnAvailableEndpoint
-    public JHipsterMetricsEndpoint jHipsterMetricsEndpoint(MeterRegistry meterRegistry) {
-        return new JHipsterMetricsEndpoint(meterRegistry);
+    public JHipsterMetricsEndpoint jHipsterMetricsEndpoint(MeterRegistry meterRegistry, JHipsterProperties jHipsterProperties,
+                                                           ObjectProvider<MetricsDigestTransport> digestTransport,
+                                                           @Qualifier(SlowSampleReservoir.REQUESTS_BEAN_NAME) SlowSampleReservoir slowRequests,
+                                                           @Qualifier(SlowSampleReservoir.QUERIES_BEAN_NAME) SlowSampleReservoir slowQueries,
+                                                           ObjectProvider<HibernateCacheMetrics> hibernateCacheMetrics) {
+        JHipsterMetricsEndpoint endpoint = new JHipsterMetricsEndpoint(meterRegistry, slowRequests, slowQueries);
+        endpoint.setHibernateCacheMetrics(hibernateCacheMetrics);
+        digestTransport.ifAvailable(transport -> endpoint.setDigestTransport(transport,
+            ManagementFactory.getRuntimeMXBean().getName(),
+            Duration.ofSeconds(jHipsterProperties.getMetrics().getClusterDigestTtlInSeconds())));
+        return endpoint;
+    }
+
+    /**
+     * <p>jHipsterMetricsSnapshotRefresher.</p>
+     *
+     * @param jHipsterMetricsEndpoint a {@link JHipsterMetricsEndpoint} object.
+     * @param jHipsterProperties a {@link JHipsterProperties} object.
+     * @return a {@link JHipsterMetricsSnapshotRefresher} object.
+     */
+    @Bean
+    @ConditionalOnBean(JHipsterMetricsEndpoint.class)
+    @ConditionalOnMissingBean
+    public JHipsterMetricsSnapshotRefresher jHipsterMetricsSnapshotRefresher(JHipsterMetricsEndpoint jHipsterMetricsEndpoint,
+                                                                           JHipsterProperties jHipsterProperties) {
+        return new JHipsterMetricsSnapshotRefresher(jHipsterMetricsEndpoint,
+            Duration.ofMillis(jHipsterProperties.getMetrics().getSnapshotRefreshIntervalInMillis()));
     }
 }
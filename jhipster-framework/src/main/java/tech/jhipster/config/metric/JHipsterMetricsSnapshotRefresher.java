@@ -0,0 +1,110 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.metric;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Refreshes the snapshot of a {@link JHipsterMetricsEndpoint} at a fixed interval, from a single background thread,
+ * so that reading the endpoint does not sweep the meter registry. Nothing is refreshed when the interval is not
+ * positive, and the endpoint computes the metrics on each read.
+ * <p>
+ * The snapshot is only refreshed while the endpoint is read: nothing is refreshed until the first read, and once
+ * the endpoint has not been read for {@value #IDLE_REFRESHES} intervals, the snapshot is dropped so that the next
+ * read computes the metrics, and resumes the refresh.
+ */
+public class JHipsterMetricsSnapshotRefresher implements SmartLifecycle {
+
+    static final int IDLE_REFRESHES = 12;
+
+    private final Logger log = LoggerFactory.getLogger(JHipsterMetricsSnapshotRefresher.class);
+
+    private final JHipsterMetricsEndpoint endpoint;
+
+    private final Duration interval;
+
+    private ScheduledExecutorService scheduler;
+
+    private int idleRefreshes = IDLE_REFRESHES;
+
+    /**
+     * <p>Constructor for JHipsterMetricsSnapshotRefresher.</p>
+     *
+     * @param endpoint the {@link JHipsterMetricsEndpoint} to refresh.
+     * @param interval the delay between the end of a refresh and the start of the next one.
+     */
+    public JHipsterMetricsSnapshotRefresher(JHipsterMetricsEndpoint endpoint, Duration interval) {
+        this.endpoint = endpoint;
+        this.interval = interval;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void start() {
+        if (scheduler != null || interval.isZero() || interval.isNegative()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jhipster-metrics-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refresh, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized boolean isRunning() {
+        return scheduler != null;
+    }
+
+    void refresh() {
+        if (endpoint.pollRead()) {
+            idleRefreshes = 0;
+        } else if (idleRefreshes >= IDLE_REFRESHES) {
+            endpoint.clearSnapshot();
+            return;
+        } else {
+            idleRefreshes++;
+        }
+        try {
+            endpoint.refreshSnapshot();
+        } catch (RuntimeException e) {
+            // Keep the previous snapshot, and the schedule, until the next refresh
+            log.warn("Could not refresh the metrics snapshot: {}", e.toString());
+        }
+    }
+}
@@ -0,0 +1,309 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.metric;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Broadcasts the snapshots of a {@link JHipsterMetricsEndpoint} to stream subscribers, such as server-sent events
+ * connections.
+ * <p>
+ * A subscriber first receives the whole snapshot as a {@value #SNAPSHOT_EVENT} event, then a {@value #DELTA_EVENT}
+ * event for each refresh. A delta only holds the values which changed, nested as in the snapshot, and a
+ * <code>null</code> value for the removed entries. Each event is encoded once, into a buffer reused by every
+ * encoding, and the same JSON text is queued for every subscriber, no delta being computed while there is none. The
+ * whole snapshot is encoded at most once per refresh, whatever the number of subscribers it is sent to.
+ * <p>
+ * The events are sent by an {@link Executor}, outside of the refresh, and in order for each subscriber. By default,
+ * this is a pool of at most {@link #SENDER_THREADS} daemon threads, shared by every stream. A subscriber
+ * which falls more than {@value #MAX_PENDING_EVENTS} events behind has its pending events replaced by the whole
+ * snapshot, so that it never misses a change.
+ */
+public class JHipsterMetricsStream {
+
+    /** Constant <code>SNAPSHOT_EVENT="snapshot"</code> */
+    public static final String SNAPSHOT_EVENT = "snapshot";
+
+    /** Constant <code>DELTA_EVENT="delta"</code> */
+    public static final String DELTA_EVENT = "delta";
+
+    static final int MAX_PENDING_EVENTS = 8;
+
+    static final int SENDER_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    private static final Executor DEFAULT_EXECUTOR = defaultExecutor();
+
+    private final Logger log = LoggerFactory.getLogger(JHipsterMetricsStream.class);
+
+    private final JHipsterMetricsEndpoint endpoint;
+
+    private final ObjectMapper objectMapper;
+
+    private final Executor executor;
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    private final StringWriter buffer = new StringWriter();
+
+    private Map<String, Map> lastSnapshot;
+
+    private String lastSnapshotData;
+
+    /**
+     * <p>Constructor for JHipsterMetricsStream, sending the events from a shared pool of daemon threads.</p>
+     *
+     * @param endpoint the {@link JHipsterMetricsEndpoint}, whose snapshots must be refreshed.
+     * @param objectMapper the {@link ObjectMapper} encoding the events.
+     */
+    public JHipsterMetricsStream(JHipsterMetricsEndpoint endpoint, ObjectMapper objectMapper) {
+        this(endpoint, objectMapper, DEFAULT_EXECUTOR);
+    }
+
+    /**
+     * <p>Constructor for JHipsterMetricsStream.</p>
+     *
+     * @param endpoint the {@link JHipsterMetricsEndpoint}, whose snapshots must be refreshed.
+     * @param objectMapper the {@link ObjectMapper} encoding the events.
+     * @param executor the {@link Executor} sending the events to the subscribers.
+     */
+    public JHipsterMetricsStream(JHipsterMetricsEndpoint endpoint, ObjectMapper objectMapper, Executor executor) {
+        this.endpoint = endpoint;
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        endpoint.addSnapshotListener(this::publish);
+    }
+
+    private static Executor defaultExecutor() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("jhimetricsstream-");
+        threadFactory.setDaemon(true);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(SENDER_THREADS, SENDER_THREADS, 60L, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), threadFactory);
+        // The threads are only kept while there are subscribers
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Subscribes to the stream. The subscriber first receives the current snapshot.
+     *
+     * @param subscriber the subscriber, receiving the event name and its JSON data.
+     * @return the {@link Subscription}.
+     */
+    public Subscription subscribe(BiConsumer<String, String> subscriber) {
+        return subscribe(subscriber, () -> true);
+    }
+
+    /**
+     * Subscribes to the stream, with a subscriber which is not always ready to receive events, such as a reactive
+     * sink without demand. Its events are kept pending until {@link Subscription#resume()} is called.
+     *
+     * @param subscriber the subscriber, receiving the event name and its JSON data.
+     * @param ready whether the subscriber can receive an event.
+     * @return the {@link Subscription}.
+     */
+    public synchronized Subscription subscribe(BiConsumer<String, String> subscriber, BooleanSupplier ready) {
+        if (lastSnapshot == null) {
+            lastSnapshot = endpoint.allMetrics();
+            lastSnapshotData = null;
+        }
+        Subscription subscription = new Subscription(subscriber, ready);
+        subscription.enqueue(SNAPSHOT_EVENT, lastSnapshotData());
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    synchronized void publish(Map<String, Map> snapshot) {
+        if (snapshot == null) {
+            // The snapshot was dropped as nothing read it, the next subscriber reads the metrics again
+            lastSnapshot = null;
+            lastSnapshotData = null;
+            return;
+        }
+        Map<String, Map> previous = lastSnapshot;
+        lastSnapshot = snapshot;
+        lastSnapshotData = null;
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        endpoint.markRead();
+        Map<String, Object> delta = previous != null ? diff(previous, snapshot) : new LinkedHashMap<>(snapshot);
+        if (delta.isEmpty()) {
+            return;
+        }
+        String data = encode(delta);
+        for (Subscription subscription : subscriptions) {
+            subscription.enqueue(DELTA_EVENT, data);
+        }
+    }
+
+    int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Encodes the last snapshot, once per refresh, called with the lock of the stream held.
+     */
+    private String lastSnapshotData() {
+        if (lastSnapshotData == null) {
+            lastSnapshotData = encode(lastSnapshot);
+        }
+        return lastSnapshotData;
+    }
+
+    /**
+     * Encodes a value into the reused buffer, called with the lock of the stream held.
+     */
+    private String encode(Map<String, ?> value) {
+        buffer.getBuffer().setLength(0);
+        try {
+            objectMapper.writeValue(buffer, value);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not encode the metrics", e);
+        }
+        return buffer.toString();
+    }
+
+    /**
+     * Computes the changes between two nested maps.
+     *
+     * @param previous the previous map.
+     * @param current the current map.
+     * @return the changed values, nested as in the maps, with a <code>null</code> value for the removed keys.
+     */
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> diff(Map<String, ?> previous, Map<String, ?> current) {
+        Map<String, Object> delta = new LinkedHashMap<>();
+        current.forEach((key, value) -> {
+            Object previousValue = previous.get(key);
+            if (value instanceof Map && previousValue instanceof Map) {
+                Map<String, Object> nested = diff((Map<String, ?>) previousValue, (Map<String, ?>) value);
+                if (!nested.isEmpty()) {
+                    delta.put(key, nested);
+                }
+            } else if (!Objects.equals(value, previousValue) || !previous.containsKey(key)) {
+                delta.put(key, value);
+            }
+        });
+        previous.keySet().forEach(key -> {
+            if (!current.containsKey(key)) {
+                delta.put(key, null);
+            }
+        });
+        return delta;
+    }
+
+    /**
+     * The subscription of a subscriber, holding the events not sent yet.
+     */
+    public final class Subscription {
+
+        private final BiConsumer<String, String> subscriber;
+
+        private final BooleanSupplier ready;
+
+        private final Deque<String[]> pending = new ArrayDeque<>();
+
+        private boolean sending;
+
+        private volatile boolean cancelled;
+
+        private Subscription(BiConsumer<String, String> subscriber, BooleanSupplier ready) {
+            this.subscriber = subscriber;
+            this.ready = ready;
+        }
+
+        /**
+         * Queues an event, called with the lock of the stream held.
+         */
+        private synchronized void enqueue(String event, String data) {
+            if (pending.size() >= MAX_PENDING_EVENTS) {
+                pending.clear();
+                pending.add(new String[]{SNAPSHOT_EVENT, lastSnapshotData()});
+            } else {
+                pending.add(new String[]{event, data});
+            }
+            schedule();
+        }
+
+        /**
+         * Resumes sending the pending events, once the subscriber is ready again.
+         */
+        public synchronized void resume() {
+            schedule();
+        }
+
+        /**
+         * Cancels the subscription, dropping its pending events.
+         */
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+            synchronized (this) {
+                pending.clear();
+            }
+        }
+
+        private void schedule() {
+            if (!sending && !cancelled && !pending.isEmpty() && ready.getAsBoolean()) {
+                sending = true;
+                executor.execute(this::send);
+            }
+        }
+
+        private void send() {
+            for (;;) {
+                String[] event;
+                synchronized (this) {
+                    if (cancelled || pending.isEmpty() || !ready.getAsBoolean()) {
+                        sending = false;
+                        return;
+                    }
+                    event = pending.poll();
+                }
+                try {
+                    subscriber.accept(event[0], event[1]);
+                } catch (RuntimeException e) {
+                    log.debug("Removing metrics stream subscriber: {}", e.toString());
+                    cancel();
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.metric;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * <p>JHipsterMetricsStreamConfiguration class.</p>
+ * <p>
+ * The stream pushes the snapshots of the {@link JHipsterMetricsEndpoint}, so it requires
+ * <code>jhipster.metrics.snapshot-refresh-interval-in-millis</code> to be positive, and this interval is its cadence.
+ * The snapshots are refreshed as long as the stream has subscribers.
+ */
+@Configuration
+@ConditionalOnClass({Timed.class, ObjectMapper.class})
+@AutoConfigureAfter(JHipsterMetricsEndpointConfiguration.class)
+@ConditionalOnBean(JHipsterMetricsEndpoint.class)
+public class JHipsterMetricsStreamConfiguration {
+
+    @Configuration
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @ConditionalOnClass(name = "org.springframework.web.servlet.mvc.method.annotation.SseEmitter")
+    static class ServletMetricsStreamConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnAvailableEndpoint
+        public JHipsterMetricsStreamEndpoint jHipsterMetricsStreamEndpoint(JHipsterMetricsEndpoint jHipsterMetricsEndpoint,
+                                                                           ObjectProvider<ObjectMapper> objectMapper) {
+            return new JHipsterMetricsStreamEndpoint(
+                new JHipsterMetricsStream(jHipsterMetricsEndpoint, objectMapper.getIfAvailable(ObjectMapper::new)));
+        }
+    }
+
+    @Configuration
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    @ConditionalOnClass(name = "reactor.core.publisher.Flux")
+    static class ReactiveMetricsStreamConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnAvailableEndpoint
+        public JHipsterReactiveMetricsStreamEndpoint jHipsterReactiveMetricsStreamEndpoint(JHipsterMetricsEndpoint jHipsterMetricsEndpoint,
+                                                                                           ObjectProvider<ObjectMapper> objectMapper) {
+            return new JHipsterReactiveMetricsStreamEndpoint(
+                new JHipsterMetricsStream(jHipsterMetricsEndpoint, objectMapper.getIfAvailable(ObjectMapper::new)));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.metric;
+
+import org.springframework.boot.actuate.endpoint.web.annotation.RestControllerEndpoint;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * <p>JHipsterMetricsStreamEndpoint class.</p>
+ * <p>
+ * Pushes the metrics snapshot, then its deltas, as server-sent events, for Spring MVC applications.
+ */
+@RestControllerEndpoint(id = "jhimetricsstream")
+public class JHipsterMetricsStreamEndpoint {
+
+    private final JHipsterMetricsStream metricsStream;
+
+    /**
+     * <p>Constructor for JHipsterMetricsStreamEndpoint.</p>
+     *
+     * @param metricsStream a {@link JHipsterMetricsStream} object.
+     */
+    public JHipsterMetricsStreamEndpoint(JHipsterMetricsStream metricsStream) {
+        this.metricsStream = metricsStream;
+    }
+
+    /**
+     * GET /management/jhimetricsstream
+     *
+     * @return a {@link SseEmitter} object.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        SseEmitter emitter = new SseEmitter(0L);
+        JHipsterMetricsStream.Subscription subscription = metricsStream.subscribe((event, data) -> {
+            try {
+                emitter.send(SseEmitter.event().name(event).data(data, MediaType.APPLICATION_JSON));
+            } catch (IOException e) {
+                emitter.completeWithError(e);
+                throw new UncheckedIOException(e);
+            }
+        });
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(e -> subscription.cancel());
+        return emitter;
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.metric;
+
+import org.springframework.boot.actuate.endpoint.web.annotation.RestControllerEndpoint;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import reactor.core.publisher.Flux;
+
+/**
+ * <p>JHipsterReactiveMetricsStreamEndpoint class.</p>
+ * <p>
+ * Pushes the metrics snapshot, then its deltas, as server-sent events, for Spring WebFlux applications. The events
+ * are only emitted on demand, a slow client receiving the whole snapshot again once it has fallen too far behind.
+ */
+@RestControllerEndpoint(id = "jhimetricsstream")
+public class JHipsterReactiveMetricsStreamEndpoint {
+
+    private final JHipsterMetricsStream metricsStream;
+
+    /**
+     * <p>Constructor for JHipsterReactiveMetricsStreamEndpoint.</p>
+     *
+     * @param metricsStream a {@link JHipsterMetricsStream} object.
+     */
+    public JHipsterReactiveMetricsStreamEndpoint(JHipsterMetricsStream metricsStream) {
+        this.metricsStream = metricsStream;
+    }
+
+    /**
+     * GET /management/jhimetricsstream
+     *
+     * @return a {@link Flux} of {@link ServerSentEvent} objects.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> stream() {
+        return Flux.create(sink -> {
+            JHipsterMetricsStream.Subscription subscription = metricsStream.subscribe((event, data) ->
+                sink.next(ServerSentEvent.builder(data).event(event).build()), () -> sink.requestedFromDownstream() > 0);
+            sink.onRequest(n -> subscription.resume());
+            sink.onDispose(subscription::cancel);
+        });
+    }
+}
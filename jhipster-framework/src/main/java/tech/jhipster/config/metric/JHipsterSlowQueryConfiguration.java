@@ -0,0 +1,69 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.metric;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Records the slowest SQL statements executed by Hibernate into the <code>slowQueryReservoir</code> bean, reported by
+ * the <code>jhimetrics</code> endpoint, unless the application already defines a statement inspector or a session
+ * events listener.
+ */
+@Configuration
+@ConditionalOnClass({HibernatePropertiesCustomizer.class, StatementInspector.class})
+@ConditionalOnAvailableEndpoint(endpoint = JHipsterMetricsEndpoint.class)
+@ConditionalOnBean(name = SlowSampleReservoir.QUERIES_BEAN_NAME)
+@AutoConfigureAfter(JHipsterMetricsEndpointConfiguration.class)
+public class JHipsterSlowQueryConfiguration {
+
+    private final Logger log = LoggerFactory.getLogger(JHipsterSlowQueryConfiguration.class);
+
+    /**
+     * <p>slowQueryHibernatePropertiesCustomizer.</p>
+     *
+     * @param slowQueries the {@link SlowSampleReservoir} recording the slowest SQL statements.
+     * @return a {@link HibernatePropertiesCustomizer} registering the {@link SlowQueryStatementInspector} and the
+     * {@link SlowQuerySessionEventListener}.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer slowQueryHibernatePropertiesCustomizer(
+        @Qualifier(SlowSampleReservoir.QUERIES_BEAN_NAME) SlowSampleReservoir slowQueries) {
+        return properties -> {
+            if (properties.containsKey(AvailableSettings.STATEMENT_INSPECTOR)
+                || properties.containsKey(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER)) {
+                log.debug("Not recording the slowest SQL statements, as a statement inspector or a session events listener is configured");
+                return;
+            }
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SlowQueryStatementInspector(slowQueries));
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, SlowQuerySessionEventListener.class.getName());
+        };
+    }
+}
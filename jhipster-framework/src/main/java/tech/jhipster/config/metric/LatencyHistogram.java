@@ -0,0 +1,224 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.metric;
+
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A latency histogram merging the bucket counts of several timers, from which percentiles are estimated.
+ * <p>
+ * The timers must publish histogram buckets, either a percentile histogram with a registry supporting aggregable
+ * percentiles, for instance with
+ * <code>management.metrics.distribution.percentiles-histogram.http.server.requests=true</code>, or service level
+ * objectives. Their buckets have fixed boundaries, usually shared by all the timers and all the nodes, so they are
+ * kept in two parallel arrays and merged element-wise; histograms with other boundaries are merged on the union of
+ * the boundaries. Percentiles are interpolated linearly within a bucket.
+ * <p>
+ * The values above the upper bound of the last bucket are counted in an overflow bucket, which ends at the max of the
+ * timers, or at the upper bound of the last bucket if the max has decayed below it.
+ */
+final class LatencyHistogram implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final double[] NO_BOUNDS = new double[0];
+
+    private static final long[] NO_COUNTS = new long[0];
+
+    /** The upper bound of each bucket in milliseconds, in ascending order, including the empty buckets. */
+    private double[] bounds = NO_BOUNDS;
+
+    /** The count of the values of each bucket. */
+    private long[] counts = NO_COUNTS;
+
+    /** The count of the values above the upper bound of the last bucket. */
+    private long overflow;
+
+    /** The max of the values above the upper bound of the last bucket, in milliseconds. */
+    private double overflowMax;
+
+    private long count;
+
+    /**
+     * Adds the buckets of a timer.
+     *
+     * @param cumulativeCounts the cumulative counts of the buckets, ordered by upper bound, as in a histogram snapshot.
+     * @param totalCount the count of all the values of the timer, including the ones above the last bucket.
+     * @param max the max of the values of the timer, in milliseconds.
+     */
+    void add(CountAtBucket[] cumulativeCounts, long totalCount, double max) {
+        if (cumulativeCounts.length == 0) {
+            return;
+        }
+        long overflowCount = totalCount - (long) cumulativeCounts[cumulativeCounts.length - 1].count();
+        if (overflowCount > 0) {
+            overflow += overflowCount;
+            count += overflowCount;
+            overflowMax = Math.max(overflowMax, max);
+        }
+        if (hasBounds(cumulativeCounts)) {
+            double previous = 0;
+            for (int i = 0; i < cumulativeCounts.length; i++) {
+                long bucketCount = (long) (cumulativeCounts[i].count() - previous);
+                previous = cumulativeCounts[i].count();
+                counts[i] += bucketCount;
+                count += bucketCount;
+            }
+            return;
+        }
+        double[] otherBounds = new double[cumulativeCounts.length];
+        long[] otherCounts = new long[cumulativeCounts.length];
+        double previous = 0;
+        for (int i = 0; i < cumulativeCounts.length; i++) {
+            otherBounds[i] = cumulativeCounts[i].bucket(TimeUnit.MILLISECONDS);
+            otherCounts[i] = (long) (cumulativeCounts[i].count() - previous);
+            previous = cumulativeCounts[i].count();
+        }
+        add(otherBounds, otherCounts);
+    }
+
+    /**
+     * Adds the buckets of another histogram, for instance from another node.
+     *
+     * @param other the other histogram.
+     */
+    void merge(LatencyHistogram other) {
+        overflow += other.overflow;
+        count += other.overflow;
+        overflowMax = Math.max(overflowMax, other.overflowMax);
+        add(other.bounds, other.counts);
+    }
+
+    private boolean hasBounds(CountAtBucket[] cumulativeCounts) {
+        if (cumulativeCounts.length != bounds.length) {
+            return false;
+        }
+        for (int i = 0; i < bounds.length; i++) {
+            if (cumulativeCounts[i].bucket(TimeUnit.MILLISECONDS) != bounds[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void add(double[] otherBounds, long[] otherCounts) {
+        if (otherBounds.length == 0) {
+            return;
+        }
+        if (bounds.length == 0) {
+            bounds = otherBounds.clone();
+            counts = otherCounts.clone();
+        } else if (Arrays.equals(bounds, otherBounds)) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += otherCounts[i];
+            }
+        } else {
+            union(otherBounds, otherCounts);
+            return;
+        }
+        for (long bucketCount : otherCounts) {
+            count += bucketCount;
+        }
+    }
+
+    private void union(double[] otherBounds, long[] otherCounts) {
+        double[] mergedBounds = new double[bounds.length + otherBounds.length];
+        long[] mergedCounts = new long[mergedBounds.length];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < bounds.length || j < otherBounds.length) {
+            if (j == otherBounds.length || (i < bounds.length && bounds[i] < otherBounds[j])) {
+                mergedBounds[k] = bounds[i];
+                mergedCounts[k++] = counts[i++];
+            } else if (i == bounds.length || otherBounds[j] < bounds[i]) {
+                mergedBounds[k] = otherBounds[j];
+                mergedCounts[k++] = otherCounts[j++];
+            } else {
+                mergedBounds[k] = bounds[i];
+                mergedCounts[k++] = counts[i++] + otherCounts[j++];
+            }
+        }
+        bounds = Arrays.copyOf(mergedBounds, k);
+        counts = Arrays.copyOf(mergedCounts, k);
+        count = overflow;
+        for (long bucketCount : counts) {
+            count += bucketCount;
+        }
+    }
+
+    boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Estimates a percentile.
+     *
+     * @param percentile the percentile, between 0 and 1.
+     * @return the estimated value, in milliseconds, or NaN if the histogram is empty.
+     */
+    double percentile(double percentile) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        double rank = percentile * count;
+        long cumulativeCount = 0;
+        int bucket = 0;
+        for (; bucket < counts.length - 1; bucket++) {
+            if (counts[bucket] > 0 && cumulativeCount + counts[bucket] >= rank) {
+                break;
+            }
+            cumulativeCount += counts[bucket];
+        }
+        if (overflow > 0 && cumulativeCount + counts[bucket] < rank) {
+            double lastBound = bounds[bounds.length - 1];
+            double overflowRank = rank - cumulativeCount - counts[bucket];
+            return lastBound + (Math.max(overflowMax, lastBound) - lastBound) * overflowRank / overflow;
+        }
+        double lowerBound = bucket == 0 ? 0 : bounds[bucket - 1];
+        double upperBound = bounds[bucket];
+        return lowerBound + (upperBound - lowerBound) * (rank - cumulativeCount) / counts[bucket];
+    }
+
+    /**
+     * <p>toMap.</p>
+     *
+     * @return the count of the values of each non-empty bucket, by bucket upper bound in milliseconds, the overflow
+     * bucket having an infinite upper bound.
+     */
+    Map<Double, Long> toMap() {
+        Map<Double, Long> buckets = new LinkedHashMap<>();
+        for (int i = 0; i < bounds.length; i++) {
+            if (counts[i] != 0) {
+                buckets.put(bounds[i], counts[i]);
+            }
+        }
+        if (overflow != 0) {
+            buckets.put(Double.POSITIVE_INFINITY, overflow);
+        }
+        return buckets;
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.metric;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A compact digest of the <code>http.server.requests</code> metrics of a node, exchanged with the other nodes of the
+ * cluster through a {@link MetricsDigestTransport}.
+ * <p>
+ * The timers are aggregated per URI, HTTP method and status, in a single pass, and the metrics per service and per
+ * status are derived from these aggregates when rendered. Only mergeable values are kept: counts, total times, max
+ * and histogram buckets, so that the digests of all the nodes add up to exact cluster totals. The percentiles are only available when the timers publish a percentile histogram.
+ */
+public final class MetricsDigest implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Set<String> CRUD_OPERATIONS = new HashSet<>(Arrays.asList("GET", "POST", "PUT", "DELETE"));
+
+    private final String nodeId;
+
+    private final long timestamp;
+
+    private final Map<RequestKey, TimerAggregate> perRequest;
+
+    private long countAllRequests;
+
+    private MetricsDigest(String nodeId, long timestamp, int timers) {
+        this.nodeId = nodeId;
+        this.timestamp = timestamp;
+        this.perRequest = new HashMap<>(Math.max(16, timers * 4 / 3 + 1));
+    }
+
+    /**
+     * Aggregates the <code>http.server.requests</code> timers of a node.
+     *
+     * @param nodeId the identifier of the node.
+     * @param timestamp the time of the digest, in milliseconds since the epoch.
+     * @param timers the <code>http.server.requests</code> timers.
+     * @return the digest.
+     */
+    static MetricsDigest of(String nodeId, long timestamp, Collection<Timer> timers) {
+        MetricsDigest digest = new MetricsDigest(nodeId, timestamp, timers.size());
+        for (Timer timer : timers) {
+            Meter.Id id = timer.getId();
+            digest.add(id.getTag("uri"), id.getTag("method"), id.getTag("status"), timer.takeSnapshot());
+        }
+        return digest;
+    }
+
+    /**
+     * Merges the digests of several nodes.
+     *
+     * @param digests the digests.
+     * @return a digest of the cluster totals, without node identifier, as recent as the most recent digest.
+     */
+    static MetricsDigest merge(Collection<MetricsDigest> digests) {
+        long timestamp = digests.stream().mapToLong(MetricsDigest::getTimestamp).max().orElse(0);
+        MetricsDigest merged = new MetricsDigest(null, timestamp, 0);
+        for (MetricsDigest digest : digests) {
+            digest.perRequest.forEach((key, aggregate) -> merged.perRequest.computeIfAbsent(key, k -> new TimerAggregate())
+                .merge(aggregate));
+            merged.countAllRequests += digest.countAllRequests;
+        }
+        return merged;
+    }
+
+    private void add(String uri, String method, String status, HistogramSnapshot snapshot) {
+        countAllRequests += snapshot.count();
+        perRequest.computeIfAbsent(new RequestKey(uri, method, status), k -> new TimerAggregate()).add(snapshot);
+    }
+
+    /**
+     * <p>Getter for the field <code>nodeId</code>.</p>
+     *
+     * @return the identifier of the node which published this digest.
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * <p>Getter for the field <code>timestamp</code>.</p>
+     *
+     * @return the time of the digest, in milliseconds since the epoch.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    Map<String, Map> serviceMetrics() {
+        Map<String, Map<String, TimerAggregate>> perUri = new HashMap<>();
+        perRequest.forEach((key, aggregate) -> {
+            Map<String, TimerAggregate> perMethod = perUri.computeIfAbsent(key.uri, k -> new HashMap<>(8));
+            if (key.method != null && CRUD_OPERATIONS.contains(key.method)) {
+                perMethod.computeIfAbsent(key.method, k -> new TimerAggregate()).merge(aggregate);
+            }
+        });
+        Map<String, Map> resultsHttpPerUri = new HashMap<>(Math.max(16, perUri.size() * 4 / 3 + 1));
+        perUri.forEach((uri, perMethod) -> {
+            Map<String, Map> resultsPerUri = new HashMap<>(8);
+            perMethod.forEach((operation, aggregate) -> {
+                if (aggregate.getCount() != 0) {
+                    resultsPerUri.put(operation, aggregate.toMap());
+                }
+            });
+            resultsHttpPerUri.put(uri, resultsPerUri);
+        });
+        return resultsHttpPerUri;
+    }
+
+    Map<String, Map> httpRequestsMetrics() {
+        Map<String, TimerAggregate> perCode = new HashMap<>();
+        perRequest.forEach((key, aggregate) -> perCode.computeIfAbsent(key.status, k -> new TimerAggregate()).merge(aggregate));
+        Map<String, Map<String, Number>> resultsHttpPerCode = new HashMap<>(Math.max(16, perCode.size() * 4 / 3 + 1));
+        perCode.forEach((code, aggregate) -> resultsHttpPerCode.put(code, aggregate.toMap()));
+
+        Map<String, Number> resultsHTTPAll = new HashMap<>();
+        resultsHTTPAll.put("count", countAllRequests);
+
+        Map<String, Map> resultsHttp = new HashMap<>();
+        resultsHttp.put("percode", resultsHttpPerCode);
+        resultsHttp.put("all", resultsHTTPAll);
+        return resultsHttp;
+    }
+
+    /**
+     * The URI, HTTP method and status of the timers of an aggregate.
+     */
+    private static final class RequestKey implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String uri;
+
+        private final String method;
+
+        private final String status;
+
+        RequestKey(String uri, String method, String status) {
+            this.uri = uri;
+            this.method = method;
+            this.status = status;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final RequestKey that = (RequestKey) o;
+            return Objects.equals(uri, that.uri) &&
+                Objects.equals(method, that.method) &&
+                Objects.equals(status, that.status);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int hashCode() {
+            return Objects.hash(uri, method, status);
+        }
+    }
+}
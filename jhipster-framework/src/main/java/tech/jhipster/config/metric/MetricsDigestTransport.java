@@ -0,0 +1,46 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.metric;
+
+import java.util.Collection;
+
+/**
+ * Exchanges the {@link MetricsDigest}s of the nodes of a cluster, so that each node can return cluster-wide metrics.
+ * <p>
+ * Each node publishes its digest on each metrics refresh, replacing its previous one, and reads the latest digest of
+ * every node. Digests of nodes which stopped publishing are ignored once they are older than
+ * <code>jhipster.metrics.cluster-digest-ttl-in-seconds</code>, but implementations should also expire them.
+ */
+public interface MetricsDigestTransport {
+
+    /**
+     * Publishes the digest of the current node, replacing its previous digest.
+     *
+     * @param digest the digest.
+     */
+    void publish(MetricsDigest digest);
+
+    /**
+     * <p>getDigests.</p>
+     *
+     * @return the latest digest of each node, including the current one.
+     */
+    Collection<MetricsDigest> getDigests();
+}
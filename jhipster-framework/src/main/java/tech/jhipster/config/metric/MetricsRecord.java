@@ -0,0 +1,231 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.metric;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.IntStream;
+
+/**
+ * An immutable record of metrics, nested records and lists, written to JSON through the streaming
+ * {@link JsonGenerator} API.
+ * <p>
+ * Serializing a large tree of maps and boxed numbers with Jackson allocates a lot: it encodes every key and number
+ * again on each call. A record is built once, by a snapshot refresh, and its keys are {@link SerializedString}s, shared
+ * by the records and quoted once, and its numbers are converted to their JSON text when the record is built. Writing
+ * a record then only copies that text to the output, such as for each poll of the metrics endpoint or each new stream
+ * subscriber.
+ * <p>
+ * The record is also a {@link Map} of its values, in the iteration order of the map it was built from, the nested
+ * maps being records too, and the collections unmodifiable lists.
+ *
+ * @param <V> the type of the values.
+ */
+@JsonSerialize(using = MetricsRecord.Serializer.class)
+final class MetricsRecord<V> extends AbstractMap<String, V> {
+
+    static final int MAX_SHARED_KEYS = 4096;
+
+    private static final ConcurrentMap<String, SerializedString> SHARED_KEYS = new ConcurrentHashMap<>();
+
+    private final Map<String, V> map;
+
+    private final SerializedString[] keys;
+
+    private final Object[] values;
+
+    private final String[] numbers;
+
+    private volatile int[] sortedIndexes;
+
+    private MetricsRecord(Map<String, V> map) {
+        this.map = map;
+        int size = map.size();
+        this.keys = new SerializedString[size];
+        this.values = new Object[size];
+        this.numbers = new String[size];
+        int i = 0;
+        for (Map.Entry<String, V> entry : map.entrySet()) {
+            keys[i] = key(entry.getKey());
+            values[i] = entry.getValue();
+            numbers[i] = numberText(entry.getValue());
+            i++;
+        }
+    }
+
+    /**
+     * Builds a record from a tree of maps, the nested maps becoming records too.
+     *
+     * @param map the metrics.
+     * @param <V> the type of the values.
+     * @return the record of the metrics, or the map itself if it is already a record.
+     */
+    @SuppressWarnings("unchecked")
+    static <V> MetricsRecord<V> of(Map<String, V> map) {
+        if (map instanceof MetricsRecord) {
+            return (MetricsRecord<V>) map;
+        }
+        Map<String, V> values = new LinkedHashMap<>(Math.max(16, map.size() * 4 / 3 + 1));
+        map.forEach((key, value) -> values.put(key, (V) convert(value)));
+        return new MetricsRecord<>(Collections.unmodifiableMap(values));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object convert(Object value) {
+        if (value instanceof Map) {
+            return of((Map<String, Object>) value);
+        }
+        if (value instanceof Collection) {
+            List<Object> list = new ArrayList<>(((Collection<?>) value).size());
+            ((Collection<?>) value).forEach(element -> list.add(convert(element)));
+            return Collections.unmodifiableList(list);
+        }
+        return value;
+    }
+
+    private static SerializedString key(String key) {
+        SerializedString shared = SHARED_KEYS.get(key);
+        if (shared != null) {
+            return shared;
+        }
+        // Only the first keys are shared, as some are made of the values of tags
+        return SHARED_KEYS.size() < MAX_SHARED_KEYS ? SHARED_KEYS.computeIfAbsent(key, SerializedString::new) :
+            new SerializedString(key);
+    }
+
+    /**
+     * Converts a number to its JSON text, as written by Jackson, or returns null if Jackson writes it otherwise.
+     */
+    private static String numberText(Object value) {
+        if (value instanceof Double || value instanceof Float) {
+            return Double.isFinite(((Number) value).doubleValue()) ? value.toString() : null;
+        }
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return value.toString();
+        }
+        return null;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Set<Entry<String, V>> entrySet() {
+        return map.entrySet();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public V get(Object key) {
+        return map.get(key);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean containsKey(Object key) {
+        return map.containsKey(key);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    private int[] sortedIndexes() {
+        int[] result = sortedIndexes;
+        if (result == null) {
+            result = IntStream.range(0, keys.length).boxed()
+                .sorted(Comparator.comparing(i -> keys[i].getValue()))
+                .mapToInt(Integer::intValue)
+                .toArray();
+            sortedIndexes = result;
+        }
+        return result;
+    }
+
+    /**
+     * Writes a record through the {@link JsonGenerator}, without looking up a serializer for its keys, numbers,
+     * strings, nested records and lists.
+     */
+    static final class Serializer extends StdSerializer<MetricsRecord<?>> {
+
+        private static final long serialVersionUID = 1L;
+
+        Serializer() {
+            super(MetricsRecord.class, false);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void serialize(MetricsRecord<?> value, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+            int[] indexes = provider.isEnabled(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS) ?
+                value.sortedIndexes() : null;
+            generator.writeStartObject(value);
+            for (int i = 0; i < value.keys.length; i++) {
+                int index = indexes != null ? indexes[i] : i;
+                generator.writeFieldName(value.keys[index]);
+                if (value.numbers[index] != null) {
+                    generator.writeNumber(value.numbers[index]);
+                } else {
+                    writeValue(value.values[index], generator, provider);
+                }
+            }
+            generator.writeEndObject();
+        }
+
+        private void writeValue(Object value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            if (value instanceof MetricsRecord) {
+                serialize((MetricsRecord<?>) value, generator, provider);
+            } else if (value instanceof String) {
+                generator.writeString((String) value);
+            } else if (value instanceof List) {
+                List<?> list = (List<?>) value;
+                generator.writeStartArray(list, list.size());
+                for (int i = 0; i < list.size(); i++) {
+                    writeValue(list.get(i), generator, provider);
+                }
+                generator.writeEndArray();
+            } else if (value instanceof Boolean) {
+                generator.writeBoolean((Boolean) value);
+            } else if (value == null) {
+                generator.writeNull();
+            } else {
+                provider.defaultSerializeValue(value, generator);
+            }
+        }
+    }
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.metric;
+
+import io.micrometer.core.instrument.Clock;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Allocation, CPU, lock contention and JIT compilation statistics between two samples.
+ * <p>
+ * Each call to {@link #sample()} reads the cumulative allocated bytes, CPU time and blocked count of every live
+ * thread, with a few bulk calls to the {@link ThreadMXBean} and without any stack trace, as well as the total
+ * compilation time. The statistics are the differences with the previous sample, so their resolution is the
+ * sampling interval and threads which terminated in between are not accounted for.
+ * <p>
+ * The allocated bytes are only available on HotSpot based JVMs. The blocked time is only reported when thread
+ * contention monitoring is enabled, which this class does not do as it slows down every contended lock.
+ */
+final class ProfilingMetrics {
+
+    static final int TOP_THREADS = 5;
+
+    private final ThreadMXBean threadMXBean;
+
+    private final CompilationMXBean compilationMXBean;
+
+    private final Clock clock;
+
+    private Sample previous;
+
+    private Sample latest;
+
+    ProfilingMetrics(Clock clock) {
+        this(ManagementFactory.getThreadMXBean(), ManagementFactory.getCompilationMXBean(), clock);
+    }
+
+    ProfilingMetrics(ThreadMXBean threadMXBean, CompilationMXBean compilationMXBean, Clock clock) {
+        this.threadMXBean = threadMXBean;
+        this.compilationMXBean = compilationMXBean;
+        this.clock = clock;
+    }
+
+    /**
+     * Reads the cumulative statistics of the threads and of the JIT compiler.
+     */
+    void sample() {
+        Sample sample = read();
+        synchronized (this) {
+            previous = latest;
+            latest = sample;
+        }
+    }
+
+    /**
+     * <p>toMap.</p>
+     *
+     * @return the statistics between the two latest samples, empty until two samples have been read.
+     */
+    Map<String, Object> toMap() {
+        Sample from;
+        Sample to;
+        synchronized (this) {
+            from = previous;
+            to = latest;
+        }
+        if (from == null || to.time <= from.time) {
+            return new LinkedHashMap<>();
+        }
+        return delta(from, to);
+    }
+
+    private Sample read() {
+        Sample sample = new Sample(clock.monotonicTime());
+        long[] ids = threadMXBean.getAllThreadIds();
+        ThreadInfo[] infos = threadMXBean.getThreadInfo(ids);
+        long[] allocatedBytes = allocatedBytes(ids);
+        long[] cpuTimes = cpuTimes(ids);
+        sample.allocatedBytesAvailable = allocatedBytes != null;
+        sample.cpuTimeAvailable = cpuTimes != null;
+        sample.blockedTimeAvailable = threadMXBean.isThreadContentionMonitoringSupported()
+            && threadMXBean.isThreadContentionMonitoringEnabled();
+        for (int i = 0; i < ids.length; i++) {
+            if (infos[i] != null) {
+                sample.threads.put(ids[i], new ThreadStats(infos[i].getThreadName(),
+                    allocatedBytes != null ? allocatedBytes[i] : -1, cpuTimes != null ? cpuTimes[i] : -1,
+                    infos[i].getBlockedCount(), infos[i].getBlockedTime()));
+            }
+        }
+        if (compilationMXBean != null && compilationMXBean.isCompilationTimeMonitoringSupported()) {
+            sample.compilationTime = compilationMXBean.getTotalCompilationTime();
+        }
+        return sample;
+    }
+
+    private long[] allocatedBytes(long[] ids) {
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean hotspotThreadMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+            if (hotspotThreadMXBean.isThreadAllocatedMemorySupported() && hotspotThreadMXBean.isThreadAllocatedMemoryEnabled()) {
+                return hotspotThreadMXBean.getThreadAllocatedBytes(ids);
+            }
+        }
+        return null;
+    }
+
+    private long[] cpuTimes(long[] ids) {
+        if (!threadMXBean.isThreadCpuTimeSupported() || !threadMXBean.isThreadCpuTimeEnabled()) {
+            return null;
+        }
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threadMXBean).getThreadCpuTime(ids);
+        }
+        long[] cpuTimes = new long[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            cpuTimes[i] = threadMXBean.getThreadCpuTime(ids[i]);
+        }
+        return cpuTimes;
+    }
+
+    private Map<String, Object> delta(Sample from, Sample to) {
+        double seconds = (to.time - from.time) / 1e9;
+        List<ThreadStats> deltas = new ArrayList<>(to.threads.size());
+        to.threads.forEach((id, thread) -> {
+            ThreadStats before = from.threads.get(id);
+            if (before != null) {
+                deltas.add(new ThreadStats(thread.name, delta(before.allocatedBytes, thread.allocatedBytes),
+                    delta(before.cpuTime, thread.cpuTime), delta(before.blockedCount, thread.blockedCount),
+                    delta(before.blockedTime, thread.blockedTime)));
+            }
+        });
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("durationInSeconds", seconds);
+
+        if (to.allocatedBytesAvailable) {
+            long allocatedBytes = sum(deltas, delta -> delta.allocatedBytes);
+            results.put("allocationRate", allocatedBytes / seconds);
+            results.put("topAllocatingThreads", top(deltas, delta -> delta.allocatedBytes, delta -> {
+                Map<String, Object> thread = threadResults(delta);
+                thread.put("allocatedBytes", delta.allocatedBytes);
+                thread.put("allocationRate", delta.allocatedBytes / seconds);
+                return thread;
+            }));
+        }
+
+        if (to.cpuTimeAvailable) {
+            results.put("cpuTime", TimeUnit.NANOSECONDS.toMillis(sum(deltas, delta -> delta.cpuTime)));
+            results.put("topCpuThreads", top(deltas, delta -> delta.cpuTime, delta -> {
+                Map<String, Object> thread = threadResults(delta);
+                thread.put("cpuTime", TimeUnit.NANOSECONDS.toMillis(delta.cpuTime));
+                thread.put("cpuUsage", delta.cpuTime / (seconds * 1e9));
+                return thread;
+            }));
+        }
+
+        Map<String, Object> lockContention = new LinkedHashMap<>();
+        long blockedCount = sum(deltas, delta -> delta.blockedCount);
+        lockContention.put("blockedCount", blockedCount);
+        lockContention.put("blockedPerSecond", blockedCount / seconds);
+        if (to.blockedTimeAvailable) {
+            lockContention.put("blockedTime", sum(deltas, delta -> delta.blockedTime));
+        }
+        lockContention.put("topBlockedThreads", top(deltas, delta -> delta.blockedCount, delta -> {
+            Map<String, Object> thread = threadResults(delta);
+            thread.put("blockedCount", delta.blockedCount);
+            if (to.blockedTimeAvailable) {
+                thread.put("blockedTime", delta.blockedTime);
+            }
+            return thread;
+        }));
+        results.put("lockContention", lockContention);
+
+        if (compilationMXBean != null && to.compilationTime >= 0) {
+            Map<String, Object> compilation = new LinkedHashMap<>();
+            compilation.put("compiler", compilationMXBean.getName());
+            compilation.put("totalCompilationTime", to.compilationTime);
+            compilation.put("compilationTime", delta(from.compilationTime, to.compilationTime));
+            results.put("compilation", compilation);
+        }
+        return results;
+    }
+
+    private static long delta(long from, long to) {
+        return from < 0 || to < 0 ? -1 : Math.max(0, to - from);
+    }
+
+    private static long sum(List<ThreadStats> deltas, ToLongFunction<ThreadStats> value) {
+        long sum = 0;
+        for (ThreadStats delta : deltas) {
+            sum += Math.max(0, value.applyAsLong(delta));
+        }
+        return sum;
+    }
+
+    private static List<Map<String, Object>> top(List<ThreadStats> deltas, ToLongFunction<ThreadStats> value,
+                                                 Function<ThreadStats, Map<String, Object>> mapper) {
+        List<Map<String, Object>> results = new ArrayList<>(TOP_THREADS);
+        deltas.stream()
+            .filter(delta -> value.applyAsLong(delta) > 0)
+            .sorted(Comparator.comparingLong(value).reversed())
+            .limit(TOP_THREADS)
+            .forEach(delta -> results.add(mapper.apply(delta)));
+        return results;
+    }
+
+    private static Map<String, Object> threadResults(ThreadStats delta) {
+        Map<String, Object> thread = new LinkedHashMap<>();
+        thread.put("name", delta.name);
+        return thread;
+    }
+
+    /**
+     * The cumulative statistics of the threads, by thread id, and of the JIT compiler, at a point in time.
+     */
+    private static final class Sample {
+
+        private final long time;
+
+        private final Map<Long, ThreadStats> threads = new HashMap<>();
+
+        private boolean allocatedBytesAvailable;
+
+        private boolean cpuTimeAvailable;
+
+        private boolean blockedTimeAvailable;
+
+        private long compilationTime = -1;
+
+        private Sample(long time) {
+            this.time = time;
+        }
+    }
+
+    /**
+     * The statistics of a thread, cumulative in a sample or since the previous sample. Unavailable values are
+     * negative.
+     */
+    private static final class ThreadStats {
+
+        private final String name;
+
+        private final long allocatedBytes;
+
+        private final long cpuTime;
+
+        private final long blockedCount;
+
+        private final long blockedTime;
+
+        private ThreadStats(String name, long allocatedBytes, long cpuTime, long blockedCount, long blockedTime) {
+            this.name = name;
+            this.allocatedBytes = allocatedBytes;
+            this.cpuTime = cpuTime;
+            this.blockedCount = blockedCount;
+            this.blockedTime = blockedTime;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.metric;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Live views of the cumulative meters over the last 1, 5 and 15 minutes.
+ * <p>
+ * Each call to {@link #sample()} reads the cumulative values of the meters, in one pass over the registry, and adds
+ * them to a ring buffer covering the largest window. A window is the difference between the latest sample and the
+ * oldest sample of the window, so its precision is the sampling interval.
+ */
+final class SlidingWindowMetrics {
+
+    /** The windows, by name. */
+    static final Map<String, Duration> WINDOWS;
+
+    static {
+        Map<String, Duration> windows = new LinkedHashMap<>();
+        windows.put("1m", Duration.ofMinutes(1));
+        windows.put("5m", Duration.ofMinutes(5));
+        windows.put("15m", Duration.ofMinutes(15));
+        WINDOWS = windows;
+    }
+
+    private static final long MAX_WINDOW_NANOS = Duration.ofMinutes(15).toNanos();
+
+    private static final int MAX_SAMPLES = 1024;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Deque<Sample> samples = new ArrayDeque<>();
+
+    SlidingWindowMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Reads the cumulative values of the meters and adds them to the ring buffer.
+     */
+    void sample() {
+        Sample sample = new Sample(meterRegistry.config().clock().monotonicTime());
+        for (Meter meter : meterRegistry.getMeters()) {
+            String name = meter.getId().getName();
+            if (meter instanceof Timer) {
+                Timer timer = (Timer) meter;
+                if ("http.server.requests".equals(name)) {
+                    sample.requests += timer.count();
+                    sample.requestsTime += timer.totalTime(TimeUnit.MILLISECONDS);
+                    String status = meter.getId().getTag("status");
+                    if (status != null && status.startsWith("5")) {
+                        sample.errors += timer.count();
+                    }
+                } else if ("hikaricp.connections.acquire".equals(name)) {
+                    sample.poolAcquisitions += timer.count();
+                    sample.poolWaitTime += timer.totalTime(TimeUnit.MILLISECONDS);
+                } else if ("jvm.gc.pause".equals(name)) {
+                    sample.gcPauses += timer.count();
+                    sample.gcPauseTime += timer.totalTime(TimeUnit.MILLISECONDS);
+                }
+            } else if (meter instanceof FunctionCounter && "cache.gets".equals(name)) {
+                String result = meter.getId().getTag("result");
+                if ("hit".equals(result)) {
+                    sample.cacheHits += ((FunctionCounter) meter).count();
+                } else if ("miss".equals(result)) {
+                    sample.cacheMisses += ((FunctionCounter) meter).count();
+                }
+            }
+        }
+        synchronized (samples) {
+            samples.addLast(sample);
+            while (samples.size() > MAX_SAMPLES
+                || sample.time - samples.peekFirst().time > MAX_WINDOW_NANOS + MAX_WINDOW_NANOS / 10) {
+                samples.removeFirst();
+            }
+        }
+    }
+
+    /**
+     * <p>toMap.</p>
+     *
+     * @return the rates and ratios of each window, by window name, for the windows covered by at least two samples.
+     */
+    Map<String, Map<String, Number>> toMap() {
+        Map<String, Map<String, Number>> results = new LinkedHashMap<>();
+        synchronized (samples) {
+            if (samples.size() < 2) {
+                return results;
+            }
+            Sample latest = samples.peekLast();
+            WINDOWS.forEach((name, window) -> {
+                Sample oldest = oldestWithin(latest, window.toNanos());
+                if (latest.time > oldest.time) {
+                    results.put(name, delta(oldest, latest));
+                }
+            });
+        }
+        return results;
+    }
+
+    private Sample oldestWithin(Sample latest, long windowNanos) {
+        Iterator<Sample> iterator = samples.iterator();
+        while (iterator.hasNext()) {
+            Sample sample = iterator.next();
+            if (latest.time - sample.time <= windowNanos) {
+                return sample;
+            }
+        }
+        return latest;
+    }
+
+    private static Map<String, Number> delta(Sample from, Sample to) {
+        double seconds = (to.time - from.time) / 1e9;
+        double requests = Math.max(0, to.requests - from.requests);
+        double errors = Math.max(0, to.errors - from.errors);
+        double cacheHits = Math.max(0, to.cacheHits - from.cacheHits);
+        double cacheGets = cacheHits + Math.max(0, to.cacheMisses - from.cacheMisses);
+        double poolAcquisitions = Math.max(0, to.poolAcquisitions - from.poolAcquisitions);
+
+        Map<String, Number> results = new LinkedHashMap<>();
+        results.put("durationInSeconds", seconds);
+        results.put("requestsPerSecond", requests / seconds);
+        if (requests > 0) {
+            results.put("errorRate", errors / requests);
+            results.put("meanResponseTime", Math.max(0, to.requestsTime - from.requestsTime) / requests);
+        }
+        if (cacheGets > 0) {
+            results.put("cacheHitRatio", cacheHits / cacheGets);
+        }
+        if (poolAcquisitions > 0) {
+            results.put("poolWaitTime", Math.max(0, to.poolWaitTime - from.poolWaitTime) / poolAcquisitions);
+        }
+        results.put("gcPausesPerSecond", Math.max(0, to.gcPauses - from.gcPauses) / seconds);
+        results.put("gcPauseTime", Math.max(0, to.gcPauseTime - from.gcPauseTime));
+        return results;
+    }
+
+    /**
+     * The cumulative values of the meters at a point in time. Times are in milliseconds.
+     */
+    private static final class Sample {
+
+        private final long time;
+
+        private double requests;
+
+        private double requestsTime;
+
+        private double errors;
+
+        private double cacheHits;
+
+        private double cacheMisses;
+
+        private double poolAcquisitions;
+
+        private double poolWaitTime;
+
+        private double gcPauses;
+
+        private double gcPauseTime;
+
+        private Sample(long time) {
+            this.time = time;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.metric;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * A Hibernate session event listener timing the execution of the JDBC statements, and recording the slowest ones,
+ * with the SQL remembered by the {@link SlowQueryStatementInspector}, into the reservoir of the inspector.
+ * <p>
+ * Hibernate creates one listener per session, from the <code>hibernate.session.events.auto</code> property. The SQL
+ * is taken from the inspector once its statement is prepared, and an execution is only recorded when a single SQL
+ * was prepared since the previous one: a batch flushing several statements is not attributed to any of them.
+ */
+public class SlowQuerySessionEventListener extends BaseSessionEventListener {
+
+    private static final long serialVersionUID = 1L;
+
+    private long start;
+
+    private SlowQueryStatementInspector.InspectedSql preparedSql;
+
+    private boolean ambiguous;
+
+    /** {@inheritDoc} */
+    @Override
+    public void jdbcPrepareStatementEnd() {
+        SlowQueryStatementInspector.InspectedSql sql = SlowQueryStatementInspector.takeCurrentSql();
+        if (preparedSql == null) {
+            preparedSql = sql;
+        } else if (sql == null || !preparedSql.sql.equals(sql.sql)) {
+            ambiguous = true;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void jdbcExecuteStatementStart() {
+        start = System.nanoTime();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        record();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void jdbcExecuteBatchStart() {
+        start = System.nanoTime();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        record();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void end() {
+        SlowQueryStatementInspector.takeCurrentSql();
+    }
+
+    private void record() {
+        long duration = System.nanoTime() - start;
+        SlowQueryStatementInspector.InspectedSql sql = preparedSql;
+        if (sql != null && !ambiguous) {
+            sql.reservoir.record(() -> SlowQueryStatementInspector.normalize(sql.sql), duration);
+        }
+        preparedSql = null;
+        ambiguous = false;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.metric;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.regex.Pattern;
+
+/**
+ * A Hibernate {@link StatementInspector} remembering the SQL of the statement being prepared by the current thread,
+ * until the {@link SlowQuerySessionEventListener} takes it once the statement is prepared, to record it into the
+ * {@link SlowSampleReservoir} of the inspector if its execution is slow.
+ * <p>
+ * It does not change the SQL, and the SQL is only normalized when the statement is recorded.
+ */
+public class SlowQueryStatementInspector implements StatementInspector {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final ThreadLocal<InspectedSql> CURRENT_SQL = new ThreadLocal<>();
+
+    private static final int MAX_SQL_LENGTH = 1000;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+
+    private static final Pattern NUMERIC_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final transient SlowSampleReservoir reservoir;
+
+    /**
+     * <p>Constructor for SlowQueryStatementInspector.</p>
+     *
+     * @param reservoir the {@link SlowSampleReservoir} recording the slowest SQL statements.
+     */
+    public SlowQueryStatementInspector(SlowSampleReservoir reservoir) {
+        this.reservoir = reservoir;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String inspect(String sql) {
+        CURRENT_SQL.set(new InspectedSql(sql, reservoir));
+        return sql;
+    }
+
+    /**
+     * Returns and forgets the SQL of the statement prepared by the current thread.
+     *
+     * @return the SQL, with the reservoir of the inspector, or null if no statement was prepared.
+     */
+    static InspectedSql takeCurrentSql() {
+        InspectedSql sql = CURRENT_SQL.get();
+        CURRENT_SQL.remove();
+        return sql;
+    }
+
+    /**
+     * Normalizes a SQL statement, so that the statements differing only by their values look the same: literals are
+     * replaced by <code>?</code>, lists of parameters are collapsed and whitespaces are collapsed.
+     *
+     * @param sql the SQL.
+     * @return the normalized SQL, truncated to 1000 characters.
+     */
+    static String normalize(String sql) {
+        if (sql == null) {
+            return "unknown";
+        }
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMERIC_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = PARAMETER_LIST.matcher(normalized).replaceAll("(?)");
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+        return normalized.length() > MAX_SQL_LENGTH ? normalized.substring(0, MAX_SQL_LENGTH) + "..." : normalized;
+    }
+
+    /**
+     * The SQL of a prepared statement, with the reservoir recording it.
+     */
+    static final class InspectedSql {
+
+        final String sql;
+
+        final SlowSampleReservoir reservoir;
+
+        InspectedSql(String sql, SlowSampleReservoir reservoir) {
+            this.sql = sql;
+            this.reservoir = reservoir;
+        }
+    }
+}
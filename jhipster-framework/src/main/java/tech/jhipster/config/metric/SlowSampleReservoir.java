@@ -0,0 +1,196 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.metric;
+
+import io.micrometer.core.instrument.Clock;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Supplier;
+
+/**
+ * A bounded reservoir of the slowest recent operations, such as HTTP requests or SQL statements.
+ * <p>
+ * It keeps the slowest samples recorded over the last few minutes, up to its size. Once it is full, operations
+ * faster than all the samples are rejected with a single volatile read, without locking and without building their
+ * name, so recording fast operations has a negligible overhead.
+ */
+public class SlowSampleReservoir {
+
+    /** Constant <code>DEFAULT_SIZE=10</code> */
+    public static final int DEFAULT_SIZE = 10;
+
+    /** Constant <code>DEFAULT_MAX_AGE</code> */
+    public static final Duration DEFAULT_MAX_AGE = Duration.ofMinutes(5);
+
+    /** Name of the bean of the slowest recent HTTP requests, reported by the <code>jhimetrics</code> endpoint. */
+    public static final String REQUESTS_BEAN_NAME = "slowRequestReservoir";
+
+    /** Name of the bean of the slowest recent SQL statements, reported by the <code>jhimetrics</code> endpoint. */
+    public static final String QUERIES_BEAN_NAME = "slowQueryReservoir";
+
+    private final int size;
+
+    private final long maxAgeNanos;
+
+    private final Clock clock;
+
+    private final PriorityQueue<Sample> samples = new PriorityQueue<>(Comparator.comparingLong(Sample::getDurationInNanos));
+
+    /** Operations not slower than the threshold are rejected, until the threshold expires. */
+    private volatile long threshold = -1;
+
+    private volatile long thresholdExpiry;
+
+    /**
+     * <p>Constructor for SlowSampleReservoir, with the default size and maximum age.</p>
+     */
+    public SlowSampleReservoir() {
+        this(DEFAULT_SIZE, DEFAULT_MAX_AGE, Clock.SYSTEM);
+    }
+
+    /**
+     * <p>Constructor for SlowSampleReservoir.</p>
+     *
+     * @param size the maximum number of samples.
+     * @param maxAge the age after which a sample is discarded.
+     * @param clock the clock.
+     */
+    public SlowSampleReservoir(int size, Duration maxAge, Clock clock) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Size must be at least 1");
+        }
+        this.size = size;
+        this.maxAgeNanos = maxAge.toNanos();
+        this.clock = clock;
+    }
+
+    /**
+     * Records an operation, if it is one of the slowest recent operations.
+     *
+     * @param name the supplier of the name of the operation, only called if the operation is kept.
+     * @param durationInNanos the duration of the operation, in nanoseconds.
+     */
+    public void record(Supplier<String> name, long durationInNanos) {
+        if (durationInNanos <= threshold && clock.monotonicTime() < thresholdExpiry) {
+            return;
+        }
+        long now = clock.monotonicTime();
+        synchronized (samples) {
+            samples.removeIf(sample -> now - sample.time > maxAgeNanos);
+            if (samples.size() >= size) {
+                if (durationInNanos <= samples.peek().durationInNanos) {
+                    updateThreshold();
+                    return;
+                }
+                samples.poll();
+            }
+            samples.add(new Sample(name.get(), durationInNanos, now, clock.wallTime()));
+            updateThreshold();
+        }
+    }
+
+    private void updateThreshold() {
+        if (samples.size() < size) {
+            threshold = -1;
+            return;
+        }
+        long oldest = Long.MAX_VALUE;
+        for (Sample sample : samples) {
+            oldest = Math.min(oldest, sample.time);
+        }
+        threshold = samples.peek().durationInNanos;
+        thresholdExpiry = oldest + maxAgeNanos;
+    }
+
+    /**
+     * <p>Getter for the field <code>samples</code>.</p>
+     *
+     * @return the recent samples, slowest first.
+     */
+    public List<Sample> getSamples() {
+        long now = clock.monotonicTime();
+        List<Sample> results;
+        synchronized (samples) {
+            results = new ArrayList<>(samples);
+        }
+        results.removeIf(sample -> now - sample.time > maxAgeNanos);
+        results.sort(Comparator.comparingLong(Sample::getDurationInNanos).reversed());
+        return results;
+    }
+
+    void clear() {
+        synchronized (samples) {
+            samples.clear();
+            threshold = -1;
+        }
+    }
+
+    /**
+     * A slow operation.
+     */
+    public static final class Sample {
+
+        private final String name;
+
+        private final long durationInNanos;
+
+        private final long time;
+
+        private final long timestamp;
+
+        private Sample(String name, long durationInNanos, long time, long timestamp) {
+            this.name = name;
+            this.durationInNanos = durationInNanos;
+            this.time = time;
+            this.timestamp = timestamp;
+        }
+
+        /**
+         * <p>Getter for the field <code>name</code>.</p>
+         *
+         * @return the name of the operation, such as the HTTP method and path, or the normalized SQL.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * <p>Getter for the field <code>durationInNanos</code>.</p>
+         *
+         * @return the duration of the operation, in nanoseconds.
+         */
+        public long getDurationInNanos() {
+            return durationInNanos;
+        }
+
+        /**
+         * <p>Getter for the field <code>timestamp</code>.</p>
+         *
+         * @return the end of the operation, in milliseconds since the epoch.
+         */
+        public long getTimestamp() {
+            return timestamp;
+        }
+    }
+}
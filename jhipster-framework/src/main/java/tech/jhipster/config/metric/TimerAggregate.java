@@ -0,0 +1,79 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.metric;
+
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The count, total time, max and latency histogram of one or several timers, in milliseconds.
+ * <p>
+ * All its values can be merged exactly, across timers as well as across nodes, the mean and the percentiles being
+ * only derived when the aggregate is rendered.
+ */
+final class TimerAggregate implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+
+    private long count;
+
+    private double totalTime;
+
+    private double max;
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    void add(HistogramSnapshot snapshot) {
+        this.count += snapshot.count();
+        this.totalTime += snapshot.total(TimeUnit.MILLISECONDS);
+        this.max = Math.max(this.max, snapshot.max(TimeUnit.MILLISECONDS));
+        histogram.add(snapshot.histogramCounts(), snapshot.count(), snapshot.max(TimeUnit.MILLISECONDS));
+    }
+
+    void merge(TimerAggregate other) {
+        this.count += other.count;
+        this.totalTime += other.totalTime;
+        this.max = Math.max(this.max, other.max);
+        histogram.merge(other.histogram);
+    }
+
+    long getCount() {
+        return count;
+    }
+
+    Map<String, Number> toMap() {
+        Map<String, Number> results = new HashMap<>();
+        results.put("count", count);
+        results.put("max", max);
+        results.put("mean", count != 0 ? totalTime / count : 0);
+        if (!histogram.isEmpty()) {
+            for (double percentile : PERCENTILES) {
+                results.put(String.valueOf(percentile), histogram.percentile(percentile));
+            }
+        }
+        return results;
+    }
+}
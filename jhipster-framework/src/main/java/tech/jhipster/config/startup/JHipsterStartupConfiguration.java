@@ -0,0 +1,59 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.startup;
+
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * <p>JHipsterStartupConfiguration class.</p>
+ * <p>
+ * It records the startup timeline, but does not defer any bean. The OpenAPI groups and customizers are all
+ * injected by the springdoc resources, which are created eagerly to register the groups in the Swagger UI, and the
+ * info contributors are all injected by the info endpoint: deferring them would not delay their creation.
+ */
+@Configuration
+public class JHipsterStartupConfiguration {
+
+    /**
+     * <p>startupTimelineBeanPostProcessor.</p>
+     *
+     * @return a {@link StartupTimelineBeanPostProcessor} object.
+     */
+    @Bean
+    public static StartupTimelineBeanPostProcessor startupTimelineBeanPostProcessor() {
+        return new StartupTimelineBeanPostProcessor();
+    }
+
+    @Configuration
+    @ConditionalOnClass(name = "org.springframework.boot.actuate.endpoint.annotation.Endpoint")
+    static class StartupEndpointConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnAvailableEndpoint
+        public JHipsterStartupEndpoint jHipsterStartupEndpoint() {
+            return new JHipsterStartupEndpoint();
+        }
+    }
+}
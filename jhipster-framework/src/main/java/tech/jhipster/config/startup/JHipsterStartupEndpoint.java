@@ -0,0 +1,76 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.startup;
+
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>JHipsterStartupEndpoint class.</p>
+ * <p>
+ * Exposes the {@link StartupTimeline}, with the start of each step relative to the start of the JVM. The total is
+ * the wall-clock time from the start of the first step to the end of the last one, as steps overlap when they are
+ * nested or run on several threads.
+ */
+@WebEndpoint(id = "jhistartup")
+public class JHipsterStartupEndpoint {
+
+    /**
+     * <p>startup.</p>
+     *
+     * @return a {@link java.util.Map} object.
+     */
+    @ReadOperation
+    public Map<String, Object> startup() {
+        Instant jvmStartTime = Instant.ofEpochMilli(ManagementFactory.getRuntimeMXBean().getStartTime());
+        List<Map<String, Object>> steps = new ArrayList<>();
+        Instant firstStart = null;
+        Instant lastEnd = null;
+        for (StartupTimeline.Step step : StartupTimeline.getSteps()) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("name", step.getName());
+            result.put("thread", step.getThreadName());
+            result.put("startMs", Duration.between(jvmStartTime, step.getStartTime()).toMillis());
+            result.put("durationMs", step.getDuration().toMillis());
+            steps.add(result);
+            Instant end = step.getStartTime().plus(step.getDuration());
+            if (firstStart == null) {
+                firstStart = step.getStartTime();
+            }
+            if (lastEnd == null || end.isAfter(lastEnd)) {
+                lastEnd = end;
+            }
+        }
+        Map<String, Object> results = new HashMap<>();
+        results.put("jvmStartTime", jvmStartTime.toString());
+        results.put("totalMs", firstStart != null ? Duration.between(firstStart, lastEnd).toMillis() : 0L);
+        results.put("steps", steps);
+        return results;
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.startup;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Records the duration of the steps run by JHipster while the application starts, such as the creation of the
+ * JHipster beans, the Liquibase migration or the logging setup.
+ * <p>
+ * It is a static recorder, as some steps are run by code which is not managed by Spring, such as the logging setup.
+ * The timeline is exposed by the {@link JHipsterStartupEndpoint}, and is cleared by the
+ * {@link StartupTimelineBeanPostProcessor} when an application context is refreshed, so that it only holds the
+ * last start of an application restarted in the same JVM, by the Spring Boot devtools for instance. Only the first
+ * {@value #MAX_STEPS} steps of a start are kept.
+ */
+public final class StartupTimeline {
+
+    /** Constant <code>MAX_STEPS=1000</code> */
+    public static final int MAX_STEPS = 1000;
+
+    private static final Queue<Step> steps = new ConcurrentLinkedQueue<>();
+
+    private static final AtomicInteger size = new AtomicInteger();
+
+    private StartupTimeline() {
+    }
+
+    /**
+     * Starts a step, which is added to the timeline once ended.
+     *
+     * @param name the name of the step.
+     * @return the started {@link Step}, to end with {@link Step#end()}.
+     */
+    public static Step start(String name) {
+        return new Step(name);
+    }
+
+    /**
+     * Runs an action as a step of the timeline.
+     *
+     * @param name the name of the step.
+     * @param action the action to run.
+     */
+    public static void record(String name, Runnable action) {
+        try (Step ignored = start(name)) {
+            action.run();
+        }
+    }
+
+    /**
+     * Runs an action returning a value as a step of the timeline.
+     *
+     * @param name the name of the step.
+     * @param action the action to run.
+     * @param <T> the type of the value.
+     * @return the value returned by the action.
+     */
+    public static <T> T record(String name, Supplier<T> action) {
+        try (Step ignored = start(name)) {
+            return action.get();
+        }
+    }
+
+    /**
+     * <p>getSteps.</p>
+     *
+     * @return the ended steps, ordered by start time.
+     */
+    public static List<Step> getSteps() {
+        List<Step> result = new ArrayList<>(steps);
+        result.sort(Comparator.comparing(Step::getStartTime));
+        return result;
+    }
+
+    static void clear() {
+        steps.clear();
+        size.set(0);
+    }
+
+    private static void add(Step step) {
+        if (size.incrementAndGet() <= MAX_STEPS) {
+            steps.add(step);
+        }
+    }
+
+    /**
+     * A step of the startup timeline.
+     */
+    public static final class Step implements AutoCloseable {
+
+        private final String name;
+
+        private final String threadName;
+
+        private final Instant startTime;
+
+        private final long startNanos;
+
+        private volatile Duration duration;
+
+        private Step(String name) {
+            this.name = name;
+            this.threadName = Thread.currentThread().getName();
+            this.startTime = Instant.now();
+            this.startNanos = System.nanoTime();
+        }
+
+        /**
+         * Ends the step and adds it to the timeline. Has no effect if the step has already ended.
+         */
+        public void end() {
+            if (duration == null) {
+                duration = Duration.ofNanos(System.nanoTime() - startNanos);
+                add(this);
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void close() {
+            end();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getThreadName() {
+            return threadName;
+        }
+
+        public Instant getStartTime() {
+            return startTime;
+        }
+
+        /**
+         * <p>Getter for the field <code>duration</code>.</p>
+         *
+         * @return the duration of the step, null until it has ended.
+         */
+        public Duration getDuration() {
+            return duration;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.startup;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessor;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Adds the creation of every JHipster bean, from its instantiation to the end of its initialization, to the
+ * {@link StartupTimeline}. A JHipster bean is either a bean of a JHipster class, such as the JHipster
+ * auto-configurations, or a bean defined by a factory method of a JHipster configuration, such as the OpenAPI groups.
+ * <p>
+ * The {@link StartupTimeline} is cleared when the post-processor is created, at the start of the refresh of its
+ * application context. Only the beans created while the singletons are instantiated are recorded. The steps of the beans whose creation
+ * failed, which never reach the end of their initialization, are dropped once the singletons are instantiated.
+ */
+public class StartupTimelineBeanPostProcessor implements InstantiationAwareBeanPostProcessor, BeanFactoryAware,
+    SmartInitializingSingleton {
+
+    private static final String JHIPSTER_PACKAGE = "tech.jhipster.";
+
+    private static final String STEP_PREFIX = "bean:";
+
+    private final Map<String, StartupTimeline.Step> steps = new ConcurrentHashMap<>();
+
+    private ConfigurableListableBeanFactory beanFactory;
+
+    private volatile boolean started;
+
+    /** {@inheritDoc} */
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
+        // Drop the steps of a previous start, when the application is restarted in the same JVM
+        StartupTimeline.clear();
+        if (beanFactory instanceof ConfigurableListableBeanFactory) {
+            this.beanFactory = (ConfigurableListableBeanFactory) beanFactory;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Object postProcessBeforeInstantiation(Class<?> beanClass, String beanName) throws BeansException {
+        if (!started && isJHipsterBean(beanClass, beanName)) {
+            steps.put(beanName, StartupTimeline.start(STEP_PREFIX + beanName));
+        }
+        return null;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        StartupTimeline.Step step = steps.remove(beanName);
+        if (step != null) {
+            step.end();
+        }
+        return bean;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void afterSingletonsInstantiated() {
+        started = true;
+        steps.clear();
+    }
+
+    private boolean isJHipsterBean(Class<?> beanClass, String beanName) {
+        if (beanClass.getName().startsWith(JHIPSTER_PACKAGE)) {
+            return true;
+        }
+        if (beanFactory == null || !beanFactory.containsBeanDefinition(beanName)) {
+            return false;
+        }
+        BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+        String factoryBeanName = definition.getFactoryBeanName();
+        String factoryClassName = factoryBeanName != null && beanFactory.containsBeanDefinition(factoryBeanName)
+            ? beanFactory.getBeanDefinition(factoryBeanName).getBeanClassName()
+            : definition.getBeanClassName();
+        return factoryClassName != null && factoryClassName.startsWith(JHIPSTER_PACKAGE);
+    }
+}
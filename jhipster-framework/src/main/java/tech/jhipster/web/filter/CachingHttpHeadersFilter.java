@@ -19,26 +19,53 @@
 
 package tech.jhipster.web.filter;
 
+import org.springframework.util.StringUtils;
 import tech.jhipster.config.JHipsterProperties;
 
 import javax.servlet.*;
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
 import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
 /**
  * This filter is used in production, to put HTTP cache headers with a long (4 years) expiration time.
+ * <p>
+ * The header values are computed once, when the filter is initialized. The <code>Expires</code> header is
+ * only formatted again when the second changes. Two policies override the default one, depending on the request
+ * path: fingerprinted assets, whose content never changes for a given path, are marked <code>immutable</code>,
+ * and HTML pages must be revalidated so that new fingerprinted assets are picked up.
  */
 public class CachingHttpHeadersFilter implements Filter {
 
     /** Constant <code>DEFAULT_DAYS_TO_LIVE=1461</code> */
     public static final int DEFAULT_DAYS_TO_LIVE = 1461; // 4 years
-    /** Constant <code>DEFAULT_SECONDS_TO_LIVE=TimeUnit.DAYS.toMillis(DEFAULT_DAYS_TO_LIVE)</code> */
-    public static final long DEFAULT_SECONDS_TO_LIVE = TimeUnit.DAYS.toMillis(DEFAULT_DAYS_TO_LIVE);
+    /** Constant <code>DEFAULT_SECONDS_TO_LIVE=TimeUnit.DAYS.toSeconds(DEFAULT_DAYS_TO_LIVE)</code> */
+    public static final long DEFAULT_SECONDS_TO_LIVE = TimeUnit.DAYS.toSeconds(DEFAULT_DAYS_TO_LIVE);
+
+    private static final String REVALIDATE_CACHE_CONTROL = "no-cache";
+
+    private static final DateTimeFormatter HTTP_DATE_FORMATTER =
+        DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US).withZone(ZoneOffset.UTC);
+
+    private final JHipsterProperties jHipsterProperties;
 
     private long cacheTimeToLive = DEFAULT_SECONDS_TO_LIVE;
 
-    private JHipsterProperties jHipsterProperties;
+    private String cacheControl = cacheControl(DEFAULT_SECONDS_TO_LIVE);
+
+    private String immutableCacheControl = cacheControl + ", immutable";
+
+    private Pattern immutablePattern;
+
+    private Pattern revalidatePattern;
+
+    private volatile Expires expires = new Expires(-1, null);
 
     /**
      * <p>Constructor for CachingHttpHeadersFilter.</p>
@@ -52,7 +79,13 @@ public class CachingHttpHeadersFilter implements Filter {
     /** {@inheritDoc} */
     @Override
     public void init(FilterConfig filterConfig) throws ServletException {
-        cacheTimeToLive = TimeUnit.DAYS.toMillis(jHipsterProperties.getHttp().getCache().getTimeToLiveInDays());
+        JHipsterProperties.Http.Cache properties = jHipsterProperties.getHttp().getCache();
+        cacheTimeToLive = TimeUnit.DAYS.toSeconds(properties.getTimeToLiveInDays());
+        cacheControl = cacheControl(cacheTimeToLive);
+        immutableCacheControl = cacheControl + ", immutable";
+        immutablePattern = compile(properties.getImmutablePattern());
+        revalidatePattern = compile(properties.getRevalidatePattern());
+        expires = new Expires(-1, null);
     }
 
     /** {@inheritDoc} */
@@ -67,13 +100,56 @@ public class CachingHttpHeadersFilter implements Filter {
         throws IOException, ServletException {
 
         HttpServletResponse httpResponse = (HttpServletResponse) response;
+        String path = request instanceof HttpServletRequest ? ((HttpServletRequest) request).getRequestURI() : null;
 
-        httpResponse.setHeader("Cache-Control", "max-age=" + cacheTimeToLive + ", public");
-        httpResponse.setHeader("Pragma", "cache");
+        if (matches(revalidatePattern, path)) {
+            httpResponse.setHeader("Cache-Control", REVALIDATE_CACHE_CONTROL);
+        } else {
+            httpResponse.setHeader("Cache-Control", matches(immutablePattern, path) ? immutableCacheControl : cacheControl);
+            httpResponse.setHeader("Pragma", "cache");
 
-        // Setting Expires header, for proxy caching
-        httpResponse.setDateHeader("Expires", cacheTimeToLive + System.currentTimeMillis());
+            // Setting Expires header, for proxy caching
+            httpResponse.setHeader("Expires", expires());
+        }
 
         chain.doFilter(request, response);
     }
+
+    private String expires() {
+        long now = System.currentTimeMillis();
+        long second = now / 1000L;
+        Expires current = expires;
+        if (current.second != second) {
+            current = new Expires(second, HTTP_DATE_FORMATTER.format(Instant.ofEpochSecond(second + cacheTimeToLive)));
+            expires = current;
+        }
+        return current.value;
+    }
+
+    private static String cacheControl(long secondsToLive) {
+        return "max-age=" + secondsToLive + ", public";
+    }
+
+    private static Pattern compile(String regex) {
+        return StringUtils.hasText(regex) ? Pattern.compile(regex) : null;
+    }
+
+    private static boolean matches(Pattern pattern, String path) {
+        return pattern != null && path != null && pattern.matcher(path).matches();
+    }
+
+    /**
+     * The formatted <code>Expires</code> header value for a given second.
+     */
+    private static final class Expires {
+
+        private final long second;
+
+        private final String value;
+
+        private Expires(long second, String value) {
+            this.second = second;
+            this.value = value;
+        }
+    }
 }
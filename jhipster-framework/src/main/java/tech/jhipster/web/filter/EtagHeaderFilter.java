@@ -0,0 +1,89 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.web.filter;
+
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * This filter adds an <code>ETag</code> header to the successful responses of <code>GET</code> requests, and
+ * answers the requests whose <code>If-None-Match</code> header matches it with a <code>304 Not Modified</code>
+ * status and no body.
+ * <p>
+ * It is a {@link ShallowEtagHeaderFilter}, hashing the buffered body. Static content gets a strong ETag. API
+ * responses, matching the weak ETag patterns, get a weak ETag, so that they stay valid once compressed by the
+ * server. Responses which already have an ETag, or a <code>Cache-Control: no-store</code> header, are left
+ * untouched, and streaming responses can opt out with {@link ShallowEtagHeaderFilter#disableContentCaching}.
+ */
+public class EtagHeaderFilter extends ShallowEtagHeaderFilter {
+
+    /** Constant <code>DEFAULT_WEAK_ETAG_PATTERNS</code> */
+    public static final String[] DEFAULT_WEAK_ETAG_PATTERNS = {"/api/**"};
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private final ShallowEtagHeaderFilter weakETagFilter = new ShallowEtagHeaderFilter();
+
+    private String[] weakETagPatterns = DEFAULT_WEAK_ETAG_PATTERNS;
+
+    /**
+     * <p>Constructor for EtagHeaderFilter.</p>
+     */
+    public EtagHeaderFilter() {
+        weakETagFilter.setWriteWeakETag(true);
+    }
+
+    /**
+     * <p>Setter for the field <code>weakETagPatterns</code>.</p>
+     *
+     * @param weakETagPatterns the Ant-style patterns of the paths which get a weak ETag.
+     */
+    public void setWeakETagPatterns(String... weakETagPatterns) {
+        this.weakETagPatterns = weakETagPatterns;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+        throws ServletException, IOException {
+
+        if (isWeakETagPath(request)) {
+            weakETagFilter.doFilter(request, response, chain);
+        } else {
+            super.doFilterInternal(request, response, chain);
+        }
+    }
+
+    private boolean isWeakETagPath(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String pattern : weakETagPatterns) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.web.filter;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import tech.jhipster.config.metric.SlowSampleReservoir;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * This filter records the slowest recent requests into a {@link SlowSampleReservoir}, such as the
+ * <code>slowRequestReservoir</code> bean reported by the <code>jhimetrics</code> endpoint.
+ * <p>
+ * Fast requests only cost two calls to {@link System#nanoTime()} and a volatile read. The time spent by asynchronous
+ * requests after the initial dispatch is not accounted for.
+ */
+public class SlowRequestFilter extends OncePerRequestFilter {
+
+    private final SlowSampleReservoir reservoir;
+
+    /**
+     * <p>Constructor for SlowRequestFilter.</p>
+     *
+     * @param reservoir the {@link SlowSampleReservoir} recording the slowest requests.
+     */
+    public SlowRequestFilter(SlowSampleReservoir reservoir) {
+        this.reservoir = reservoir;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            reservoir.record(() -> request.getMethod() + " " + request.getRequestURI(), System.nanoTime() - start);
+        }
+    }
+}
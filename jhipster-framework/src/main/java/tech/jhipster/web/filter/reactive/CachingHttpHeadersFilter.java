@@ -19,44 +19,90 @@
 
 package tech.jhipster.web.filter.reactive;
 
-import org.springframework.http.server.reactive.ServerHttpResponse;
-import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher;
-import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatchers;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.PathContainer;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 import reactor.core.publisher.Mono;
+import tech.jhipster.config.JHipsterDefaults;
+import tech.jhipster.config.JHipsterProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This filter is used in production, to put HTTP cache headers with a long expiration time.
+ * <p>
+ * The path patterns are parsed and the <code>Cache-Control</code> value is built once, when the filter is created,
+ * and the request path is matched synchronously. The time to live is given in milliseconds: the
+ * <code>max-age</code> directive gets it in seconds and the <code>Expires</code> date in milliseconds.
  */
 public class CachingHttpHeadersFilter implements WebFilter {
 
     private final long cacheTimeToLive;
 
+    private final String cacheControl;
+
+    private final List<PathPattern> pathPatterns;
+
     /**
      * <p>Constructor for CachingHttpHeadersFilter.</p>
      *
-     * @param cacheTimeToLive a {@link java.lang.Long} object.
+     * @param cacheTimeToLive the time to live of the cached resources, in milliseconds.
      */
     public CachingHttpHeadersFilter(Long cacheTimeToLive) {
+        this(cacheTimeToLive, JHipsterDefaults.Http.Cache.paths);
+    }
+
+    /**
+     * <p>Constructor for CachingHttpHeadersFilter, configured with the <code>jhipster.http.cache</code> properties:
+     * the time to live and the paths getting the cache headers.</p>
+     *
+     * @param jHipsterProperties a {@link JHipsterProperties} object.
+     */
+    public CachingHttpHeadersFilter(JHipsterProperties jHipsterProperties) {
+        this(TimeUnit.DAYS.toMillis(jHipsterProperties.getHttp().getCache().getTimeToLiveInDays()),
+            jHipsterProperties.getHttp().getCache().getPaths());
+    }
+
+    /**
+     * <p>Constructor for CachingHttpHeadersFilter.</p>
+     *
+     * @param cacheTimeToLive the time to live of the cached resources, in milliseconds.
+     * @param paths the patterns of the paths getting the cache headers, usually
+     *              <code>jhipster.http.cache.paths</code>.
+     */
+    public CachingHttpHeadersFilter(Long cacheTimeToLive, String... paths) {
         this.cacheTimeToLive = cacheTimeToLive;
+        this.cacheControl = "max-age=" + TimeUnit.MILLISECONDS.toSeconds(cacheTimeToLive) + ", public";
+        this.pathPatterns = new ArrayList<>(paths.length);
+        for (String path : paths) {
+            pathPatterns.add(PathPatternParser.defaultInstance.parse(path));
+        }
     }
 
     /** {@inheritDoc} */
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
-        return ServerWebExchangeMatchers.pathMatchers("/i18n/**", "/content/**", "/app/**")
-            .matches(exchange)
-            .filter(ServerWebExchangeMatcher.MatchResult::isMatch)
-            .doOnNext(matchResult -> {
-                ServerHttpResponse response = exchange.getResponse();
-                response.getHeaders().setCacheControl("max-age=" + cacheTimeToLive + ", public");
-                response.getHeaders().setPragma("cache");
-                response.getHeaders().setExpires(cacheTimeToLive + System.currentTimeMillis());
-
-            })
-            .then(Mono.defer(() -> chain.filter(exchange)));
+        if (matches(exchange.getRequest().getPath().pathWithinApplication())) {
+            HttpHeaders headers = exchange.getResponse().getHeaders();
+            headers.setCacheControl(cacheControl);
+            headers.setPragma("cache");
+            headers.setExpires(cacheTimeToLive + System.currentTimeMillis());
+        }
+        return chain.filter(exchange);
     }
-}
 
+    private boolean matches(PathContainer path) {
+        for (PathPattern pathPattern : pathPatterns) {
+            if (pathPattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
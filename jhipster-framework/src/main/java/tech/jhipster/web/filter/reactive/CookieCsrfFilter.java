@@ -8,12 +8,15 @@ import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
-
-import java.util.Optional;
 
 /**
  * <p>CookieCsrfFilter class.</p>
+ * <p>
+ * Adds the <code>XSRF-TOKEN</code> cookie to the responses of the requests which do not have it yet. The filter
+ * itself does not switch to another scheduler, but the token is resolved on the scheduler of the
+ * {@link org.springframework.security.web.server.csrf.ServerCsrfTokenRepository}: wrap the
+ * {@link org.springframework.security.web.server.csrf.CookieServerCsrfTokenRepository} in an
+ * {@link InlineCsrfTokenRepository} to generate it on the event loop.
  */
 public class CookieCsrfFilter implements WebFilter {
 
@@ -25,15 +28,17 @@ public class CookieCsrfFilter implements WebFilter {
         if (exchange.getRequest().getCookies().get(CSRF_COOKIE_NAME) != null) {
             return chain.filter(exchange);
         }
-        return Mono.just(exchange)
-            .publishOn(Schedulers.boundedElastic())
-            .flatMap(it -> it.getAttributeOrDefault(CsrfToken.class.getName(), Mono.<CsrfToken>empty()))
+        Mono<CsrfToken> csrfToken = exchange.getAttribute(CsrfToken.class.getName());
+        if (csrfToken == null) {
+            return chain.filter(exchange);
+        }
+        return csrfToken
             .doOnNext(token -> {
                 ResponseCookie cookie = ResponseCookie.from(CSRF_COOKIE_NAME, token.getToken())
                     .maxAge(-1)
                     .httpOnly(false)
                     .path(getRequestContext(exchange.getRequest()))
-                    .secure(Optional.ofNullable(exchange.getRequest().getSslInfo()).isPresent())
+                    .secure(exchange.getRequest().getSslInfo() != null)
                     .build();
                 exchange.getResponse().getCookies().add(CSRF_COOKIE_NAME, cookie);
             })
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.web.filter.reactive;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ZeroCopyHttpOutputMessage;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * This filter adds an <code>ETag</code> header to the successful responses of <code>GET</code> requests, and
+ * answers the requests whose <code>If-None-Match</code> header matches it with a <code>304 Not Modified</code>
+ * status and no body.
+ * <p>
+ * Static content gets a strong ETag, and API responses, matching the weak ETag patterns, a weak ETag. The body is
+ * buffered to be hashed, up to the maximum buffered size: larger bodies, files written with zero-copy and responses
+ * written with <code>writeAndFlushWith</code>, such as server-sent events, are streamed untouched, as are responses
+ * which already have an ETag or a <code>Cache-Control: no-store</code> header.
+ */
+public class EtagHeaderFilter implements WebFilter {
+
+    /** Constant <code>DEFAULT_WEAK_ETAG_PATTERNS</code> */
+    public static final String[] DEFAULT_WEAK_ETAG_PATTERNS = {"/api/**"};
+
+    /** Constant <code>DEFAULT_MAX_BUFFERED_SIZE=1024 * 1024</code> */
+    public static final int DEFAULT_MAX_BUFFERED_SIZE = 1024 * 1024;
+
+    private static final String DIGEST_ALGORITHM = "MD5";
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private String[] weakETagPatterns = DEFAULT_WEAK_ETAG_PATTERNS;
+
+    private int maxBufferedSize = DEFAULT_MAX_BUFFERED_SIZE;
+
+    /**
+     * <p>Setter for the field <code>weakETagPatterns</code>.</p>
+     *
+     * @param weakETagPatterns the Ant-style patterns of the paths which get a weak ETag.
+     */
+    public void setWeakETagPatterns(String... weakETagPatterns) {
+        this.weakETagPatterns = weakETagPatterns;
+    }
+
+    /**
+     * <p>Setter for the field <code>maxBufferedSize</code>.</p>
+     *
+     * @param maxBufferedSize the size, in bytes, of the largest body buffered to compute its ETag.
+     */
+    public void setMaxBufferedSize(int maxBufferedSize) {
+        this.maxBufferedSize = maxBufferedSize;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!HttpMethod.GET.equals(exchange.getRequest().getMethod())) {
+            return chain.filter(exchange);
+        }
+        ServerHttpResponse delegate = exchange.getResponse();
+        ServerHttpResponse response = delegate instanceof ZeroCopyHttpOutputMessage ?
+            new ZeroCopyEtagResponse(delegate, exchange) : new EtagResponse(delegate, exchange);
+        return chain.filter(exchange.mutate().response(response).build());
+    }
+
+    private boolean isEligibleForETag(ServerHttpResponse response) {
+        HttpStatus status = response.getStatusCode();
+        HttpHeaders headers = response.getHeaders();
+        if ((status != null && status != HttpStatus.OK) || headers.getETag() != null ||
+            headers.getContentLength() > maxBufferedSize) {
+            return false;
+        }
+        String cacheControl = headers.getCacheControl();
+        return cacheControl == null || !cacheControl.contains("no-store");
+    }
+
+    private String generateETag(ServerWebExchange exchange, DataBuffer buffer) {
+        MessageDigest digest = newDigest();
+        digest.update(buffer.asByteBuffer());
+        String path = exchange.getRequest().getPath().pathWithinApplication().value();
+        boolean weak = false;
+        for (String pattern : weakETagPatterns) {
+            if (pathMatcher.match(pattern, path)) {
+                weak = true;
+                break;
+            }
+        }
+        String etag = "\"" + Base64.getEncoder().encodeToString(digest.digest()) + "\"";
+        return weak ? "W/" + etag : etag;
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not find MessageDigest with algorithm " + DIGEST_ALGORITHM, e);
+        }
+    }
+
+    /**
+     * Buffers the body, up to the maximum buffered size, to answer with its ETag or a <code>304</code> status.
+     */
+    private class EtagResponse extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+
+        EtagResponse(ServerHttpResponse delegate, ServerWebExchange exchange) {
+            super(delegate);
+            this.exchange = exchange;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (!isEligibleForETag(getDelegate())) {
+                return getDelegate().writeWith(body);
+            }
+            long[] size = {0};
+            return Flux.<DataBuffer>from(body)
+                // A single list holds the whole body, unless it is larger than the maximum buffered size
+                .bufferUntil(buffer -> (size[0] += buffer.readableByteCount()) > maxBufferedSize)
+                .switchOnFirst((first, lists) -> {
+                    if (!first.hasValue()) {
+                        return lists.then(Mono.defer(() -> getDelegate().setComplete()));
+                    }
+                    if (size[0] > maxBufferedSize) {
+                        return getDelegate().writeWith(lists.concatMapIterable(buffers -> buffers));
+                    }
+                    return lists.next().flatMap(this::writeWithETag);
+                })
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                .then();
+        }
+
+        private Mono<Void> writeWithETag(List<DataBuffer> buffers) {
+            DataBuffer buffer = getDelegate().bufferFactory().join(buffers);
+            if (exchange.checkNotModified(generateETag(exchange, buffer))) {
+                DataBufferUtils.release(buffer);
+                return getDelegate().setComplete();
+            }
+            return getDelegate().writeWith(Mono.just(buffer));
+        }
+    }
+
+    /**
+     * Keeps the zero-copy transfer of files, which are written without ETag.
+     */
+    private final class ZeroCopyEtagResponse extends EtagResponse implements ZeroCopyHttpOutputMessage {
+
+        ZeroCopyEtagResponse(ServerHttpResponse delegate, ServerWebExchange exchange) {
+            super(delegate, exchange);
+        }
+
+        @Override
+        public Mono<Void> writeWith(Path file, long position, long count) {
+            return ((ZeroCopyHttpOutputMessage) getDelegate()).writeWith(file, position, count);
+        }
+    }
+}
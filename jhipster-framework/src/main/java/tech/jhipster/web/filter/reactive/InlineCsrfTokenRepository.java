@@ -0,0 +1,103 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.web.filter.reactive;
+
+import org.springframework.security.web.server.csrf.CookieServerCsrfTokenRepository;
+import org.springframework.security.web.server.csrf.CsrfToken;
+import org.springframework.security.web.server.csrf.DefaultCsrfToken;
+import org.springframework.security.web.server.csrf.ServerCsrfTokenRepository;
+import org.springframework.util.Assert;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * A {@link ServerCsrfTokenRepository} generating the tokens on the subscribing thread, usually the event loop, and
+ * delegating their loading and saving to another repository, usually a {@link CookieServerCsrfTokenRepository}.
+ * <p>
+ * {@link CookieServerCsrfTokenRepository#generateToken(ServerWebExchange)} subscribes on the bounded elastic
+ * scheduler, so every request without a token, and the rest of its filter chain, moves to that pool. A token is a
+ * random UUID, which does not block with the default <code>SecureRandom</code> reading <code>/dev/urandom</code>.
+ * <p>
+ * The header and parameter names must match the ones of the delegate, which are the Spring Security defaults
+ * unless configured otherwise.
+ */
+public class InlineCsrfTokenRepository implements ServerCsrfTokenRepository {
+
+    /** Constant <code>DEFAULT_HEADER_NAME="X-XSRF-TOKEN"</code> */
+    public static final String DEFAULT_HEADER_NAME = "X-XSRF-TOKEN";
+
+    /** Constant <code>DEFAULT_PARAMETER_NAME="_csrf"</code> */
+    public static final String DEFAULT_PARAMETER_NAME = "_csrf";
+
+    private final ServerCsrfTokenRepository delegate;
+
+    private String headerName = DEFAULT_HEADER_NAME;
+
+    private String parameterName = DEFAULT_PARAMETER_NAME;
+
+    /**
+     * <p>Constructor for InlineCsrfTokenRepository.</p>
+     *
+     * @param delegate the {@link ServerCsrfTokenRepository} loading and saving the tokens.
+     */
+    public InlineCsrfTokenRepository(ServerCsrfTokenRepository delegate) {
+        this.delegate = delegate;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Mono<CsrfToken> generateToken(ServerWebExchange exchange) {
+        return Mono.fromSupplier(() -> new DefaultCsrfToken(headerName, parameterName, UUID.randomUUID().toString()));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Mono<Void> saveToken(ServerWebExchange exchange, CsrfToken token) {
+        return delegate.saveToken(exchange, token);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Mono<CsrfToken> loadToken(ServerWebExchange exchange) {
+        return delegate.loadToken(exchange);
+    }
+
+    /**
+     * <p>Setter for the field <code>headerName</code>.</p>
+     *
+     * @param headerName the name of the header holding the token.
+     */
+    public void setHeaderName(String headerName) {
+        Assert.hasLength(headerName, "headerName can't be null");
+        this.headerName = headerName;
+    }
+
+    /**
+     * <p>Setter for the field <code>parameterName</code>.</p>
+     *
+     * @param parameterName the name of the parameter holding the token.
+     */
+    public void setParameterName(String parameterName) {
+        Assert.hasLength(parameterName, "parameterName can't be null");
+        this.parameterName = parameterName;
+    }
+}
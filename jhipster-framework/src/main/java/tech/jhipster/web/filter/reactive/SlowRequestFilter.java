@@ -0,0 +1,58 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.web.filter.reactive;
+
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import tech.jhipster.config.metric.SlowSampleReservoir;
+
+/**
+ * This filter records the slowest recent requests into a {@link SlowSampleReservoir}, such as the
+ * <code>slowRequestReservoir</code> bean reported by the <code>jhimetrics</code> endpoint.
+ * <p>
+ * Fast requests only cost two calls to {@link System#nanoTime()} and a volatile read. The duration runs until the
+ * response is complete, or the request is cancelled.
+ */
+public class SlowRequestFilter implements WebFilter {
+
+    private final SlowSampleReservoir reservoir;
+
+    /**
+     * <p>Constructor for SlowRequestFilter.</p>
+     *
+     * @param reservoir the {@link SlowSampleReservoir} recording the slowest requests.
+     */
+    public SlowRequestFilter(SlowSampleReservoir reservoir) {
+        this.reservoir = reservoir;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        long start = System.nanoTime();
+        return chain.filter(exchange).doFinally(signal -> {
+            ServerHttpRequest request = exchange.getRequest();
+            reservoir.record(() -> request.getMethodValue() + " " + request.getPath().value(), System.nanoTime() - start);
+        });
+    }
+}
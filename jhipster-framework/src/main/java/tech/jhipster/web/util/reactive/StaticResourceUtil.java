@@ -0,0 +1,50 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.web.util.reactive;
+
+import org.springframework.web.reactive.config.ResourceChainRegistration;
+import org.springframework.web.reactive.config.ResourceHandlerRegistration;
+import org.springframework.web.reactive.resource.EncodedResourceResolver;
+
+/**
+ * Utility class for serving static resources, such as the frontend bundles, with Spring WebFlux.
+ */
+public interface StaticResourceUtil {
+
+    /**
+     * Serves the precompressed siblings of the static resources, <code>.br</code> then <code>.gz</code> files, to
+     * the clients accepting those encodings. The responses get the matching <code>Content-Encoding</code> header
+     * and a <code>Vary: Accept-Encoding</code> header, and the resolved resources are cached per encoding.
+     * <p>
+     * Resources found on the file system, rather than in a jar, are written with a zero-copy transfer on the
+     * servers supporting it, such as Netty and Undertow.
+     * <p>
+     * Example, in a <code>WebFluxConfigurer</code>:
+     * <pre>
+     * StaticResourceUtil.precompressed(registry.addResourceHandler("/app/**").addResourceLocations("classpath:/static/app/"));
+     * </pre>
+     *
+     * @param registration the registration of the resource handler.
+     * @return the resource chain, to add more resolvers or transformers.
+     */
+    static ResourceChainRegistration precompressed(ResourceHandlerRegistration registration) {
+        return registration.resourceChain(true).addResolver(new EncodedResourceResolver());
+    }
+}
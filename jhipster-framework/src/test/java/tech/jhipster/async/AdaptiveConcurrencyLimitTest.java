@@ -0,0 +1,85 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.async;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long FAST = Duration.ofMillis(1).toNanos();
+    private static final long SLOW = Duration.ofSeconds(2).toNanos();
+
+    @Test
+    void testInvalidArguments() {
+        assertThat(catchThrowable(() -> new AdaptiveConcurrencyLimit(10, 0, 20, Duration.ofSeconds(1))))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThat(catchThrowable(() -> new AdaptiveConcurrencyLimit(10, 5, 4, Duration.ofSeconds(1))))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThat(catchThrowable(() -> new AdaptiveConcurrencyLimit(10, 1, 20, Duration.ofSeconds(1), 1.5)))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testAcquireUpToLimit() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10, Duration.ofSeconds(1));
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isFalse();
+        assertThat(limit.getInFlight()).isEqualTo(2);
+
+        limit.cancel();
+        assertThat(limit.getInFlight()).isEqualTo(1);
+        assertThat(limit.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void testAdditiveIncrease() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 3, Duration.ofSeconds(1));
+        for (int i = 0; i < 2; i++) {
+            limit.forceAcquire();
+            limit.release(FAST);
+        }
+        assertThat(limit.getLimit()).isEqualTo(3);
+
+        for (int i = 0; i < 3; i++) {
+            limit.forceAcquire();
+            limit.release(FAST);
+        }
+        assertThat(limit.getLimit()).isEqualTo(3);
+        assertThat(limit.getInFlight()).isZero();
+    }
+
+    @Test
+    void testMultiplicativeDecrease() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 4, 20, Duration.ofSeconds(1), 0.5);
+        limit.forceAcquire();
+        limit.release(SLOW);
+        assertThat(limit.getLimit()).isEqualTo(5);
+
+        limit.forceAcquire();
+        limit.release(SLOW);
+        assertThat(limit.getLimit()).isEqualTo(4);
+    }
+}
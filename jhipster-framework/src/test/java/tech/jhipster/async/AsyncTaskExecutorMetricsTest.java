@@ -0,0 +1,114 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.async;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import tech.jhipster.test.LogbackRecorder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+class AsyncTaskExecutorMetricsTest {
+
+    private ThreadPoolTaskExecutor delegate;
+    private ExceptionHandlingAsyncTaskExecutor executor;
+    private MeterRegistry registry;
+    private LogbackRecorder recorder;
+
+    @BeforeEach
+    void setup() throws Exception {
+        delegate = new ThreadPoolTaskExecutor();
+        delegate.setCorePoolSize(1);
+        delegate.setMaxPoolSize(1);
+        delegate.setQueueCapacity(1);
+        executor = new ExceptionHandlingAsyncTaskExecutor(delegate);
+        executor.afterPropertiesSet();
+        registry = new SimpleMeterRegistry();
+        new AsyncTaskExecutorMetrics(executor, "taskExecutor").bindTo(registry);
+        recorder = LogbackRecorder.forClass(ExceptionHandlingAsyncTaskExecutor.class).reset().capture("ALL");
+    }
+
+    @AfterEach
+    void teardown() throws Exception {
+        recorder.release();
+        executor.destroy();
+    }
+
+    @Test
+    void testTaskTimings() throws Exception {
+        executor.submit(() -> 42).get();
+        executor.submit(() -> { }).get();
+
+        assertThat(registry.get("jhipster.async.tasks.wait").tag("name", "taskExecutor").timer().count()).isEqualTo(2);
+        assertThat(registry.get("jhipster.async.tasks.execution").tag("name", "taskExecutor").timer().count()).isEqualTo(2);
+        assertThat(registry.get("jhipster.async.tasks.failed").counter().count()).isZero();
+        assertThat(registry.get("jhipster.async.tasks.rejected").counter().count()).isZero();
+    }
+
+    @Test
+    void testTaskFailure() {
+        Future<Object> future = executor.submit(() -> {
+            throw new IllegalStateException("Eek");
+        });
+        Throwable caught = catchThrowable(future::get);
+
+        assertThat(caught).isInstanceOf(ExecutionException.class);
+        assertThat(registry.get("jhipster.async.tasks.failed").counter().count()).isEqualTo(1);
+        assertThat(registry.get("jhipster.async.tasks.execution").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testTaskRejection() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> blocking = executor.submit(() -> {
+            running.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        running.await(1, TimeUnit.SECONDS);
+        executor.execute(() -> { });
+
+        assertThat(registry.get("jhipster.async.pool.active").gauge().value()).isEqualTo(1);
+        assertThat(registry.get("jhipster.async.queue.size").gauge().value()).isEqualTo(1);
+        assertThat(registry.get("jhipster.async.queue.remaining").gauge().value()).isZero();
+
+        Throwable caught = catchThrowable(() -> executor.execute(() -> { }));
+        release.countDown();
+        blocking.get();
+
+        assertThat(caught).isInstanceOf(TaskRejectedException.class);
+        assertThat(registry.get("jhipster.async.tasks.rejected").counter().count()).isEqualTo(1);
+    }
+}
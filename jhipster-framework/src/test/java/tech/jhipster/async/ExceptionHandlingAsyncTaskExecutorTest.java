@@ -28,11 +28,15 @@ import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.util.concurrent.ListenableFuture;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowable;
@@ -178,6 +182,97 @@ class ExceptionHandlingAsyncTaskExecutorTest {
         assertThat(event.getThrown()).isEqualTo(exception.toString());
     }
 
+    @Test
+    void testSubmitListenableCallableWithoutException() {
+        Callable<Integer> callable = spy(new MockCallableWithoutException());
+        ListenableFuture<Integer> future = executor.submitListenable(callable);
+        Throwable caught = catchThrowable(() -> assertThat(future.get()).isEqualTo(42));
+        assertThat(done).isEqualTo(true);
+        assertThat(caught).isNull();
+        assertThat(handled).isNull();
+
+        List<Event> events = recorder.play();
+        assertThat(events).isEmpty();
+    }
+
+    @Test
+    void testSubmitListenableCallableWithException() {
+        Callable<Integer> callable = spy(new MockCallableWithException());
+        ListenableFuture<Integer> future = executor.submitListenable(callable);
+        Throwable caught = catchThrowable(() -> future.get());
+        assertThat(done).isEqualTo(true);
+        assertThat(caught).isInstanceOf(ExecutionException.class);
+        assertThat(caught.getCause()).isEqualTo(handled);
+        assertThat(handled).isEqualTo(exception);
+
+        List<Event> events = recorder.play();
+        assertThat(events).hasSize(1);
+        Event event = events.get(0);
+        assertThat(event.getLevel()).isEqualTo("ERROR");
+        assertThat(event.getMessage()).isEqualTo(ExceptionHandlingAsyncTaskExecutor.EXCEPTION_MESSAGE);
+        assertThat(event.getThrown()).isEqualTo(exception.toString());
+    }
+
+    @Test
+    void testSubmitCompletableCallableWithoutException() {
+        Callable<Integer> callable = spy(new MockCallableWithoutException());
+        CompletableFuture<Integer> future = executor.submitCompletable(callable);
+        Throwable caught = catchThrowable(() -> assertThat(future.thenApply(result -> result + 1).get()).isEqualTo(43));
+        assertThat(done).isEqualTo(true);
+        assertThat(caught).isNull();
+        assertThat(handled).isNull();
+
+        List<Event> events = recorder.play();
+        assertThat(events).isEmpty();
+    }
+
+    @Test
+    void testSubmitCompletableCallableWithException() {
+        Callable<Integer> callable = spy(new MockCallableWithException());
+        CompletableFuture<Integer> future = executor.submitCompletable(callable);
+        Throwable caught = catchThrowable(() -> future.get());
+        assertThat(done).isEqualTo(true);
+        assertThat(caught).isInstanceOf(ExecutionException.class);
+        assertThat(caught.getCause()).isEqualTo(handled);
+        assertThat(handled).isEqualTo(exception);
+
+        List<Event> events = recorder.play();
+        assertThat(events).hasSize(1);
+        Event event = events.get(0);
+        assertThat(event.getLevel()).isEqualTo("ERROR");
+        assertThat(event.getMessage()).isEqualTo(ExceptionHandlingAsyncTaskExecutor.EXCEPTION_MESSAGE);
+        assertThat(event.getThrown()).isEqualTo(exception.toString());
+    }
+
+    @Test
+    void testSubmitCompletableRunnableWithException() {
+        Runnable runnable = spy(new MockRunnableWithException());
+        CompletableFuture<Void> future = executor.submitCompletable(runnable);
+        Throwable caught = catchThrowable(() -> future.get());
+        assertThat(done).isEqualTo(true);
+        verify(runnable).run();
+        assertThat(caught).isInstanceOf(ExecutionException.class);
+        assertThat(caught.getCause()).isEqualTo(exception);
+        assertThat(handled).isEqualTo(exception);
+    }
+
+    @Test
+    void testInvokeAll() {
+        Callable<Integer> fast = new MockCallableWithoutException();
+        Callable<Integer> slow = () -> {
+            Thread.sleep(10_000L);
+            return testResult;
+        };
+        Throwable caught = catchThrowable(() -> {
+            List<Future<Integer>> futures = executor.invokeAll(Arrays.asList(fast, slow), 500, TimeUnit.MILLISECONDS);
+            assertThat(futures).hasSize(2).allMatch(Future::isDone);
+            assertThat(futures.get(0).get()).isEqualTo(testResult);
+            assertThat(futures.get(1).isCancelled()).isTrue();
+        });
+        assertThat(done).isEqualTo(true);
+        assertThat(caught).isNull();
+    }
+
     @Test
     void testInitializingExecutor() {
         task = spy(new MockAsyncInitializingTaskExecutor());
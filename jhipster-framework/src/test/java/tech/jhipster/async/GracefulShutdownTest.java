@@ -0,0 +1,141 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.async;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import tech.jhipster.test.LogbackRecorder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+class GracefulShutdownTest {
+
+    private ThreadPoolTaskExecutor delegate;
+    private ExceptionHandlingAsyncTaskExecutor executor;
+    private LogbackRecorder recorder;
+
+    @BeforeEach
+    void setup() throws Exception {
+        delegate = new ThreadPoolTaskExecutor();
+        delegate.setCorePoolSize(1);
+        delegate.setMaxPoolSize(1);
+        executor = new ExceptionHandlingAsyncTaskExecutor(delegate);
+        executor.afterPropertiesSet();
+        recorder = LogbackRecorder.forClass(ExceptionHandlingAsyncTaskExecutor.class).reset().capture("ALL");
+    }
+
+    @AfterEach
+    void teardown() {
+        recorder.release();
+    }
+
+    @Test
+    void testDrainCompletesQueuedTasks() throws Exception {
+        executor.setDrainTimeout(Duration.ofSeconds(5));
+        AtomicInteger completed = new AtomicInteger();
+        for (int i = 0; i < 10; i++) {
+            executor.execute(() -> {
+                sleep(5);
+                completed.incrementAndGet();
+            });
+        }
+        executor.destroy();
+
+        assertThat(completed.get()).isEqualTo(10);
+        assertThat(recorder.play()).noneMatch(event -> "WARN".equals(event.getLevel()));
+    }
+
+    @Test
+    void testDrainTimeoutAbandonsQueuedTasks() throws Exception {
+        List<Runnable> abandoned = new ArrayList<>();
+        executor.setDrainTimeout(Duration.ofMillis(50));
+        executor.setAbandonedTaskHandler(abandoned::addAll);
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            sleep(5000);
+        });
+        Future<Integer> queued = executor.submit(() -> 42);
+        CompletableFuture<Integer> queuedCompletable = executor.submitCompletable(() -> 42);
+        started.await(5, TimeUnit.SECONDS);
+
+        executor.destroy();
+
+        assertThat(abandoned).hasSize(2);
+        assertThat(queued.isCancelled()).isTrue();
+        assertThat(queuedCompletable.isCancelled()).isTrue();
+        List<LogbackRecorder.Event> warnings = new ArrayList<>();
+        recorder.play().stream().filter(event -> "WARN".equals(event.getLevel())).forEach(warnings::add);
+        assertThat(warnings).hasSize(1);
+        assertThat(warnings.get(0).getArguments()).containsExactly(50L, 1, 2);
+    }
+
+    @Test
+    void testDrainTimeoutReleasesAbandonedSlots() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 10, Duration.ofSeconds(5));
+        executor.setConcurrencyLimit(limit);
+        executor.setDrainTimeout(Duration.ofMillis(50));
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            sleep(5000);
+        });
+        executor.execute(() -> { });
+        started.await(5, TimeUnit.SECONDS);
+
+        executor.destroy();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (limit.getInFlight() > 0 && System.nanoTime() < deadline) {
+            sleep(10);
+        }
+        assertThat(limit.getInFlight()).isZero();
+    }
+
+    @Test
+    void testRejectAfterShutdown() throws Exception {
+        executor.setDrainTimeout(Duration.ofSeconds(1));
+        executor.destroy();
+
+        Throwable caught = catchThrowable(() -> executor.execute(() -> { }));
+        assertThat(caught).isInstanceOf(TaskRejectedException.class).hasMessageContaining("shutting down");
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
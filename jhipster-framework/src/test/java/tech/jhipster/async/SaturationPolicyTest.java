@@ -0,0 +1,173 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.async;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+class SaturationPolicyTest {
+
+    private ThreadPoolTaskExecutor delegate;
+    private ExceptionHandlingAsyncTaskExecutor executor;
+    private CountDownLatch release;
+
+    @BeforeEach
+    void setup() throws Exception {
+        delegate = new ThreadPoolTaskExecutor();
+        delegate.setCorePoolSize(1);
+        delegate.setMaxPoolSize(1);
+        delegate.setQueueCapacity(1);
+        executor = new ExceptionHandlingAsyncTaskExecutor(delegate);
+        executor.afterPropertiesSet();
+        release = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    void teardown() throws Exception {
+        release.countDown();
+        executor.destroy();
+    }
+
+    private void saturate() {
+        executor.execute(this::awaitRelease);
+        executor.execute(this::awaitRelease);
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static boolean awaitIdle(AdaptiveConcurrencyLimit limit) throws InterruptedException {
+        // The slot is released right after the future completes
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (limit.getInFlight() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        return limit.getInFlight() == 0;
+    }
+
+    @Test
+    void testAbort() {
+        saturate();
+        Throwable caught = catchThrowable(() -> executor.execute(() -> { }));
+        assertThat(caught).isInstanceOf(TaskRejectedException.class);
+    }
+
+    @Test
+    void testCallerRuns() throws Exception {
+        executor.setSaturationPolicy(SaturationPolicy.CALLER_RUNS, Duration.ZERO);
+        saturate();
+        Thread caller = Thread.currentThread();
+        Future<Thread> future = executor.submit(Thread::currentThread);
+        assertThat(future.isDone()).isTrue();
+        assertThat(future.get()).isSameAs(caller);
+    }
+
+    @Test
+    void testBlockUntilCapacity() throws Exception {
+        executor.setSaturationPolicy(SaturationPolicy.BLOCK, Duration.ofSeconds(5));
+        saturate();
+        new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            release.countDown();
+        }).start();
+        Future<Integer> future = executor.submit(() -> 42);
+        assertThat(future.get(5, TimeUnit.SECONDS)).isEqualTo(42);
+    }
+
+    @Test
+    void testBlockTimeout() {
+        executor.setSaturationPolicy(SaturationPolicy.BLOCK, Duration.ofMillis(50));
+        saturate();
+        Throwable caught = catchThrowable(() -> executor.execute(() -> { }));
+        assertThat(caught).isInstanceOf(TaskRejectedException.class);
+    }
+
+    @Test
+    void testBlockRejectedOnShutdown() throws Exception {
+        executor.setSaturationPolicy(SaturationPolicy.BLOCK, Duration.ofDays(1));
+        saturate();
+        Thread blocked = new Thread(() -> {
+            Throwable caught = catchThrowable(() -> executor.execute(() -> { }));
+            if (caught instanceof TaskRejectedException && caught.getMessage().contains("shutting down")) {
+                release.countDown();
+            }
+        });
+        blocked.start();
+        Thread.sleep(100);
+
+        executor.destroy();
+        blocked.join(TimeUnit.SECONDS.toMillis(5));
+
+        assertThat(blocked.isAlive()).isFalse();
+        assertThat(release.getCount()).isZero();
+    }
+
+    @Test
+    void testConcurrencyLimit() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 1, 1, Duration.ofSeconds(5));
+        executor.setConcurrencyLimit(limit);
+        executor.execute(this::awaitRelease);
+
+        Throwable caught = catchThrowable(() -> executor.execute(() -> { }));
+        assertThat(caught).isInstanceOf(TaskRejectedException.class).hasMessageContaining("Concurrency limit");
+        assertThat(limit.getInFlight()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(awaitIdle(limit)).isTrue();
+        executor.submit(() -> 42).get(5, TimeUnit.SECONDS);
+        assertThat(awaitIdle(limit)).isTrue();
+    }
+
+    @Test
+    void testCancelledTaskReleasesLimit() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 2, Duration.ofSeconds(5));
+        executor.setConcurrencyLimit(limit);
+        executor.execute(this::awaitRelease);
+        Future<?> queued = executor.submit(() -> { });
+        queued.cancel(false);
+        assertThat(limit.getInFlight()).isEqualTo(1);
+        assertThat(delegate.getThreadPoolExecutor().getQueue()).isEmpty();
+
+        release.countDown();
+        assertThat(awaitIdle(limit)).isTrue();
+        executor.submit(() -> 42).get(5, TimeUnit.SECONDS);
+        assertThat(awaitIdle(limit)).isTrue();
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.async;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskContextPropagatorTest {
+
+    private ExceptionHandlingAsyncTaskExecutor executor;
+
+    @BeforeEach
+    void setup() {
+        ThreadPoolTaskExecutor delegate = new ThreadPoolTaskExecutor();
+        delegate.setCorePoolSize(1);
+        delegate.setMaxPoolSize(1);
+        delegate.initialize();
+        executor = new ExceptionHandlingAsyncTaskExecutor(delegate);
+    }
+
+    @AfterEach
+    void teardown() throws Exception {
+        MDC.clear();
+        LocaleContextHolder.resetLocaleContext();
+        SecurityContextHolder.clearContext();
+        executor.destroy();
+    }
+
+    @Test
+    void testDefaults() {
+        assertThat(TaskContextPropagator.defaults())
+            .hasSize(3)
+            .hasAtLeastOneElementOfType(MdcTaskContextPropagator.class)
+            .hasAtLeastOneElementOfType(LocaleTaskContextPropagator.class)
+            .hasAtLeastOneElementOfType(SecurityTaskContextPropagator.class);
+    }
+
+    @Test
+    void testNoPropagationByDefault() throws Exception {
+        MDC.put("requestId", "42");
+
+        Map<String, String> mdc = executor.submit(MDC::getCopyOfContextMap).get();
+
+        assertThat(mdc).isNullOrEmpty();
+    }
+
+    @Test
+    void testContextsArePropagated() throws Exception {
+        executor.setContextPropagators(TaskContextPropagator.defaults());
+        Authentication authentication = new TestingAuthenticationToken("user", "password");
+        MDC.put("requestId", "42");
+        LocaleContextHolder.setLocale(Locale.FRENCH);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+
+        Map<String, String> mdc = executor.submit(MDC::getCopyOfContextMap).get();
+        Locale locale = executor.submit((Callable<Locale>) LocaleContextHolder::getLocale).get();
+        Authentication propagated = executor.submit(() -> SecurityContextHolder.getContext().getAuthentication()).get();
+
+        assertThat(mdc).containsEntry("requestId", "42");
+        assertThat(locale).isEqualTo(Locale.FRENCH);
+        assertThat(propagated).isEqualTo(authentication);
+    }
+
+    @Test
+    void testCallerSecurityContextUnchanged() throws Exception {
+        SecurityTaskContextPropagator propagator = new SecurityTaskContextPropagator();
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        SecurityContextHolder.setContext(context);
+
+        assertThat(propagator.capture()).isNull();
+        assertThat(SecurityContextHolder.getContext()).isSameAs(context);
+
+        executor.setContextPropagators(TaskContextPropagator.defaults());
+        Authentication authentication = executor.submit(() -> SecurityContextHolder.getContext().getAuthentication()).get();
+
+        assertThat(authentication).isNull();
+        assertThat(SecurityContextHolder.getContext()).isSameAs(context);
+    }
+
+    @Test
+    void testContextsAreResetAfterTask() throws Exception {
+        executor.setContextPropagators(TaskContextPropagator.defaults());
+        MDC.put("requestId", "42");
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("user", "password"));
+        executor.submit(() -> { }).get();
+
+        MDC.clear();
+        SecurityContextHolder.clearContext();
+        executor.setContextPropagators(Collections.emptyList());
+
+        Map<String, String> mdc = executor.submit(MDC::getCopyOfContextMap).get();
+        Authentication authentication = executor.submit(() -> SecurityContextHolder.getContext().getAuthentication()).get();
+
+        assertThat(mdc).isNullOrEmpty();
+        assertThat(authentication).isNull();
+    }
+}
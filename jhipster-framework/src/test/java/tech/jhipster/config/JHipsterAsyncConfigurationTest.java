@@ -0,0 +1,152 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import tech.jhipster.async.ExceptionHandlingAsyncTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JHipsterAsyncConfigurationTest {
+
+    @Test
+    void testConcurrencyLimitApplied() throws Exception {
+        try (AnnotationConfigApplicationContext context = createContext(
+            "jhipster.async.concurrency-limit.enabled=true",
+            "jhipster.async.concurrency-limit.initial-limit=1",
+            "jhipster.async.concurrency-limit.min-limit=1")) {
+            ExceptionHandlingAsyncTaskExecutor executor = context.getBean(ExceptionHandlingAsyncTaskExecutor.class);
+            CountDownLatch release = new CountDownLatch(1);
+            executor.execute(() -> await(release));
+            try {
+                assertThatThrownBy(() -> executor.execute(() -> { }))
+                    .isInstanceOf(TaskRejectedException.class).hasMessageContaining("Concurrency limit");
+            } finally {
+                release.countDown();
+            }
+        }
+    }
+
+    @Test
+    void testSaturationPolicyApplied() throws Exception {
+        try (AnnotationConfigApplicationContext context = createContext(
+            "jhipster.async.saturation-policy=caller-runs",
+            "jhipster.async.concurrency-limit.enabled=true",
+            "jhipster.async.concurrency-limit.initial-limit=1",
+            "jhipster.async.concurrency-limit.min-limit=1")) {
+            ExceptionHandlingAsyncTaskExecutor executor = context.getBean(ExceptionHandlingAsyncTaskExecutor.class);
+            CountDownLatch release = new CountDownLatch(1);
+            executor.execute(() -> await(release));
+            try {
+                Thread caller = Thread.currentThread();
+                Thread[] runner = new Thread[1];
+                executor.execute(() -> runner[0] = Thread.currentThread());
+                assertThat(runner[0]).isSameAs(caller);
+            } finally {
+                release.countDown();
+            }
+        }
+    }
+
+    @Test
+    void testDrainTimeoutApplied() {
+        AtomicInteger completed = new AtomicInteger();
+        try (AnnotationConfigApplicationContext context = createContext("jhipster.async.drain-timeout-in-seconds=5")) {
+            ExceptionHandlingAsyncTaskExecutor executor = context.getBean(ExceptionHandlingAsyncTaskExecutor.class);
+            for (int i = 0; i < 5; i++) {
+                executor.execute(() -> {
+                    await(new CountDownLatch(1), 10);
+                    completed.incrementAndGet();
+                });
+            }
+        }
+        assertThat(completed.get()).isEqualTo(5);
+    }
+
+    @Test
+    void testContextPropagatedByDefault() throws Exception {
+        try (AnnotationConfigApplicationContext context = createContext()) {
+            ExceptionHandlingAsyncTaskExecutor executor = context.getBean(ExceptionHandlingAsyncTaskExecutor.class);
+            MDC.put("requestId", "42");
+            try {
+                assertThat(executor.submit(() -> MDC.get("requestId")).get(5, TimeUnit.SECONDS)).isEqualTo("42");
+            } finally {
+                MDC.clear();
+            }
+        }
+    }
+
+    @Test
+    void testContextPropagationDisabled() throws Exception {
+        try (AnnotationConfigApplicationContext context = createContext("jhipster.async.propagate-context=false")) {
+            ExceptionHandlingAsyncTaskExecutor executor = context.getBean(ExceptionHandlingAsyncTaskExecutor.class);
+            MDC.put("requestId", "42");
+            try {
+                assertThat(executor.submit(() -> MDC.get("requestId")).get(5, TimeUnit.SECONDS)).isNull();
+            } finally {
+                MDC.clear();
+            }
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        await(latch, 5000);
+    }
+
+    private static void await(CountDownLatch latch, long millis) {
+        try {
+            latch.await(millis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static AnnotationConfigApplicationContext createContext(String... properties) {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        TestPropertyValues.of(properties).applyTo(context);
+        context.register(JHipsterConfiguration.class, JHipsterAsyncConfiguration.class, TestConfiguration.class);
+        context.refresh();
+        return context;
+    }
+
+    @Configuration
+    static class TestConfiguration {
+
+        @Bean
+        ExceptionHandlingAsyncTaskExecutor taskExecutor() {
+            ThreadPoolTaskExecutor delegate = new ThreadPoolTaskExecutor();
+            delegate.setCorePoolSize(1);
+            delegate.setMaxPoolSize(1);
+            return new ExceptionHandlingAsyncTaskExecutor(delegate);
+        }
+    }
+}
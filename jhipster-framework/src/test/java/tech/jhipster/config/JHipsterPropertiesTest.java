@@ -21,6 +21,7 @@ package tech.jhipster.config;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import tech.jhipster.async.SaturationPolicy;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
@@ -96,6 +97,96 @@ class JHipsterPropertiesTest {
         assertThat(obj.getQueueCapacity()).isEqualTo(val);
     }
 
+    @Test
+    void testAsyncSaturationPolicy() {
+        JHipsterProperties.Async obj = properties.getAsync();
+        SaturationPolicy val = JHipsterDefaults.Async.saturationPolicy;
+        assertThat(obj.getSaturationPolicy()).isEqualTo(val);
+        val = SaturationPolicy.CALLER_RUNS;
+        obj.setSaturationPolicy(val);
+        assertThat(obj.getSaturationPolicy()).isEqualTo(val);
+    }
+
+    @Test
+    void testAsyncBlockTimeoutInMillis() {
+        JHipsterProperties.Async obj = properties.getAsync();
+        long val = JHipsterDefaults.Async.blockTimeoutInMillis;
+        assertThat(obj.getBlockTimeoutInMillis()).isEqualTo(val);
+        val++;
+        obj.setBlockTimeoutInMillis(val);
+        assertThat(obj.getBlockTimeoutInMillis()).isEqualTo(val);
+    }
+
+    @Test
+    void testAsyncDrainTimeoutInSeconds() {
+        JHipsterProperties.Async obj = properties.getAsync();
+        long val = JHipsterDefaults.Async.drainTimeoutInSeconds;
+        assertThat(obj.getDrainTimeoutInSeconds()).isEqualTo(val);
+        val++;
+        obj.setDrainTimeoutInSeconds(val);
+        assertThat(obj.getDrainTimeoutInSeconds()).isEqualTo(val);
+    }
+
+    @Test
+    void testAsyncPropagateContext() {
+        JHipsterProperties.Async obj = properties.getAsync();
+        boolean val = JHipsterDefaults.Async.propagateContext;
+        assertThat(obj.isPropagateContext()).isEqualTo(val);
+        val = !val;
+        obj.setPropagateContext(val);
+        assertThat(obj.isPropagateContext()).isEqualTo(val);
+    }
+
+    @Test
+    void testAsyncConcurrencyLimitEnabled() {
+        JHipsterProperties.Async.ConcurrencyLimit obj = properties.getAsync().getConcurrencyLimit();
+        boolean val = JHipsterDefaults.Async.ConcurrencyLimit.enabled;
+        assertThat(obj.isEnabled()).isEqualTo(val);
+        val = !val;
+        obj.setEnabled(val);
+        assertThat(obj.isEnabled()).isEqualTo(val);
+    }
+
+    @Test
+    void testAsyncConcurrencyLimitInitialLimit() {
+        JHipsterProperties.Async.ConcurrencyLimit obj = properties.getAsync().getConcurrencyLimit();
+        int val = JHipsterDefaults.Async.ConcurrencyLimit.initialLimit;
+        assertThat(obj.getInitialLimit()).isEqualTo(val);
+        val++;
+        obj.setInitialLimit(val);
+        assertThat(obj.getInitialLimit()).isEqualTo(val);
+    }
+
+    @Test
+    void testAsyncConcurrencyLimitMinLimit() {
+        JHipsterProperties.Async.ConcurrencyLimit obj = properties.getAsync().getConcurrencyLimit();
+        int val = JHipsterDefaults.Async.ConcurrencyLimit.minLimit;
+        assertThat(obj.getMinLimit()).isEqualTo(val);
+        val++;
+        obj.setMinLimit(val);
+        assertThat(obj.getMinLimit()).isEqualTo(val);
+    }
+
+    @Test
+    void testAsyncConcurrencyLimitMaxLimit() {
+        JHipsterProperties.Async.ConcurrencyLimit obj = properties.getAsync().getConcurrencyLimit();
+        int val = JHipsterDefaults.Async.ConcurrencyLimit.maxLimit;
+        assertThat(obj.getMaxLimit()).isEqualTo(val);
+        val++;
+        obj.setMaxLimit(val);
+        assertThat(obj.getMaxLimit()).isEqualTo(val);
+    }
+
+    @Test
+    void testAsyncConcurrencyLimitLatencyThresholdInMillis() {
+        JHipsterProperties.Async.ConcurrencyLimit obj = properties.getAsync().getConcurrencyLimit();
+        long val = JHipsterDefaults.Async.ConcurrencyLimit.latencyThresholdInMillis;
+        assertThat(obj.getLatencyThresholdInMillis()).isEqualTo(val);
+        val++;
+        obj.setLatencyThresholdInMillis(val);
+        assertThat(obj.getLatencyThresholdInMillis()).isEqualTo(val);
+    }
+
     @Test
     void testHttpCacheTimeToLiveInDays() {
         JHipsterProperties.Http.Cache obj = properties.getHttp().getCache();
@@ -106,6 +197,36 @@ class JHipsterPropertiesTest {
         assertThat(obj.getTimeToLiveInDays()).isEqualTo(val);
     }
 
+    @Test
+    void testHttpCacheImmutablePattern() {
+        JHipsterProperties.Http.Cache obj = properties.getHttp().getCache();
+        String val = JHipsterDefaults.Http.Cache.immutablePattern;
+        assertThat(obj.getImmutablePattern()).isEqualTo(val);
+        val = "1" + val;
+        obj.setImmutablePattern(val);
+        assertThat(obj.getImmutablePattern()).isEqualTo(val);
+    }
+
+    @Test
+    void testHttpCacheRevalidatePattern() {
+        JHipsterProperties.Http.Cache obj = properties.getHttp().getCache();
+        String val = JHipsterDefaults.Http.Cache.revalidatePattern;
+        assertThat(obj.getRevalidatePattern()).isEqualTo(val);
+        val = "1" + val;
+        obj.setRevalidatePattern(val);
+        assertThat(obj.getRevalidatePattern()).isEqualTo(val);
+    }
+
+    @Test
+    void testHttpCachePaths() {
+        JHipsterProperties.Http.Cache obj = properties.getHttp().getCache();
+        String[] val = JHipsterDefaults.Http.Cache.paths;
+        assertThat(obj.getPaths()).isEqualTo(val);
+        val = new String[]{"/static/**"};
+        obj.setPaths(val);
+        assertThat(obj.getPaths()).isEqualTo(val);
+    }
+
     @Test
     void testDatabaseCouchbaseBucketName() {
         JHipsterProperties.Database.Couchbase obj = properties.getDatabase().getCouchbase();
@@ -114,6 +235,76 @@ class JHipsterPropertiesTest {
         assertThat(obj.getBucketName()).isEqualTo("bucketName");
     }
 
+    @Test
+    void testLiquibasePoolReuseDataSource() {
+        JHipsterProperties.Liquibase.Pool obj = properties.getLiquibase().getPool();
+        boolean val = JHipsterDefaults.Liquibase.Pool.reuseDataSource;
+        assertThat(obj.isReuseDataSource()).isEqualTo(val);
+        val = !val;
+        obj.setReuseDataSource(val);
+        assertThat(obj.isReuseDataSource()).isEqualTo(val);
+    }
+
+    @Test
+    void testLiquibasePoolMaximumPoolSize() {
+        JHipsterProperties.Liquibase.Pool obj = properties.getLiquibase().getPool();
+        int val = JHipsterDefaults.Liquibase.Pool.maximumPoolSize;
+        assertThat(obj.getMaximumPoolSize()).isEqualTo(val);
+        val++;
+        obj.setMaximumPoolSize(val);
+        assertThat(obj.getMaximumPoolSize()).isEqualTo(val);
+    }
+
+    @Test
+    void testLiquibasePoolConnectionTimeoutInMillis() {
+        JHipsterProperties.Liquibase.Pool obj = properties.getLiquibase().getPool();
+        long val = JHipsterDefaults.Liquibase.Pool.connectionTimeoutInMillis;
+        assertThat(obj.getConnectionTimeoutInMillis()).isEqualTo(val);
+        val++;
+        obj.setConnectionTimeoutInMillis(val);
+        assertThat(obj.getConnectionTimeoutInMillis()).isEqualTo(val);
+    }
+
+    @Test
+    void testLiquibasePoolWarmUp() {
+        JHipsterProperties.Liquibase.Pool obj = properties.getLiquibase().getPool();
+        boolean val = JHipsterDefaults.Liquibase.Pool.warmUp;
+        assertThat(obj.isWarmUp()).isEqualTo(val);
+        val = !val;
+        obj.setWarmUp(val);
+        assertThat(obj.isWarmUp()).isEqualTo(val);
+    }
+
+    @Test
+    void testLiquibaseSlownessThresholdInSeconds() {
+        JHipsterProperties.Liquibase obj = properties.getLiquibase();
+        long val = JHipsterDefaults.Liquibase.slownessThresholdInSeconds;
+        assertThat(obj.getSlownessThresholdInSeconds()).isEqualTo(val);
+        val++;
+        obj.setSlownessThresholdInSeconds(val);
+        assertThat(obj.getSlownessThresholdInSeconds()).isEqualTo(val);
+    }
+
+    @Test
+    void testLiquibaseSkipWhenUnchanged() {
+        JHipsterProperties.Liquibase obj = properties.getLiquibase();
+        boolean val = JHipsterDefaults.Liquibase.skipWhenUnchanged;
+        assertThat(obj.isSkipWhenUnchanged()).isEqualTo(val);
+        val = !val;
+        obj.setSkipWhenUnchanged(val);
+        assertThat(obj.isSkipWhenUnchanged()).isEqualTo(val);
+    }
+
+    @Test
+    void testLiquibaseAsyncStart() {
+        JHipsterProperties.Liquibase obj = properties.getLiquibase();
+        boolean val = JHipsterDefaults.Liquibase.asyncStart;
+        assertThat(obj.isAsyncStart()).isEqualTo(val);
+        val = !val;
+        obj.setAsyncStart(val);
+        assertThat(obj.isAsyncStart()).isEqualTo(val);
+    }
+
     @Test
     void testCacheHazelcastTimeToLiveSeconds() {
         JHipsterProperties.Cache.Hazelcast obj = properties.getCache().getHazelcast();
@@ -788,6 +979,26 @@ class JHipsterPropertiesTest {
         assertThat(obj.getRetentionPeriod()).isEqualTo(val);
     }
 
+    @Test
+    void testMetricsSnapshotRefreshIntervalInMillis() {
+        JHipsterProperties.Metrics obj = properties.getMetrics();
+        long val = JHipsterDefaults.Metrics.snapshotRefreshIntervalInMillis;
+        assertThat(obj.getSnapshotRefreshIntervalInMillis()).isEqualTo(val);
+        val++;
+        obj.setSnapshotRefreshIntervalInMillis(val);
+        assertThat(obj.getSnapshotRefreshIntervalInMillis()).isEqualTo(val);
+    }
+
+    @Test
+    void testMetricsClusterDigestTtlInSeconds() {
+        JHipsterProperties.Metrics obj = properties.getMetrics();
+        long val = JHipsterDefaults.Metrics.clusterDigestTtlInSeconds;
+        assertThat(obj.getClusterDigestTtlInSeconds()).isEqualTo(val);
+        val++;
+        obj.setClusterDigestTtlInSeconds(val);
+        assertThat(obj.getClusterDigestTtlInSeconds()).isEqualTo(val);
+    }
+
     @Test
     void testSecurityContentSecurityPolicy() {
         JHipsterProperties.Security obj = properties.getSecurity();
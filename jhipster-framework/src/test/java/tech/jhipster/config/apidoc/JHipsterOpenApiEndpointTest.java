@@ -0,0 +1,53 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.apidoc;
+
+import org.junit.jupiter.api.Test;
+import org.springdoc.core.SpringDocConfigProperties;
+import org.springdoc.core.SpringDocConfigProperties.GroupConfig;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JHipsterOpenApiEndpointTest {
+
+    @Test
+    void testGroupsListedAgainWhenChanged() {
+        SpringDocConfigProperties properties = new SpringDocConfigProperties();
+        properties.setGroupConfigs(new ArrayList<>(Arrays.asList(group("springdocDefault"), group("management"))));
+        JHipsterOpenApiEndpoint endpoint = new JHipsterOpenApiEndpoint(properties, "app");
+
+        List<Map<String, String>> groups = endpoint.allOpenApi();
+        assertThat(groups).extracting(group -> group.get("description")).containsExactly("app (default)", "app (management)");
+        assertThat(endpoint.allOpenApi()).isSameAs(groups);
+
+        properties.setGroupConfigs(new ArrayList<>(Arrays.asList(group("springdocDefault"), group("admin"))));
+
+        assertThat(endpoint.allOpenApi()).extracting(group -> group.get("group")).containsExactly("springdocDefault", "admin");
+    }
+
+    private static GroupConfig group(String name) {
+        return new GroupConfig(name, null, null, null, null, null, null, null);
+    }
+}
@@ -238,6 +238,53 @@ class AsyncSpringLiquibaseTest {
         assertThat(event1.getThrown()).isEqualTo(exception.toString());
     }
 
+    @Test
+    void testAsyncStartProperty() {
+        environment.setActiveProfiles(SPRING_PROFILE_PRODUCTION);
+        ((MockEnvironment) environment).setProperty(AsyncSpringLiquibase.ASYNC_START_PROPERTY, "true");
+
+        Throwable caught;
+        synchronized (executor) {
+            caught = catchThrowable(() -> {
+                config.afterPropertiesSet();
+                executor.wait(100);
+            });
+            assertThat(caught).isNull();
+        }
+
+        List<Event> events = recorder.play();
+        assertThat(events).hasSize(2);
+        assertThat(events.get(0).getMessage()).isEqualTo(AsyncSpringLiquibase.STARTING_ASYNC_MESSAGE);
+        assertThat(events.get(1).getMessage()).isEqualTo(AsyncSpringLiquibase.STARTED_MESSAGE);
+    }
+
+    @Test
+    void testMigrationStatus() throws Exception {
+        assertThat(config.getMigrationStatus()).isEqualTo(AsyncSpringLiquibase.MigrationStatus.PENDING);
+
+        environment.setActiveProfiles(SPRING_PROFILE_PRODUCTION);
+        config.afterPropertiesSet();
+        assertThat(config.getMigrationStatus()).isEqualTo(AsyncSpringLiquibase.MigrationStatus.COMPLETED);
+    }
+
+    @Test
+    void testMigrationStatusDisabled() throws Exception {
+        environment.setActiveProfiles(SPRING_PROFILE_NO_LIQUIBASE);
+        config.afterPropertiesSet();
+        assertThat(config.getMigrationStatus()).isEqualTo(AsyncSpringLiquibase.MigrationStatus.DISABLED);
+    }
+
+    @Test
+    void testMigrationStatusFailed() throws Exception {
+        environment.setActiveProfiles(SPRING_PROFILE_PRODUCTION);
+        doThrow(exception).when(config).initDb();
+
+        Throwable caught = catchThrowable(() -> config.afterPropertiesSet());
+        assertThat(caught).isSameAs(exception);
+        assertThat(config.getMigrationStatus()).isEqualTo(AsyncSpringLiquibase.MigrationStatus.FAILED);
+        assertThat(config.getMigrationFailure()).isSameAs(exception);
+    }
+
     private class TestAsyncSpringLiquibase
         extends AsyncSpringLiquibase {
 
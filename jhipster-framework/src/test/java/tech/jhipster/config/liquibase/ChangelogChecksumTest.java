@@ -0,0 +1,126 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.liquibase;
+
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChangelogChecksumTest {
+
+    private static final String CHANGELOG = "classpath:liquibase/checksum/master.xml";
+
+    private DriverManagerDataSource dataSource;
+    private SpringLiquibase liquibase;
+
+    @BeforeEach
+    void setup() throws Exception {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:checksum;DB_CLOSE_DELAY=-1");
+        liquibase = new SpringLiquibase();
+        liquibase.setChangeLog(CHANGELOG);
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        execute("CREATE TABLE DATABASECHANGELOG (ID VARCHAR(255) NOT NULL)");
+        execute("INSERT INTO DATABASECHANGELOG (ID) VALUES ('00000000000000')");
+    }
+
+    @AfterEach
+    void teardown() throws Exception {
+        execute("DROP ALL OBJECTS");
+    }
+
+    private void execute(String sql) throws Exception {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    @Test
+    void testComputeIsStable() throws Exception {
+        String checksum = ChangelogChecksum.compute(liquibase, null);
+        assertThat(checksum).hasSize(64).isEqualTo(ChangelogChecksum.compute(liquibase, null));
+
+        liquibase.setContexts("test");
+        assertThat(ChangelogChecksum.compute(liquibase, null)).isNotEqualTo(checksum);
+    }
+
+    @Test
+    void testChangelogDirectory() {
+        assertThat(ChangelogChecksum.changelogDirectory("classpath:config/liquibase/master.xml")).isEqualTo("config/liquibase/");
+        assertThat(ChangelogChecksum.changelogDirectory("classpath*:/config/liquibase/master.xml")).isEqualTo("config/liquibase/");
+        assertThat(ChangelogChecksum.changelogDirectory("master.xml")).isEmpty();
+    }
+
+    @Test
+    void testComputeCoversChangeSets() throws Exception {
+        String checksum = ChangelogChecksum.compute(liquibase, null);
+
+        liquibase.setChangeLog("classpath:liquibase/checksum-other/master.xml");
+        String other = ChangelogChecksum.compute(liquibase, null);
+        assertThat(other).isNotEqualTo(checksum);
+        assertThat(ChangelogChecksum.compute(liquibase, Collections.singletonMap("user.table", "jhi_user")))
+            .isNotEqualTo(other);
+    }
+
+    @Test
+    void testNoChecksumWhenRunAlways() throws Exception {
+        liquibase.setChangeLog("classpath:liquibase/checksum-run-always/master.xml");
+        assertThat(ChangelogChecksum.compute(liquibase, null)).isNull();
+    }
+
+    @Test
+    void testNoChecksumWhenIncludingOutsideOfChangelogDirectory() throws Exception {
+        liquibase.setChangeLog("classpath:liquibase/checksum-outside/master.xml");
+        assertThat(ChangelogChecksum.compute(liquibase, null)).isNull();
+    }
+
+    @Test
+    void testNotAppliedWithoutMarker() throws Exception {
+        assertThat(ChangelogChecksum.isApplied(dataSource, liquibase, ChangelogChecksum.compute(liquibase, null))).isFalse();
+    }
+
+    @Test
+    void testApplied() throws Exception {
+        String checksum = ChangelogChecksum.compute(liquibase, null);
+        ChangelogChecksum.markApplied(dataSource, liquibase, checksum);
+        assertThat(ChangelogChecksum.isApplied(dataSource, liquibase, checksum)).isTrue();
+        assertThat(ChangelogChecksum.isApplied(dataSource, liquibase, "other")).isFalse();
+
+        // Stored again, the marker is updated in place
+        ChangelogChecksum.markApplied(dataSource, liquibase, checksum);
+        assertThat(ChangelogChecksum.isApplied(dataSource, liquibase, checksum)).isTrue();
+    }
+
+    @Test
+    void testNotAppliedAfterRollback() throws Exception {
+        String checksum = ChangelogChecksum.compute(liquibase, null);
+        ChangelogChecksum.markApplied(dataSource, liquibase, checksum);
+        execute("DELETE FROM DATABASECHANGELOG");
+        assertThat(ChangelogChecksum.isApplied(dataSource, liquibase, checksum)).isFalse();
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.liquibase;
+
+import liquibase.exception.LiquibaseException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class LiquibaseMigrationHealthIndicatorTest {
+
+    private AsyncSpringLiquibase liquibase;
+    private LiquibaseMigrationHealthIndicator healthIndicator;
+
+    @BeforeEach
+    void setup() {
+        liquibase = mock(AsyncSpringLiquibase.class);
+        healthIndicator = new LiquibaseMigrationHealthIndicator(liquibase);
+    }
+
+    @Test
+    void testPending() {
+        doReturn(AsyncSpringLiquibase.MigrationStatus.PENDING).when(liquibase).getMigrationStatus();
+        assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+    }
+
+    @Test
+    void testRunning() {
+        doReturn(AsyncSpringLiquibase.MigrationStatus.RUNNING).when(liquibase).getMigrationStatus();
+        assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+    }
+
+    @Test
+    void testCompleted() {
+        doReturn(AsyncSpringLiquibase.MigrationStatus.COMPLETED).when(liquibase).getMigrationStatus();
+        doReturn(1234L).when(liquibase).getMigrationTimeMillis();
+        Health health = healthIndicator.health();
+        assertThat(health.getStatus()).isEqualTo(Status.UP);
+        assertThat(health.getDetails()).containsEntry("durationMs", 1234L);
+    }
+
+    @Test
+    void testDisabled() {
+        doReturn(AsyncSpringLiquibase.MigrationStatus.DISABLED).when(liquibase).getMigrationStatus();
+        assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.UP);
+    }
+
+    @Test
+    void testFailed() {
+        doReturn(AsyncSpringLiquibase.MigrationStatus.FAILED).when(liquibase).getMigrationStatus();
+        doReturn(new LiquibaseException("Eek")).when(liquibase).getMigrationFailure();
+        Health health = healthIndicator.health();
+        assertThat(health.getStatus()).isEqualTo(Status.DOWN);
+        assertThat(health.getDetails()).containsEntry("error", "liquibase.exception.LiquibaseException: Eek");
+    }
+}
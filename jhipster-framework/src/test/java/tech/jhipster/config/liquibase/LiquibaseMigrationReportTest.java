@@ -0,0 +1,124 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.liquibase;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.sql.Connection;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static tech.jhipster.config.JHipsterConstants.SPRING_PROFILE_PRODUCTION;
+
+class LiquibaseMigrationReportTest {
+
+    private DriverManagerDataSource dataSource;
+    private MockEnvironment environment;
+
+    @BeforeEach
+    void setup() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:migration;DB_CLOSE_DELAY=-1");
+        environment = new MockEnvironment();
+        environment.setActiveProfiles(SPRING_PROFILE_PRODUCTION);
+    }
+
+    @AfterEach
+    void teardown() throws Exception {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+    }
+
+    private AsyncSpringLiquibase createLiquibase() {
+        AsyncSpringLiquibase liquibase = new AsyncSpringLiquibase(new SyncTaskExecutor(), environment);
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog("classpath:liquibase/checksum/master.xml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        return liquibase;
+    }
+
+    @Test
+    void testReport() throws Exception {
+        AsyncSpringLiquibase liquibase = createLiquibase();
+        liquibase.afterPropertiesSet();
+
+        LiquibaseMigrationReport report = liquibase.getMigrationReport();
+        assertThat(report).isNotNull();
+        assertThat(report.isSkipped()).isFalse();
+        assertThat(report.getChangeSets()).hasSize(1);
+        LiquibaseMigrationReport.ChangeSetTiming changeSet = report.getChangeSets().get(0);
+        assertThat(changeSet.getId()).isEqualTo("00000000000000");
+        assertThat(changeSet.getAuthor()).isEqualTo("jhipster");
+        assertThat(changeSet.getExecType()).isEqualTo("EXECUTED");
+        assertThat(report.getChecksumTime()).isZero();
+        assertThat(report.getTotalTime()).isGreaterThanOrEqualTo(report.getConnectionTime().plus(report.getParseTime())
+            .plus(report.getLockWaitTime()).plus(report.getUpdateTime()));
+        assertThat(report.getSlowestChangeSets(10)).containsExactly(changeSet);
+    }
+
+    @Test
+    void testReportWhenUnchanged() throws Exception {
+        environment.setProperty(AsyncSpringLiquibase.SKIP_WHEN_UNCHANGED_PROPERTY, "true");
+        createLiquibase().afterPropertiesSet();
+
+        AsyncSpringLiquibase liquibase = createLiquibase();
+        liquibase.afterPropertiesSet();
+
+        LiquibaseMigrationReport report = liquibase.getMigrationReport();
+        assertThat(report.isSkipped()).isTrue();
+        assertThat(report.getChangeSets()).isEmpty();
+        // The checksum is timed as its own phase, the update not connecting to the database
+        assertThat(report.getChecksumTime()).isPositive();
+        assertThat(report.getConnectionTime()).isZero();
+        assertThat(report.getChecksumTime()).isGreaterThan(report.getUpdateTime());
+        assertThat(liquibase.getMigrationStatus()).isEqualTo(AsyncSpringLiquibase.MigrationStatus.COMPLETED);
+    }
+
+    @Test
+    void testMetrics() throws Exception {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        AsyncSpringLiquibase liquibase = createLiquibase();
+        new LiquibaseMigrationMetrics(liquibase).bindTo(registry);
+        liquibase.afterPropertiesSet();
+
+        assertThat(registry.get("jhipster.liquibase.phase").tag("phase", "total").timer().count()).isEqualTo(1);
+        assertThat(registry.get("jhipster.liquibase.phase").timers()).hasSize(6);
+        assertThat(registry.get("jhipster.liquibase.changeset").tag("exec.type", "EXECUTED").timer().count()).isEqualTo(1);
+        assertThat(registry.get("jhipster.liquibase.changeset").timer().getId().getTag("changeset")).isNull();
+    }
+
+    @Test
+    void testListenerAfterMigration() throws Exception {
+        AsyncSpringLiquibase liquibase = createLiquibase();
+        liquibase.afterPropertiesSet();
+
+        LiquibaseMigrationReport[] notified = new LiquibaseMigrationReport[1];
+        liquibase.addMigrationListener(report -> notified[0] = report);
+        assertThat(notified[0]).isSameAs(liquibase.getMigrationReport());
+    }
+}
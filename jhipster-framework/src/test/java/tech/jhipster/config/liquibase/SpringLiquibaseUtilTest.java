@@ -26,6 +26,8 @@ import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
 import org.springframework.boot.autoconfigure.liquibase.DataSourceClosingSpringLiquibase;
 import org.springframework.boot.autoconfigure.liquibase.LiquibaseProperties;
 import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.mock.env.MockEnvironment;
+import tech.jhipster.config.JHipsterProperties;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.InstanceOfAssertFactories.type;
@@ -132,4 +134,70 @@ class SpringLiquibaseUtilTest {
             .hasFieldOrPropertyWithValue("password", "password");
     }
 
+    @Test
+    void createSpringLiquibaseWithPoolSettings() {
+        DataSource liquibaseDatasource = null;
+        LiquibaseProperties liquibaseProperties = new LiquibaseProperties();
+        liquibaseProperties.setUrl("jdbc:h2:mem:liquibase");
+        liquibaseProperties.setUser("sa");
+        liquibaseProperties.setPassword("password");
+        DataSource normalDataSource = null;
+        DataSourceProperties dataSourceProperties = new DataSourceProperties();
+        JHipsterProperties.Liquibase.Pool pool = new JHipsterProperties.Liquibase.Pool();
+        pool.setMaximumPoolSize(3);
+        pool.setConnectionTimeoutInMillis(5000);
+
+        SpringLiquibase liquibase = SpringLiquibaseUtil.createSpringLiquibase(liquibaseDatasource, liquibaseProperties, normalDataSource, dataSourceProperties, pool);
+        assertThat(liquibase.getDataSource())
+            .asInstanceOf(type(HikariDataSource.class))
+            .hasFieldOrPropertyWithValue("poolName", "liquibase")
+            .hasFieldOrPropertyWithValue("maximumPoolSize", 3)
+            .hasFieldOrPropertyWithValue("minimumIdle", 0)
+            .hasFieldOrPropertyWithValue("connectionTimeout", 5000L);
+    }
+
+    @Test
+    void createAsyncSpringLiquibaseWithPoolSettingsFromEnvironment() {
+        MockEnvironment env = new MockEnvironment();
+        env.setProperty("jhipster.liquibase.pool.maximum-pool-size", "4");
+        LiquibaseProperties liquibaseProperties = new LiquibaseProperties();
+        liquibaseProperties.setUrl("jdbc:h2:mem:liquibase");
+        liquibaseProperties.setUser("sa");
+        liquibaseProperties.setPassword("password");
+        DataSourceProperties dataSourceProperties = new DataSourceProperties();
+
+        AsyncSpringLiquibase liquibase = SpringLiquibaseUtil.createAsyncSpringLiquibase(env, null, null, liquibaseProperties, null, dataSourceProperties);
+        assertThat(liquibase.getDataSource())
+            .asInstanceOf(type(HikariDataSource.class))
+            .hasFieldOrPropertyWithValue("maximumPoolSize", 4);
+    }
+
+    @Test
+    void createSpringLiquibaseReusingNormalDataSource() {
+        LiquibaseProperties liquibaseProperties = new LiquibaseProperties();
+        liquibaseProperties.setUrl("jdbc:h2:mem:normal");
+        liquibaseProperties.setUser("sa");
+        DataSource normalDataSource = DataSourceBuilder.create().url("jdbc:h2:mem:normal").username("sa").build();
+        DataSourceProperties dataSourceProperties = new DataSourceProperties();
+        dataSourceProperties.setUrl("jdbc:h2:mem:normal");
+        dataSourceProperties.setUsername("sa");
+
+        SpringLiquibase liquibase = SpringLiquibaseUtil.createSpringLiquibase(null, liquibaseProperties, normalDataSource, dataSourceProperties);
+        assertThat(liquibase).isNotInstanceOf(DataSourceClosingSpringLiquibase.class)
+            .extracting(SpringLiquibase::getDataSource).isEqualTo(normalDataSource);
+    }
+
+    @Test
+    void createSpringLiquibaseNotReusingNormalDataSourceWithOtherUser() {
+        LiquibaseProperties liquibaseProperties = new LiquibaseProperties();
+        liquibaseProperties.setUser("admin");
+        DataSource normalDataSource = DataSourceBuilder.create().url("jdbc:h2:mem:normal").username("sa").build();
+        DataSourceProperties dataSourceProperties = new DataSourceProperties();
+        dataSourceProperties.setUrl("jdbc:h2:mem:normal");
+        dataSourceProperties.setUsername("sa");
+
+        SpringLiquibase liquibase = SpringLiquibaseUtil.createSpringLiquibase(null, liquibaseProperties, normalDataSource, dataSourceProperties);
+        assertThat(liquibase).isInstanceOf(DataSourceClosingSpringLiquibase.class)
+            .extracting(SpringLiquibase::getDataSource).isNotEqualTo(normalDataSource);
+    }
 }
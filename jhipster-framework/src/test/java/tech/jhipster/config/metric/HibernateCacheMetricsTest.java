@@ -0,0 +1,218 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.metric;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.CollectionStatistics;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HibernateCacheMetricsTest {
+
+    private static final String USER_REGION = "tech.jhipster.domain.User";
+    private static final String AUTHORITIES_REGION = "tech.jhipster.domain.User.authorities";
+
+    private Statistics statistics;
+    private HibernateCacheMetrics hibernateCacheMetrics;
+
+    @BeforeEach
+    void setup() {
+        statistics = mock(Statistics.class);
+        when(statistics.isStatisticsEnabled()).thenReturn(true);
+        when(statistics.getEntityNames()).thenReturn(new String[]{USER_REGION, "tech.jhipster.domain.NotCached"});
+        EntityStatistics userStatistics = mock(EntityStatistics.class);
+        when(userStatistics.getCacheRegionName()).thenReturn(USER_REGION);
+        when(statistics.getEntityStatistics(USER_REGION)).thenReturn(userStatistics);
+        when(statistics.getEntityStatistics("tech.jhipster.domain.NotCached")).thenReturn(mock(EntityStatistics.class));
+        when(statistics.getCollectionRoleNames()).thenReturn(new String[]{AUTHORITIES_REGION});
+        CollectionStatistics authoritiesStatistics = mock(CollectionStatistics.class);
+        when(authoritiesStatistics.getCacheRegionName()).thenReturn(AUTHORITIES_REGION);
+        when(statistics.getCollectionStatistics(AUTHORITIES_REGION)).thenReturn(authoritiesStatistics);
+
+        when(statistics.getSecondLevelCacheRegionNames()).thenReturn(new String[]{USER_REGION, AUTHORITIES_REGION});
+        CacheRegionStatistics userRegion = region(30, 10, 10, 8);
+        when(statistics.getCacheRegionStatistics(USER_REGION)).thenReturn(userRegion);
+        CacheRegionStatistics authoritiesRegion = region(5, 0, 2, 3);
+        when(statistics.getCacheRegionStatistics(AUTHORITIES_REGION)).thenReturn(authoritiesRegion);
+        when(statistics.getSecondLevelCacheHitCount()).thenReturn(35L);
+        when(statistics.getSecondLevelCacheMissCount()).thenReturn(10L);
+        when(statistics.getSecondLevelCachePutCount()).thenReturn(12L);
+        when(statistics.getQueryCacheHitCount()).thenReturn(1L);
+        when(statistics.getQueryCacheMissCount()).thenReturn(3L);
+        when(statistics.getQueryCachePutCount()).thenReturn(3L);
+
+        hibernateCacheMetrics = new HibernateCacheMetrics(statistics);
+    }
+
+    @Test
+    void testRegions() {
+        Map<String, Map<String, Number>> cache = hibernateCacheMetrics.cacheMetrics();
+
+        assertThat(cache).containsOnlyKeys(USER_REGION, AUTHORITIES_REGION, HibernateCacheMetrics.SECOND_LEVEL_CACHE,
+            HibernateCacheMetrics.QUERY_CACHE);
+        assertThat(cache.get(USER_REGION))
+            .containsEntry("hibernate.second.level.cache.hit", 30L)
+            .containsEntry("hibernate.second.level.cache.miss", 10L)
+            .containsEntry("hibernate.second.level.cache.put", 10L)
+            .containsEntry("hibernate.second.level.cache.hitRatio", 0.75)
+            .containsEntry("hibernate.second.level.cache.elementCountInMemory", 8L);
+        assertThat(cache.get(AUTHORITIES_REGION)).containsEntry("hibernate.second.level.cache.hitRatio", 1.0);
+    }
+
+    @Test
+    void testTotals() {
+        Map<String, Map<String, Number>> cache = hibernateCacheMetrics.cacheMetrics();
+
+        assertThat(cache.get(HibernateCacheMetrics.SECOND_LEVEL_CACHE))
+            .containsEntry("hibernate.second.level.cache.hit", 35L)
+            .containsEntry("hibernate.second.level.cache.entities", 8L)
+            .containsEntry("hibernate.second.level.cache.collections", 3L);
+        assertThat(cache.get(HibernateCacheMetrics.QUERY_CACHE))
+            .containsEntry("hibernate.query.cache.hit", 1L)
+            .containsEntry("hibernate.query.cache.miss", 3L)
+            .containsEntry("hibernate.query.cache.put", 3L)
+            .containsEntry("hibernate.query.cache.hitRatio", 0.25);
+    }
+
+    @Test
+    void testStatisticsDisabled() {
+        when(statistics.isStatisticsEnabled()).thenReturn(false);
+
+        assertThat(hibernateCacheMetrics.cacheMetrics()).isEmpty();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testEndpointCacheSection() {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("hibernateCacheMetrics", hibernateCacheMetrics);
+        JHipsterMetricsEndpoint endpoint = new JHipsterMetricsEndpoint(new SimpleMeterRegistry());
+        endpoint.setHibernateCacheMetrics(beanFactory.getBeanProvider(HibernateCacheMetrics.class));
+
+        Map<String, Map<String, Number>> cache = endpoint.allMetrics().get("cache");
+
+        assertThat(cache).containsKeys(USER_REGION, HibernateCacheMetrics.QUERY_CACHE);
+    }
+
+    @Test
+    void testEndpointWithoutHibernateCacheMetrics() {
+        JHipsterMetricsEndpoint endpoint = new JHipsterMetricsEndpoint(new SimpleMeterRegistry());
+        endpoint.setHibernateCacheMetrics(new StaticListableBeanFactory().getBeanProvider(HibernateCacheMetrics.class));
+
+        assertThat(endpoint.allMetrics().get("cache")).doesNotContainKey(HibernateCacheMetrics.QUERY_CACHE);
+    }
+
+    @Test
+    void testJCacheEvictions() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName userStatistics = jCacheStatistics(USER_REGION);
+        ObjectName authoritiesStatistics = jCacheStatistics(AUTHORITIES_REGION);
+        server.registerMBean(evictions(4), userStatistics);
+        try {
+            assertThat(hibernateCacheMetrics.cacheMetrics().get(USER_REGION))
+                .containsEntry("hibernate.second.level.cache.evictions", 4L);
+
+            // The MBeans are not looked up again while the regions are unchanged
+            server.registerMBean(evictions(2), authoritiesStatistics);
+            assertThat(hibernateCacheMetrics.cacheMetrics().get(AUTHORITIES_REGION))
+                .doesNotContainKey("hibernate.second.level.cache.evictions");
+
+            // They are once one of them is unregistered
+            server.unregisterMBean(userStatistics);
+            hibernateCacheMetrics.cacheMetrics();
+            assertThat(hibernateCacheMetrics.cacheMetrics().get(AUTHORITIES_REGION))
+                .containsEntry("hibernate.second.level.cache.evictions", 2L);
+        } finally {
+            for (ObjectName name : new ObjectName[]{userStatistics, authoritiesStatistics}) {
+                if (server.isRegistered(name)) {
+                    server.unregisterMBean(name);
+                }
+            }
+        }
+    }
+
+    private static ObjectName jCacheStatistics(String cache) throws Exception {
+        return new ObjectName("javax.cache:type=CacheStatistics,CacheManager=test,Cache=" + ObjectName.quote(cache));
+    }
+
+    private static DynamicMBean evictions(long evictions) {
+        return new DynamicMBean() {
+            @Override
+            public Object getAttribute(String attribute) throws AttributeNotFoundException {
+                if (!"CacheEvictions".equals(attribute)) {
+                    throw new AttributeNotFoundException(attribute);
+                }
+                return evictions;
+            }
+
+            @Override
+            public void setAttribute(Attribute attribute) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public AttributeList getAttributes(String[] attributes) {
+                return new AttributeList();
+            }
+
+            @Override
+            public AttributeList setAttributes(AttributeList attributes) {
+                return new AttributeList();
+            }
+
+            @Override
+            public Object invoke(String actionName, Object[] params, String[] signature) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public MBeanInfo getMBeanInfo() {
+                return new MBeanInfo(getClass().getName(), "JCache statistics", null, null, null, null);
+            }
+        };
+    }
+
+    private static CacheRegionStatistics region(long hits, long misses, long puts, long elementCount) {
+        CacheRegionStatistics region = mock(CacheRegionStatistics.class);
+        when(region.getHitCount()).thenReturn(hits);
+        when(region.getMissCount()).thenReturn(misses);
+        when(region.getPutCount()).thenReturn(puts);
+        when(region.getElementCountInMemory()).thenReturn(elementCount);
+        return region;
+    }
+}
@@ -0,0 +1,278 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.metric;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JHipsterMetricsEndpointTest {
+
+    private static final Duration[] SLOS = {Duration.ofMillis(10), Duration.ofMillis(25), Duration.ofMillis(50),
+        Duration.ofMillis(75), Duration.ofMillis(100), Duration.ofMillis(1000), Duration.ofMillis(10000)};
+
+    private MeterRegistry meterRegistry;
+    private JHipsterMetricsEndpoint endpoint;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        endpoint = new JHipsterMetricsEndpoint(meterRegistry);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testHttpServerRequests() {
+        record("/api/users", "GET", "200", 10, 30);
+        record("/api/users", "GET", "404", 20);
+        record("/api/users", "POST", "201", 40);
+        record("/api/users", "PATCH", "200", 50);
+        record("/api/other", "OPTIONS", "200", 5);
+
+        Map<String, Map> httpRequests = endpoint.allMetrics().get("http.server.requests");
+
+        Map<String, Map<String, Number>> perCode = httpRequests.get("percode");
+        assertThat(perCode).containsOnlyKeys("200", "201", "404");
+        assertThat(perCode.get("200")).containsEntry("count", 4L).containsEntry("max", 50.0)
+            .containsEntry("mean", (10 + 30 + 50 + 5) / 4.0);
+        assertThat(perCode.get("404")).containsEntry("count", 1L).containsEntry("max", 20.0);
+        assertThat(httpRequests.get("all")).containsEntry("count", 6L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testServices() {
+        record("/api/users", "GET", "200", 10, 30);
+        record("/api/users", "GET", "404", 20);
+        record("/api/users", "POST", "201", 40);
+        record("/api/users", "PATCH", "200", 50);
+        record("/api/other", "OPTIONS", "200", 5);
+
+        Map<String, Map> services = endpoint.allMetrics().get("services");
+
+        assertThat(services).containsOnlyKeys("/api/users", "/api/other");
+        assertThat((Map<String, Map>) services.get("/api/other")).isEmpty();
+        Map<String, Map<String, Number>> users = services.get("/api/users");
+        assertThat(users).containsOnlyKeys("GET", "POST");
+        assertThat(users.get("GET")).containsEntry("count", 3L).containsEntry("max", 30.0).containsEntry("mean", 20.0)
+            .doesNotContainKeys("0.5", "0.95", "0.99");
+        assertThat(users.get("POST")).containsEntry("count", 1L).containsEntry("mean", 40.0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testPercentiles() {
+        Timer ok = Timer.builder("http.server.requests")
+            .tags("uri", "/api/users", "method", "GET", "status", "200")
+            .serviceLevelObjectives(SLOS)
+            .register(meterRegistry);
+        Timer notFound = Timer.builder("http.server.requests")
+            .tags("uri", "/api/users", "method", "GET", "status", "404")
+            .serviceLevelObjectives(SLOS)
+            .register(meterRegistry);
+        for (int i = 1; i <= 99; i++) {
+            ok.record(i, TimeUnit.MILLISECONDS);
+        }
+        notFound.record(5000, TimeUnit.MILLISECONDS);
+
+        Map<String, Map> results = endpoint.allMetrics();
+
+        Map<String, Number> get = (Map<String, Number>) ((Map<String, Map>) results.get("services").get("/api/users")).get("GET");
+        assertThat(get).containsEntry("count", 100L).containsKeys("0.5", "0.95", "0.99");
+        assertThat(get.get("0.5").doubleValue()).isBetween(40.0, 60.0);
+        assertThat(get.get("0.95").doubleValue()).isBetween(85.0, 110.0);
+        assertThat(get.get("0.99").doubleValue()).isBetween(85.0, 5500.0);
+
+        Map<String, Number> notFoundResults = (Map<String, Number>) ((Map<String, Map>) results.get("http.server.requests").get("percode")).get("404");
+        assertThat(notFoundResults.get("0.5").doubleValue()).isBetween(4000.0, 6000.0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testManyMeters() {
+        for (int i = 0; i < 2500; i++) {
+            for (String method : new String[]{"GET", "POST", "PUT", "DELETE"}) {
+                record("/api/entity-" + i, method, "200", 1);
+            }
+        }
+
+        Map<String, Map> results = endpoint.allMetrics();
+
+        assertThat(results.get("services")).hasSize(2500);
+        assertThat((Map<String, Map>) results.get("services").get("/api/entity-42")).containsOnlyKeys("GET", "POST", "PUT", "DELETE");
+        assertThat((Map<String, Number>) results.get("http.server.requests").get("all")).containsEntry("count", 10000L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSnapshot() {
+        record("/api/users", "GET", "200", 10);
+        endpoint.refreshSnapshot();
+        record("/api/users", "GET", "200", 10);
+
+        Map<String, Map> snapshot = endpoint.allMetrics();
+        assertThat(endpoint.allMetrics()).isSameAs(snapshot);
+        assertThat((Map<String, Number>) snapshot.get("http.server.requests").get("all")).containsEntry("count", 1L);
+        assertThatThrownBy(() -> snapshot.put("other", new HashMap<>())).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> snapshot.get("services").clear()).isInstanceOf(UnsupportedOperationException.class);
+
+        endpoint.refreshSnapshot();
+        assertThat((Map<String, Number>) endpoint.allMetrics().get("http.server.requests").get("all")).containsEntry("count", 2L);
+    }
+
+    @Test
+    void testSnapshotRefresher() throws InterruptedException {
+        JHipsterMetricsSnapshotRefresher refresher = new JHipsterMetricsSnapshotRefresher(endpoint, Duration.ofMillis(10));
+        refresher.start();
+        try {
+            assertThat(refresher.isRunning()).isTrue();
+            long deadline = System.currentTimeMillis() + 5000;
+            while (endpoint.allMetrics() != endpoint.allMetrics() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(endpoint.allMetrics()).isSameAs(endpoint.allMetrics());
+        } finally {
+            refresher.stop();
+        }
+        assertThat(refresher.isRunning()).isFalse();
+    }
+
+    @Test
+    void testSnapshotRefresherIdle() {
+        AtomicInteger refreshes = new AtomicInteger();
+        endpoint.addSnapshotListener(snapshot -> {
+            if (snapshot != null) {
+                refreshes.incrementAndGet();
+            }
+        });
+        JHipsterMetricsSnapshotRefresher refresher = new JHipsterMetricsSnapshotRefresher(endpoint, Duration.ofMinutes(1));
+
+        refresher.refresh();
+        assertThat(refreshes.get()).isZero();
+
+        endpoint.allMetrics();
+        for (int i = 0; i < 2 * JHipsterMetricsSnapshotRefresher.IDLE_REFRESHES; i++) {
+            refresher.refresh();
+        }
+        assertThat(refreshes.get()).isEqualTo(JHipsterMetricsSnapshotRefresher.IDLE_REFRESHES + 1);
+        assertThat(endpoint.allMetrics()).isNotSameAs(endpoint.allMetrics());
+
+        refresher.refresh();
+        assertThat(refreshes.get()).isEqualTo(JHipsterMetricsSnapshotRefresher.IDLE_REFRESHES + 2);
+    }
+
+    @Test
+    void testSnapshotRefresherDisabled() {
+        JHipsterMetricsSnapshotRefresher refresher = new JHipsterMetricsSnapshotRefresher(endpoint, Duration.ZERO);
+        refresher.start();
+        assertThat(refresher.isRunning()).isFalse();
+        assertThat(endpoint.allMetrics()).isNotSameAs(endpoint.allMetrics());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCluster() {
+        MetricsDigestTransport transport = new InMemoryMetricsDigestTransport();
+        endpoint.setDigestTransport(transport, "node1", Duration.ofMinutes(1));
+        MeterRegistry otherRegistry = new SimpleMeterRegistry();
+        JHipsterMetricsEndpoint otherEndpoint = new JHipsterMetricsEndpoint(otherRegistry);
+        otherEndpoint.setDigestTransport(transport, "node2", Duration.ofMinutes(1));
+
+        record("/api/users", "GET", "200", 10, 30);
+        record(otherRegistry, "/api/users", "GET", "200", 50);
+        record(otherRegistry, "/api/users", "GET", "500", 20);
+        otherEndpoint.allMetrics();
+
+        Map<String, Map> cluster = endpoint.allMetrics().get("cluster");
+
+        Map<String, Map> httpRequests = cluster.get("http.server.requests");
+        assertThat(httpRequests.get("all")).containsEntry("count", 4L);
+        Map<String, Map<String, Number>> perCode = httpRequests.get("percode");
+        assertThat(perCode.get("200")).containsEntry("count", 3L).containsEntry("max", 50.0)
+            .containsEntry("mean", 30.0);
+        assertThat(perCode.get("500")).containsEntry("count", 1L);
+        Map<String, Map<String, Number>> users = (Map<String, Map<String, Number>>) cluster.get("services").get("/api/users");
+        assertThat(users.get("GET")).containsEntry("count", 4L).containsEntry("max", 50.0);
+
+        Map<String, Map> nodes = cluster.get("nodes");
+        assertThat(nodes).containsOnlyKeys("node1", "node2");
+        assertThat((Map<String, Map>) nodes.get("node1").get("http.server.requests")).extractingByKey("all")
+            .isEqualTo(Collections.singletonMap("count", 2L));
+        assertThat((Map<String, Number>) endpoint.allMetrics().get("http.server.requests").get("all")).containsEntry("count", 2L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testClusterIgnoresStaleDigests() {
+        MetricsDigestTransport transport = new InMemoryMetricsDigestTransport();
+        transport.publish(MetricsDigest.of("stale", System.currentTimeMillis() - 120_000, Collections.emptyList()));
+        endpoint.setDigestTransport(transport, "node1", Duration.ofMinutes(1));
+
+        Map<String, Map> cluster = endpoint.allMetrics().get("cluster");
+
+        assertThat((Map<String, Map>) cluster.get("nodes")).containsOnlyKeys("node1");
+    }
+
+    @Test
+    void testWithoutCluster() {
+        assertThat(endpoint.allMetrics()).doesNotContainKey("cluster");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSlowest() {
+        SlowSampleReservoir slowRequests = new SlowSampleReservoir();
+        SlowSampleReservoir slowQueries = new SlowSampleReservoir();
+        slowRequests.record(() -> "GET /api/users", TimeUnit.MILLISECONDS.toNanos(250));
+        slowQueries.record(() -> "select * from jhi_user", TimeUnit.MILLISECONDS.toNanos(200));
+
+        Map<String, Map> metrics = new JHipsterMetricsEndpoint(meterRegistry, slowRequests, slowQueries).allMetrics();
+
+        Map<String, List<Map<String, Object>>> slowest = metrics.get("slowest");
+        assertThat(slowest.get("requests")).extracting(sample -> sample.get("name")).containsExactly("GET /api/users");
+        assertThat(slowest.get("queries")).extracting(sample -> sample.get("duration")).containsExactly(200.0);
+    }
+
+    private void record(String uri, String method, String status, long... durations) {
+        record(meterRegistry, uri, method, status, durations);
+    }
+
+    private static void record(MeterRegistry meterRegistry, String uri, String method, String status, long... durations) {
+        Timer timer = Timer.builder("http.server.requests")
+            .tags("uri", uri, "method", method, "status", status)
+            .register(meterRegistry);
+        for (long duration : durations) {
+            timer.record(duration, TimeUnit.MILLISECONDS);
+        }
+    }
+}
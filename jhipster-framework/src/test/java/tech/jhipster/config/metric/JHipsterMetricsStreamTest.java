@@ -0,0 +1,249 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.metric;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MockClock;
+import io.micrometer.core.instrument.simple.SimpleConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class JHipsterMetricsStreamTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private JHipsterMetricsEndpoint endpoint;
+    private JHipsterMetricsStream stream;
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry(SimpleConfig.DEFAULT, new MockClock());
+        endpoint = new JHipsterMetricsEndpoint(meterRegistry);
+        objectMapper = new ObjectMapper();
+        stream = new JHipsterMetricsStream(endpoint, objectMapper, Runnable::run);
+    }
+
+    @Test
+    void testDiff() {
+        Map<String, Object> previous = new HashMap<>();
+        previous.put("same", 1);
+        previous.put("changed", 1);
+        previous.put("removed", 1);
+        previous.put("nested", map("same", 1, "changed", 1));
+        Map<String, Object> current = new HashMap<>();
+        current.put("same", 1);
+        current.put("changed", 2);
+        current.put("added", 3);
+        current.put("nested", map("same", 1, "changed", 2));
+
+        Map<String, Object> delta = JHipsterMetricsStream.diff(previous, current);
+
+        assertThat(delta).containsOnly(
+            entry("changed", 2),
+            entry("added", 3),
+            entry("removed", null),
+            entry("nested", map("changed", 2))
+        );
+    }
+
+    @Test
+    void testDiffUnchanged() {
+        assertThat(JHipsterMetricsStream.diff(map("a", map("b", 1)), map("a", map("b", 1)))).isEmpty();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSnapshotThenDeltas() throws Exception {
+        AtomicInteger value = new AtomicInteger(1);
+        Gauge.builder("process.test", value, AtomicInteger::get).register(meterRegistry);
+        List<String[]> events = new ArrayList<>();
+        endpoint.refreshSnapshot();
+        stream.subscribe((event, data) -> events.add(new String[]{event, data}));
+
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0)[0]).isEqualTo(JHipsterMetricsStream.SNAPSHOT_EVENT);
+        assertThat(objectMapper.readValue(events.get(0)[1], Map.class)).containsKeys("jvm", "services", "processMetrics");
+
+        endpoint.refreshSnapshot();
+        assertThat(events).hasSize(1);
+
+        value.set(5);
+        endpoint.refreshSnapshot();
+
+        assertThat(events).hasSize(2);
+        assertThat(events.get(1)[0]).isEqualTo(JHipsterMetricsStream.DELTA_EVENT);
+        assertThat(objectMapper.readValue(events.get(1)[1], Map.class))
+            .containsOnly(entry("processMetrics", map("process.test", 5.0)));
+    }
+
+    @Test
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    void testCancelledAndFailingSubscribersRemoved() {
+        List<String> events = new ArrayList<>();
+        JHipsterMetricsStream.Subscription subscription = stream.subscribe((event, data) -> events.add(event));
+        stream.subscribe((event, data) -> {
+            if (JHipsterMetricsStream.DELTA_EVENT.equals(event)) {
+                throw new IllegalStateException("Disconnected");
+            }
+        });
+        assertThat(stream.getSubscriberCount()).isEqualTo(2);
+
+        subscription.cancel();
+        stream.publish((Map) map("changed", map("value", 1)));
+
+        assertThat(stream.getSubscriberCount()).isZero();
+        assertThat(events).containsExactly(JHipsterMetricsStream.SNAPSHOT_EVENT);
+    }
+
+    @Test
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    void testSlowSubscriberReceivesSnapshot() throws Exception {
+        AtomicBoolean ready = new AtomicBoolean();
+        List<String> events = new ArrayList<>();
+        JHipsterMetricsStream.Subscription subscription = stream.subscribe((event, data) -> events.add(event), ready::get);
+        for (int i = 0; i < JHipsterMetricsStream.MAX_PENDING_EVENTS + 2; i++) {
+            stream.publish((Map) map("value", i));
+        }
+        assertThat(events).isEmpty();
+
+        ready.set(true);
+        subscription.resume();
+
+        // The initial snapshot was pending too
+        assertThat(events).containsExactly(JHipsterMetricsStream.SNAPSHOT_EVENT, JHipsterMetricsStream.DELTA_EVENT,
+            JHipsterMetricsStream.DELTA_EVENT);
+    }
+
+    @Test
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    void testSubscriberReceivesLastPublishedSnapshot() throws Exception {
+        stream.publish((Map) map("value", 1));
+        List<String> data = new ArrayList<>();
+
+        stream.subscribe((event, json) -> data.add(json));
+
+        assertThat(objectMapper.readValue(data.get(0), Map.class)).containsOnly(entry("value", 1));
+    }
+
+    @Test
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    void testSnapshotEncodedOncePerRefresh() throws Exception {
+        stream.publish((Map) map("value", 1));
+        List<String> data = new ArrayList<>();
+
+        stream.subscribe((event, json) -> data.add(json));
+        stream.subscribe((event, json) -> data.add(json));
+        stream.publish((Map) map("value", 2));
+        stream.subscribe((event, json) -> data.add(json));
+
+        assertThat(data.get(1)).isSameAs(data.get(0));
+        assertThat(objectMapper.readValue(data.get(data.size() - 1), Map.class)).containsOnly(entry("value", 2));
+    }
+
+    @Test
+    void testDefaultExecutorThreadsShared() throws Exception {
+        JHipsterMetricsStream defaultStream = new JHipsterMetricsStream(endpoint, objectMapper);
+        int subscribers = JHipsterMetricsStream.SENDER_THREADS * 4;
+        CountDownLatch sent = new CountDownLatch(subscribers);
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        for (int i = 0; i < subscribers; i++) {
+            defaultStream.subscribe((event, json) -> {
+                threads.add(Thread.currentThread().getName());
+                sent.countDown();
+            });
+        }
+
+        assertThat(sent.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(threads).hasSizeLessThanOrEqualTo(JHipsterMetricsStream.SENDER_THREADS)
+            .allMatch(name -> name.startsWith("jhimetricsstream-"));
+    }
+
+    @Test
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    void testSubscriberReadsMetricsOnceSnapshotDropped() throws Exception {
+        stream.publish((Map) map("value", 1));
+        stream.publish(null);
+        List<String> data = new ArrayList<>();
+
+        stream.subscribe((event, json) -> data.add(json));
+
+        assertThat(objectMapper.readValue(data.get(0), Map.class)).doesNotContainKey("value")
+            .containsKey("http.server.requests");
+    }
+
+    @Test
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    void testReactiveEventsOnDemand() {
+        List<String> events = new ArrayList<>();
+        BaseSubscriber<ServerSentEvent<String>> subscriber = new BaseSubscriber<ServerSentEvent<String>>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                request(1);
+            }
+
+            @Override
+            protected void hookOnNext(ServerSentEvent<String> event) {
+                events.add(event.event());
+            }
+        };
+        new JHipsterReactiveMetricsStreamEndpoint(stream).stream().subscribe(subscriber);
+        assertThat(events).containsExactly(JHipsterMetricsStream.SNAPSHOT_EVENT);
+
+        for (int i = 0; i < JHipsterMetricsStream.MAX_PENDING_EVENTS + 2; i++) {
+            stream.publish((Map) map("value", i));
+        }
+        assertThat(events).hasSize(1);
+
+        subscriber.request(10);
+        assertThat(events).containsExactly(JHipsterMetricsStream.SNAPSHOT_EVENT, JHipsterMetricsStream.SNAPSHOT_EVENT,
+            JHipsterMetricsStream.DELTA_EVENT);
+
+        subscriber.dispose();
+        assertThat(stream.getSubscriberCount()).isZero();
+    }
+
+    private static Map<String, Object> map(Object... keyValues) {
+        Map<String, Object> map = new HashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            map.put((String) keyValues[i], keyValues[i + 1]);
+        }
+        return map;
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.metric;
+
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.assertj.core.api.Assertions.within;
+
+class LatencyHistogramTest {
+
+    @Test
+    void testEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertThat(histogram.isEmpty()).isTrue();
+        assertThat(histogram.percentile(0.5)).isNaN();
+        assertThat(histogram.toMap()).isEmpty();
+    }
+
+    @Test
+    void testPercentileInterpolation() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        // 10 values up to 10ms, 10 values between 10ms and 20ms
+        histogram.add(new CountAtBucket[]{bucket(10, 10), bucket(20, 20)}, 20, 20);
+
+        assertThat(histogram.percentile(0.25)).isCloseTo(5.0, within(0.001));
+        assertThat(histogram.percentile(0.5)).isCloseTo(10.0, within(0.001));
+        assertThat(histogram.percentile(0.75)).isCloseTo(15.0, within(0.001));
+        assertThat(histogram.percentile(1.0)).isCloseTo(20.0, within(0.001));
+    }
+
+    @Test
+    void testAddSkipsEmptyBuckets() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.add(new CountAtBucket[]{bucket(10, 0), bucket(20, 5), bucket(30, 5)}, 5, 30);
+
+        assertThat(histogram.toMap()).containsExactly(entry(20.0, 5L));
+        assertThat(histogram.percentile(0.5)).isCloseTo(15.0, within(0.001));
+    }
+
+    @Test
+    void testMerge() {
+        LatencyHistogram first = new LatencyHistogram();
+        first.add(new CountAtBucket[]{bucket(10, 10), bucket(20, 20)}, 20, 20);
+        LatencyHistogram second = new LatencyHistogram();
+        second.add(new CountAtBucket[]{bucket(10, 0), bucket(20, 10)}, 10, 20);
+
+        first.merge(second);
+
+        Map<Double, Long> buckets = first.toMap();
+        assertThat(buckets).containsExactly(entry(10.0, 10L), entry(20.0, 20L));
+        assertThat(first.percentile(0.5)).isCloseTo(12.5, within(0.001));
+    }
+
+    @Test
+    void testMergeOtherBounds() {
+        LatencyHistogram first = new LatencyHistogram();
+        first.add(new CountAtBucket[]{bucket(10, 10), bucket(30, 20)}, 20, 30);
+        LatencyHistogram second = new LatencyHistogram();
+        second.add(new CountAtBucket[]{bucket(20, 10), bucket(30, 10)}, 10, 30);
+
+        first.merge(second);
+
+        assertThat(first.toMap()).containsExactly(entry(10.0, 10L), entry(20.0, 10L), entry(30.0, 10L));
+        assertThat(first.percentile(0.5)).isCloseTo(15.0, within(0.001));
+    }
+
+    @Test
+    void testOverflowBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        // 10 values up to 10ms, 10 values between 10ms and 20ms, 20 values above 20ms, up to 60ms
+        histogram.add(new CountAtBucket[]{bucket(10, 10), bucket(20, 20)}, 40, 60);
+
+        assertThat(histogram.toMap()).containsExactly(entry(10.0, 10L), entry(20.0, 10L),
+            entry(Double.POSITIVE_INFINITY, 20L));
+        assertThat(histogram.percentile(0.5)).isCloseTo(20.0, within(0.001));
+        assertThat(histogram.percentile(0.75)).isCloseTo(40.0, within(0.001));
+        assertThat(histogram.percentile(1.0)).isCloseTo(60.0, within(0.001));
+    }
+
+    @Test
+    void testOverflowBucketClampedWhenMaxDecayed() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.add(new CountAtBucket[]{bucket(10, 10), bucket(20, 20)}, 40, 5);
+
+        assertThat(histogram.percentile(0.99)).isCloseTo(20.0, within(0.001));
+    }
+
+    @Test
+    void testMergeOverflowBucket() {
+        LatencyHistogram first = new LatencyHistogram();
+        first.add(new CountAtBucket[]{bucket(10, 10), bucket(20, 20)}, 30, 40);
+        LatencyHistogram second = new LatencyHistogram();
+        second.add(new CountAtBucket[]{bucket(10, 0), bucket(20, 0)}, 10, 60);
+
+        first.merge(second);
+
+        assertThat(first.toMap()).containsExactly(entry(10.0, 10L), entry(20.0, 10L),
+            entry(Double.POSITIVE_INFINITY, 20L));
+        assertThat(first.percentile(1.0)).isCloseTo(60.0, within(0.001));
+    }
+
+    private static CountAtBucket bucket(double upperBoundMillis, double cumulativeCount) {
+        return new CountAtBucket((double) TimeUnit.MILLISECONDS.toNanos((long) upperBoundMillis), cumulativeCount);
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.metric;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MetricsDigestTest {
+
+    private static final Duration[] SLOS = {Duration.ofMillis(10), Duration.ofMillis(25), Duration.ofMillis(50),
+        Duration.ofMillis(75), Duration.ofMillis(100), Duration.ofMillis(1000), Duration.ofMillis(10000)};
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testMerge() {
+        MetricsDigest first = digest("node1", 1000L, "/api/users", "GET", "200", 10, 30);
+        MetricsDigest second = digest("node2", 2000L, "/api/users", "GET", "200", 50);
+
+        MetricsDigest merged = MetricsDigest.merge(Arrays.asList(first, second));
+
+        assertThat(merged.getNodeId()).isNull();
+        assertThat(merged.getTimestamp()).isEqualTo(2000L);
+        assertThat(merged.httpRequestsMetrics().get("all")).containsEntry("count", 3L);
+        Map<String, Number> get = (Map<String, Number>) merged.serviceMetrics().get("/api/users").get("GET");
+        assertThat(get).containsEntry("count", 3L).containsEntry("max", 50.0).containsEntry("mean", 30.0);
+    }
+
+    @Test
+    void testMergeHistograms() {
+        MetricsDigest first = histogramDigest("node1", 10);
+        MetricsDigest second = histogramDigest("node2", 1000);
+
+        Map<String, Map> merged = MetricsDigest.merge(Arrays.asList(first, second)).serviceMetrics();
+
+        assertThat((Map<String, ?>) merged.get("/api/users").get("GET")).containsKeys("0.5", "0.95", "0.99");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testAggregatedPerRequest() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        Timer.builder("http.server.requests").tags("uri", "/api/users", "method", "GET", "status", "500", "exception", "IOException")
+            .register(meterRegistry).record(10, TimeUnit.MILLISECONDS);
+        Timer.builder("http.server.requests").tags("uri", "/api/users", "method", "GET", "status", "500", "exception", "SQLException")
+            .register(meterRegistry).record(30, TimeUnit.MILLISECONDS);
+        Timer.builder("http.server.requests").tags("uri", "/api/users", "method", "GET", "status", "200", "exception", "None")
+            .register(meterRegistry).record(20, TimeUnit.MILLISECONDS);
+        MetricsDigest first = MetricsDigest.of("node1", 1000L, meterRegistry.find("http.server.requests").timers());
+        MetricsDigest second = digest("node2", 2000L, "/api/users", "POST", "500", 50);
+
+        MetricsDigest merged = MetricsDigest.merge(Arrays.asList(first, second));
+
+        Map<String, Map<String, Number>> perCode = merged.httpRequestsMetrics().get("percode");
+        assertThat(perCode.get("500")).containsEntry("count", 3L).containsEntry("max", 50.0).containsEntry("mean", 30.0);
+        assertThat(perCode.get("200")).containsEntry("count", 1L);
+        Map<String, Map<String, Number>> users = merged.serviceMetrics().get("/api/users");
+        assertThat(users.get("GET")).containsEntry("count", 3L).containsEntry("mean", 20.0);
+        assertThat(users.get("POST")).containsEntry("count", 1L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testPercentilesAboveLastBucket() {
+        MetricsDigest digest = histogramDigest("node1", 20000, 20000, 20000, 20000);
+
+        Map<String, Number> get = (Map<String, Number>) digest.serviceMetrics().get("/api/users").get("GET");
+
+        assertThat(get.get("0.5").doubleValue()).isGreaterThan(10000.0).isLessThanOrEqualTo(20000.0);
+        assertThat(get.get("0.99").doubleValue()).isGreaterThan(10000.0).isLessThanOrEqualTo(20000.0);
+    }
+
+    @Test
+    void testSerialization() throws Exception {
+        MetricsDigest digest = histogramDigest("node1", 10, 20, 30);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(digest);
+        }
+        MetricsDigest copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (MetricsDigest) in.readObject();
+        }
+
+        assertThat(copy.getNodeId()).isEqualTo("node1");
+        assertThat(copy.getTimestamp()).isEqualTo(digest.getTimestamp());
+        assertThat(copy.httpRequestsMetrics()).isEqualTo(digest.httpRequestsMetrics());
+        assertThat(copy.serviceMetrics()).isEqualTo(digest.serviceMetrics());
+    }
+
+    private static MetricsDigest digest(String nodeId, long timestamp, String uri, String method, String status,
+                                        long... durations) {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        Timer timer = Timer.builder("http.server.requests")
+            .tags("uri", uri, "method", method, "status", status)
+            .register(meterRegistry);
+        for (long duration : durations) {
+            timer.record(duration, TimeUnit.MILLISECONDS);
+        }
+        return MetricsDigest.of(nodeId, timestamp, meterRegistry.find("http.server.requests").timers());
+    }
+
+    private static MetricsDigest histogramDigest(String nodeId, long... durations) {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        Timer timer = Timer.builder("http.server.requests")
+            .tags("uri", "/api/users", "method", "GET", "status", "200")
+            .serviceLevelObjectives(SLOS)
+            .register(meterRegistry);
+        for (long duration : durations) {
+            timer.record(duration, TimeUnit.MILLISECONDS);
+        }
+        return MetricsDigest.of(nodeId, System.currentTimeMillis(), meterRegistry.find("http.server.requests").timers());
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.metric;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class MetricsRecordTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testSameJsonAsJackson() throws Exception {
+        Map<String, Object> metrics = metrics();
+        MetricsRecord<Object> record = MetricsRecord.of(metrics);
+
+        assertThat(objectMapper.writeValueAsString(record)).isEqualTo(objectMapper.writeValueAsString(metrics));
+        assertThat(objectMapper.writeValueAsString(Collections.singletonMap("record", record)))
+            .isEqualTo(objectMapper.writeValueAsString(Collections.singletonMap("record", metrics)));
+        assertThat(objectMapper.writer().withDefaultPrettyPrinter().writeValueAsString(record))
+            .isEqualTo(objectMapper.writer().withDefaultPrettyPrinter().writeValueAsString(metrics));
+    }
+
+    @Test
+    void testEntriesOrderedByKeys() throws Exception {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("b", 2);
+        metrics.put("a", 1);
+        MetricsRecord<Object> record = MetricsRecord.of(metrics);
+        ObjectMapper sortingObjectMapper = new ObjectMapper().enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+
+        assertThat(objectMapper.writeValueAsString(record)).isEqualTo("{\"b\":2,\"a\":1}");
+        assertThat(sortingObjectMapper.writeValueAsString(record)).isEqualTo("{\"a\":1,\"b\":2}");
+    }
+
+    @Test
+    void testMapView() {
+        Map<String, Object> metrics = metrics();
+        MetricsRecord<Object> record = MetricsRecord.of(metrics);
+
+        assertThat(record).isEqualTo(metrics).hasSize(metrics.size()).containsKey("jvm");
+        assertThat(record.get("jvm")).isInstanceOf(MetricsRecord.class);
+        assertThat(record.get("windows")).isEqualTo(Collections.emptyMap());
+        assertThat(MetricsRecord.of(record)).isSameAs(record);
+        assertThatThrownBy(() -> record.put("jvm", null)).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testEndpointSnapshot() throws Exception {
+        JHipsterMetricsEndpoint endpoint = new JHipsterMetricsEndpoint(new SimpleMeterRegistry());
+        endpoint.refreshSnapshot();
+
+        Map<String, Map> snapshot = endpoint.allMetrics();
+
+        assertThat(snapshot).isInstanceOf(MetricsRecord.class);
+        assertThat(objectMapper.readValue(objectMapper.writeValueAsString(snapshot), Map.class)).containsOnlyKeys(snapshot.keySet());
+    }
+
+    @Test
+    void testAllocationReducedTenfold() throws Exception {
+        java.lang.management.ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threadMXBean;
+        assumeTrue(allocations.isThreadAllocatedMemorySupported() && allocations.isThreadAllocatedMemoryEnabled());
+
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        for (int i = 0; i < 50; i++) {
+            for (String method : new String[]{"GET", "POST", "PUT", "DELETE"}) {
+                Timer timer = Timer.builder("http.server.requests")
+                    .tags("uri", "/api/entity-" + i, "method", method, "status", "200")
+                    .register(meterRegistry);
+                timer.record(i + 1, TimeUnit.MILLISECONDS);
+            }
+        }
+        JHipsterMetricsEndpoint endpoint = new JHipsterMetricsEndpoint(meterRegistry);
+        endpoint.refreshSnapshot();
+        Map<String, Map> snapshot = endpoint.allMetrics();
+        Object maps = toHashMaps(snapshot);
+        ObjectWriter writer = objectMapper.writer();
+        assertThat(objectMapper.readTree(writer.writeValueAsString(snapshot)))
+            .isEqualTo(objectMapper.readTree(writer.writeValueAsString(maps)));
+
+        long recordBytes = allocatedBytes(allocations, writer, snapshot);
+        long mapBytes = allocatedBytes(allocations, writer, maps);
+
+        assertThat(recordBytes * 10).as("%d bytes allocated instead of %d", recordBytes, mapBytes)
+            .isLessThanOrEqualTo(mapBytes);
+    }
+
+    private static long allocatedBytes(com.sun.management.ThreadMXBean allocations, ObjectWriter writer, Object value)
+        throws IOException {
+        OutputStream discarding = new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        };
+        for (int i = 0; i < 200; i++) {
+            writer.writeValue(discarding, value);
+        }
+        long threadId = Thread.currentThread().getId();
+        long before = allocations.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 100; i++) {
+            writer.writeValue(discarding, value);
+        }
+        return allocations.getThreadAllocatedBytes(threadId) - before;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object toHashMaps(Object value) {
+        if (value instanceof Map) {
+            Map<String, Object> map = new HashMap<>();
+            ((Map<String, Object>) value).forEach((key, nested) -> map.put(key, toHashMaps(nested)));
+            return map;
+        }
+        if (value instanceof Collection) {
+            List<Object> list = new ArrayList<>();
+            ((Collection<Object>) value).forEach(nested -> list.add(toHashMaps(nested)));
+            return list;
+        }
+        return value;
+    }
+
+    private static Map<String, Object> metrics() {
+        Map<String, Object> heap = new LinkedHashMap<>();
+        heap.put("used", 1.5E8);
+        heap.put("max", Double.NaN);
+        heap.put("ratio", 0.1f);
+        heap.put("count", 42L);
+        heap.put("threads", 12);
+        Map<String, Object> jvm = new LinkedHashMap<>();
+        jvm.put("G1 Eden \"Space\"", heap);
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("name", "GET /api/users?name=é");
+        request.put("duration", 1234.5);
+        request.put("cached", true);
+        request.put("region", null);
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("jvm", jvm);
+        metrics.put("slowest", Collections.singletonMap("requests", Arrays.asList(request, Collections.emptyMap())));
+        metrics.put("windows", Collections.emptyMap());
+        metrics.put("percentiles", Arrays.asList(0.5, 0.99));
+        return metrics;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.metric;
+
+import io.micrometer.core.instrument.MockClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ThreadInfo;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProfilingMetricsTest {
+
+    private static final long[] IDS = {1L, 2L};
+
+    private com.sun.management.ThreadMXBean threadMXBean;
+    private CompilationMXBean compilationMXBean;
+    private MockClock clock;
+    private ProfilingMetrics profiling;
+
+    @BeforeEach
+    void setup() {
+        threadMXBean = mock(com.sun.management.ThreadMXBean.class);
+        when(threadMXBean.getAllThreadIds()).thenReturn(IDS);
+        when(threadMXBean.isThreadAllocatedMemorySupported()).thenReturn(true);
+        when(threadMXBean.isThreadAllocatedMemoryEnabled()).thenReturn(true);
+        when(threadMXBean.isThreadCpuTimeSupported()).thenReturn(true);
+        when(threadMXBean.isThreadCpuTimeEnabled()).thenReturn(true);
+        compilationMXBean = mock(CompilationMXBean.class);
+        when(compilationMXBean.getName()).thenReturn("HotSpot 64-Bit Tiered Compilers");
+        when(compilationMXBean.isCompilationTimeMonitoringSupported()).thenReturn(true);
+        clock = new MockClock();
+        profiling = new ProfilingMetrics(threadMXBean, compilationMXBean, clock);
+    }
+
+    @Test
+    void testEmptyUntilTwoSamples() {
+        assertThat(profiling.toMap()).isEmpty();
+        threads(new long[]{0, 0}, new long[]{0, 0}, 0, 0);
+        profiling.sample();
+        assertThat(profiling.toMap()).isEmpty();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testDelta() {
+        threads(new long[]{1000, 5000}, new long[]{0, 0}, 0, 0);
+        when(compilationMXBean.getTotalCompilationTime()).thenReturn(100L);
+        profiling.sample();
+        clock.add(Duration.ofSeconds(2));
+        threads(new long[]{3000, 25000}, new long[]{500_000_000, 1_000_000_000}, 3, 1);
+        when(compilationMXBean.getTotalCompilationTime()).thenReturn(150L);
+        profiling.sample();
+
+        Map<String, Object> results = profiling.toMap();
+
+        assertThat(results).containsEntry("durationInSeconds", 2.0)
+            .containsEntry("allocationRate", 11000.0)
+            .containsEntry("cpuTime", 1500L);
+        List<Map<String, Object>> topAllocating = (List<Map<String, Object>>) results.get("topAllocatingThreads");
+        assertThat(topAllocating).extracting(thread -> thread.get("name")).containsExactly("thread-2", "thread-1");
+        assertThat(topAllocating.get(0)).containsEntry("allocatedBytes", 20000L).containsEntry("allocationRate", 10000.0);
+        List<Map<String, Object>> topCpu = (List<Map<String, Object>>) results.get("topCpuThreads");
+        assertThat(topCpu.get(0)).containsEntry("name", "thread-2").containsEntry("cpuUsage", 0.5);
+
+        Map<String, Object> lockContention = (Map<String, Object>) results.get("lockContention");
+        assertThat(lockContention).containsEntry("blockedCount", 4L).doesNotContainKey("blockedTime");
+        assertThat((List<Map<String, Object>>) lockContention.get("topBlockedThreads"))
+            .extracting(thread -> thread.get("name")).containsExactly("thread-1", "thread-2");
+
+        assertThat((Map<String, Object>) results.get("compilation"))
+            .containsEntry("totalCompilationTime", 150L)
+            .containsEntry("compilationTime", 50L);
+    }
+
+    @Test
+    void testAllocationNotSupported() {
+        when(threadMXBean.isThreadAllocatedMemoryEnabled()).thenReturn(false);
+        threads(new long[]{0, 0}, new long[]{0, 0}, 0, 0);
+        profiling.sample();
+        clock.add(Duration.ofSeconds(1));
+        profiling.sample();
+
+        assertThat(profiling.toMap()).containsKeys("cpuTime", "lockContention")
+            .doesNotContainKeys("allocationRate", "topAllocatingThreads");
+    }
+
+    @Test
+    void testPlatformMXBeans() {
+        ProfilingMetrics platformProfiling = new ProfilingMetrics(clock);
+        platformProfiling.sample();
+        clock.add(Duration.ofSeconds(1));
+        platformProfiling.sample();
+
+        assertThat(platformProfiling.toMap()).containsKeys("durationInSeconds", "lockContention");
+    }
+
+    private void threads(long[] allocatedBytes, long[] cpuTimes, long blockedCount1, long blockedCount2) {
+        ThreadInfo[] infos = {threadInfo("thread-1", blockedCount1), threadInfo("thread-2", blockedCount2)};
+        when(threadMXBean.getThreadInfo(any(long[].class))).thenReturn(infos);
+        when(threadMXBean.getThreadAllocatedBytes(any(long[].class))).thenReturn(allocatedBytes);
+        when(threadMXBean.getThreadCpuTime(any(long[].class))).thenReturn(cpuTimes);
+    }
+
+    private static ThreadInfo threadInfo(String name, long blockedCount) {
+        ThreadInfo info = mock(ThreadInfo.class);
+        when(info.getThreadName()).thenReturn(name);
+        when(info.getBlockedCount()).thenReturn(blockedCount);
+        when(info.getBlockedTime()).thenReturn(-1L);
+        return info;
+    }
+}
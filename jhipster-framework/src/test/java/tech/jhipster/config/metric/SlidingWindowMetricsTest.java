@@ -0,0 +1,122 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.metric;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MockClock;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class SlidingWindowMetricsTest {
+
+    private MockClock clock;
+    private SimpleMeterRegistry meterRegistry;
+    private SlidingWindowMetrics windows;
+    private AtomicLong cacheHits;
+    private AtomicLong cacheMisses;
+
+    @BeforeEach
+    void setup() {
+        clock = new MockClock();
+        meterRegistry = new SimpleMeterRegistry(SimpleConfig.DEFAULT, clock);
+        windows = new SlidingWindowMetrics(meterRegistry);
+        cacheHits = new AtomicLong();
+        cacheMisses = new AtomicLong();
+        FunctionCounter.builder("cache.gets", cacheHits, AtomicLong::get).tags("name", "users", "result", "hit").register(meterRegistry);
+        FunctionCounter.builder("cache.gets", cacheMisses, AtomicLong::get).tags("name", "users", "result", "miss").register(meterRegistry);
+    }
+
+    @Test
+    void testNoWindowWithSingleSample() {
+        windows.sample();
+        assertThat(windows.toMap()).isEmpty();
+    }
+
+    @Test
+    void testRatesOverWindow() {
+        record("500", 2, 100);
+        record("200", 8, 100);
+        cacheHits.set(100);
+        windows.sample();
+
+        clock.add(Duration.ofSeconds(30));
+        record("200", 50, 40);
+        record("500", 10, 40);
+        cacheHits.addAndGet(30);
+        cacheMisses.addAndGet(10);
+        windows.sample();
+
+        Map<String, Map<String, Number>> results = windows.toMap();
+        assertThat(results).containsOnlyKeys("1m", "5m", "15m");
+        Map<String, Number> minute = results.get("1m");
+        assertThat(minute.get("durationInSeconds").doubleValue()).isCloseTo(30.0, within(0.001));
+        assertThat(minute.get("requestsPerSecond").doubleValue()).isCloseTo(2.0, within(0.001));
+        assertThat(minute.get("errorRate").doubleValue()).isCloseTo(10 / 60.0, within(0.001));
+        assertThat(minute.get("meanResponseTime").doubleValue()).isCloseTo(40.0, within(0.001));
+        assertThat(minute.get("cacheHitRatio").doubleValue()).isCloseTo(0.75, within(0.001));
+        assertThat(minute).doesNotContainKey("poolWaitTime");
+    }
+
+    @Test
+    void testWindowsExcludeOlderSamples() {
+        record("200", 100, 10);
+        windows.sample();
+        clock.add(Duration.ofMinutes(4));
+        record("200", 240, 10);
+        windows.sample();
+        clock.add(Duration.ofSeconds(30));
+        record("200", 30, 10);
+        windows.sample();
+
+        Map<String, Map<String, Number>> results = windows.toMap();
+        assertThat(results.get("1m").get("requestsPerSecond").doubleValue()).isCloseTo(1.0, within(0.001));
+        assertThat(results.get("5m").get("durationInSeconds").doubleValue()).isCloseTo(270.0, within(0.001));
+        assertThat(results.get("5m").get("requestsPerSecond").doubleValue()).isCloseTo(270 / 270.0, within(0.001));
+    }
+
+    @Test
+    void testSamplesOlderThanLargestWindowDropped() {
+        windows.sample();
+        clock.add(Duration.ofMinutes(20));
+        windows.sample();
+
+        assertThat(windows.toMap()).isEmpty();
+    }
+
+    private void record(String status, int count, long durationMillis) {
+        Timer timer = Timer.builder("http.server.requests")
+            .tags("uri", "/api/users", "method", "GET", "status", status)
+            .register(meterRegistry);
+        for (int i = 0; i < count; i++) {
+            timer.record(durationMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+}
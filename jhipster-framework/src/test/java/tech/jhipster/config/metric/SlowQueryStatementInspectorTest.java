@@ -0,0 +1,116 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.metric;
+
+import io.micrometer.core.instrument.MockClock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlowQueryStatementInspectorTest {
+
+    private final SlowSampleReservoir reservoir = new SlowSampleReservoir(10, Duration.ofMinutes(5), new MockClock());
+
+    private final SlowQueryStatementInspector inspector = new SlowQueryStatementInspector(reservoir);
+
+    @AfterEach
+    void cleanup() {
+        SlowQueryStatementInspector.takeCurrentSql();
+    }
+
+    @Test
+    void testInspectKeepsSql() {
+        String sql = "select u.id from jhi_user u where u.login=?";
+
+        assertThat(inspector.inspect(sql)).isSameAs(sql);
+        SlowQueryStatementInspector.InspectedSql inspected = SlowQueryStatementInspector.takeCurrentSql();
+        assertThat(inspected.sql).isSameAs(sql);
+        assertThat(inspected.reservoir).isSameAs(reservoir);
+        assertThat(SlowQueryStatementInspector.takeCurrentSql()).isNull();
+    }
+
+    @Test
+    void testNormalize() {
+        assertThat(SlowQueryStatementInspector.normalize(
+            "select user0_.id as id1_0_\n  from jhi_user user0_ where user0_.login='it''s' and user0_.age > 42 limit 10"))
+            .isEqualTo("select user0_.id as id1_0_ from jhi_user user0_ where user0_.login=? and user0_.age > ? limit ?");
+        assertThat(SlowQueryStatementInspector.normalize("select * from t where id in (?, ?,?)"))
+            .isEqualTo("select * from t where id in (?)");
+        assertThat(SlowQueryStatementInspector.normalize(null)).isEqualTo("unknown");
+    }
+
+    @Test
+    void testNormalizeTruncates() {
+        StringBuilder sql = new StringBuilder("select ");
+        for (int i = 0; i < 500; i++) {
+            sql.append("column_a, ");
+        }
+        assertThat(SlowQueryStatementInspector.normalize(sql.toString())).hasSize(1003).endsWith("...");
+    }
+
+    @Test
+    void testSessionEventListenerRecordsStatement() {
+        SlowQuerySessionEventListener listener = new SlowQuerySessionEventListener();
+        prepare(listener, "select * from t where id = 1");
+        assertThat(SlowQueryStatementInspector.takeCurrentSql()).isNull();
+
+        listener.jdbcExecuteStatementStart();
+        listener.jdbcExecuteStatementEnd();
+
+        assertThat(reservoir.getSamples()).extracting(SlowSampleReservoir.Sample::getName)
+            .containsExactly("select * from t where id = ?");
+    }
+
+    @Test
+    void testSessionEventListenerRecordsBatchOfOneStatement() {
+        SlowQuerySessionEventListener listener = new SlowQuerySessionEventListener();
+        prepare(listener, "insert into t (id) values (?)");
+        prepare(listener, "insert into t (id) values (?)");
+
+        listener.jdbcExecuteBatchStart();
+        listener.jdbcExecuteBatchEnd();
+
+        assertThat(reservoir.getSamples()).extracting(SlowSampleReservoir.Sample::getName)
+            .containsExactly("insert into t (id) values (?)");
+    }
+
+    @Test
+    void testSessionEventListenerIgnoresUnpairedExecutions() {
+        SlowQuerySessionEventListener listener = new SlowQuerySessionEventListener();
+        prepare(listener, "insert into t (id) values (?)");
+        prepare(listener, "insert into u (id) values (?)");
+
+        listener.jdbcExecuteBatchStart();
+        listener.jdbcExecuteBatchEnd();
+        listener.jdbcExecuteBatchStart();
+        listener.jdbcExecuteBatchEnd();
+
+        assertThat(reservoir.getSamples()).isEmpty();
+    }
+
+    private void prepare(SlowQuerySessionEventListener listener, String sql) {
+        inspector.inspect(sql);
+        listener.jdbcPrepareStatementStart();
+        listener.jdbcPrepareStatementEnd();
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.metric;
+
+import io.micrometer.core.instrument.MockClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.fail;
+
+class SlowSampleReservoirTest {
+
+    private MockClock clock;
+    private SlowSampleReservoir reservoir;
+
+    @BeforeEach
+    void setup() {
+        clock = new MockClock();
+        reservoir = new SlowSampleReservoir(3, Duration.ofMinutes(5), clock);
+    }
+
+    @Test
+    void testKeepsSlowestSamples() {
+        record("a", 10);
+        record("b", 50);
+        record("c", 20);
+        record("d", 40);
+        record("e", 5);
+
+        assertThat(reservoir.getSamples()).extracting(SlowSampleReservoir.Sample::getName).containsExactly("b", "d", "c");
+        assertThat(reservoir.getSamples().get(0).getDurationInNanos()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    void testFastOperationsAreNotNamed() {
+        record("a", 10);
+        record("b", 20);
+        record("c", 30);
+
+        reservoir.record(() -> fail("The name of a fast operation should not be built"), TimeUnit.MILLISECONDS.toNanos(5));
+        reservoir.record(() -> fail("The name of a fast operation should not be built"), TimeUnit.MILLISECONDS.toNanos(10));
+    }
+
+    @Test
+    void testExpiredSamples() {
+        record("a", 100);
+        record("b", 200);
+        record("c", 300);
+        clock.add(Duration.ofMinutes(4));
+        record("d", 10);
+        assertThat(reservoir.getSamples()).extracting(SlowSampleReservoir.Sample::getName).containsExactly("c", "b", "a");
+
+        clock.add(Duration.ofMinutes(2));
+        assertThat(reservoir.getSamples()).isEmpty();
+        record("e", 10);
+        assertThat(reservoir.getSamples()).extracting(SlowSampleReservoir.Sample::getName).containsExactly("e");
+    }
+
+    @Test
+    void testTimestamp() {
+        clock.add(Duration.ofSeconds(10));
+        record("a", 10);
+
+        assertThat(reservoir.getSamples().get(0).getTimestamp()).isEqualTo(clock.wallTime());
+    }
+
+    @Test
+    void testClear() {
+        record("a", 10);
+        reservoir.clear();
+
+        assertThat(reservoir.getSamples()).isEmpty();
+    }
+
+    @Test
+    void testInvalidSize() {
+        assertThatThrownBy(() -> new SlowSampleReservoir(0, Duration.ofMinutes(5), clock))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void record(String name, long durationInMillis) {
+        reservoir.record(() -> name, TimeUnit.MILLISECONDS.toNanos(durationInMillis));
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.startup;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.info.InfoContributor;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JHipsterStartupConfigurationTest {
+
+    @Test
+    void testInfoContributorNotDeferred() {
+        try (AnnotationConfigApplicationContext context = createContext()) {
+            assertThat(context.getBeanFactory().containsSingleton("infoContributor")).isTrue();
+        }
+    }
+
+    @Test
+    void testJHipsterBeansRecorded() {
+        try (AnnotationConfigApplicationContext ignored = createContext()) {
+            assertThat(StartupTimeline.getSteps()).extracting(StartupTimeline.Step::getName)
+                .contains("bean:infoContributor", "bean:service");
+        }
+    }
+
+    @Test
+    void testTimelineClearedOnRestart() {
+        StartupTimeline.start("previous").end();
+        try (AnnotationConfigApplicationContext ignored = createContext()) {
+            assertThat(StartupTimeline.getSteps()).extracting(StartupTimeline.Step::getName)
+                .doesNotContain("previous")
+                .containsOnlyOnce("bean:service");
+        }
+        try (AnnotationConfigApplicationContext ignored = createContext()) {
+            assertThat(StartupTimeline.getSteps()).extracting(StartupTimeline.Step::getName)
+                .containsOnlyOnce("bean:service");
+        }
+    }
+
+    private AnnotationConfigApplicationContext createContext() {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.register(JHipsterStartupConfiguration.class, TestConfiguration.class);
+        context.refresh();
+        return context;
+    }
+
+    @Configuration
+    static class TestConfiguration {
+
+        @Bean
+        InfoContributor infoContributor() {
+            return builder -> builder.withDetail("key", "value");
+        }
+
+        @Bean
+        Object service() {
+            return new Object();
+        }
+    }
+}
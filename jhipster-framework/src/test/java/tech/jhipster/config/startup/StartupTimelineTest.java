@@ -0,0 +1,126 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.config.startup;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StartupTimelineTest {
+
+    @BeforeEach
+    void setup() {
+        StartupTimeline.clear();
+    }
+
+    @Test
+    void testStepAddedOnceEnded() {
+        StartupTimeline.Step step = StartupTimeline.start("step");
+        assertThat(StartupTimeline.getSteps()).isEmpty();
+        assertThat(step.getDuration()).isNull();
+
+        step.end();
+        step.end();
+
+        assertThat(StartupTimeline.getSteps()).containsExactly(step);
+        assertThat(step.getName()).isEqualTo("step");
+        assertThat(step.getThreadName()).isEqualTo(Thread.currentThread().getName());
+        assertThat(step.getDuration()).isNotNull();
+    }
+
+    @Test
+    void testRecordSupplier() {
+        String value = StartupTimeline.record("supplier", () -> "value");
+        assertThat(value).isEqualTo("value");
+        assertThat(StartupTimeline.getSteps()).extracting(StartupTimeline.Step::getName).containsExactly("supplier");
+    }
+
+    @Test
+    void testRecordFailingRunnable() {
+        assertThatThrownBy(() -> StartupTimeline.record("failing", (Runnable) () -> {
+            throw new IllegalStateException("Eek");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(StartupTimeline.getSteps()).extracting(StartupTimeline.Step::getName).containsExactly("failing");
+    }
+
+    @Test
+    void testStepsOrderedByStartTime() throws InterruptedException {
+        StartupTimeline.Step outer = StartupTimeline.start("outer");
+        Thread.sleep(2);
+        StartupTimeline.record("inner", () -> {
+        });
+        outer.end();
+
+        assertThat(StartupTimeline.getSteps()).extracting(StartupTimeline.Step::getName).containsExactly("outer", "inner");
+    }
+
+    @Test
+    void testMaxSteps() {
+        for (int i = 0; i <= StartupTimeline.MAX_STEPS; i++) {
+            StartupTimeline.start("step" + i).end();
+        }
+        assertThat(StartupTimeline.getSteps()).hasSize(StartupTimeline.MAX_STEPS);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testEndpoint() {
+        StartupTimeline.start("step").end();
+
+        Map<String, Object> startup = new JHipsterStartupEndpoint().startup();
+
+        assertThat(startup).containsKeys("jvmStartTime", "totalMs");
+        List<Map<String, Object>> steps = (List<Map<String, Object>>) startup.get("steps");
+        assertThat(steps).hasSize(1);
+        assertThat(steps.get(0)).containsEntry("name", "step").containsKeys("thread", "startMs", "durationMs");
+    }
+
+    @Test
+    void testEndpointTotalIsWallClock() throws InterruptedException {
+        StartupTimeline.Step outer = StartupTimeline.start("outer");
+        StartupTimeline.Step inner = StartupTimeline.start("inner");
+        Thread.sleep(50);
+        inner.end();
+        outer.end();
+
+        long totalMs = (Long) new JHipsterStartupEndpoint().startup().get("totalMs");
+
+        assertThat(totalMs).isGreaterThanOrEqualTo(45L)
+            .isLessThan(outer.getDuration().plus(inner.getDuration()).toMillis());
+    }
+
+    @Test
+    void testFailedBeanStepDropped() {
+        StartupTimelineBeanPostProcessor postProcessor = new StartupTimelineBeanPostProcessor();
+        postProcessor.postProcessBeforeInstantiation(StartupTimelineTest.class, "failing");
+        postProcessor.afterSingletonsInstantiated();
+
+        postProcessor.postProcessAfterInitialization(this, "failing");
+        postProcessor.postProcessBeforeInstantiation(StartupTimelineTest.class, "lazy");
+        postProcessor.postProcessAfterInitialization(this, "lazy");
+
+        assertThat(StartupTimeline.getSteps()).isEmpty();
+    }
+}
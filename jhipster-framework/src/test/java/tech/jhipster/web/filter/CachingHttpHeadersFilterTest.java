@@ -32,8 +32,9 @@ import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowable;
-import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 
@@ -62,7 +63,7 @@ class CachingHttpHeadersFilterTest {
     @Test
     void testWithoutInit() {
         int daysToLive = CachingHttpHeadersFilter.DEFAULT_DAYS_TO_LIVE;
-        long secsToLive = TimeUnit.DAYS.toMillis(daysToLive);
+        long secsToLive = TimeUnit.DAYS.toSeconds(daysToLive);
 
         long before = System.currentTimeMillis();
         before -= before % 1000L;
@@ -77,15 +78,15 @@ class CachingHttpHeadersFilterTest {
 
         verify(response).setHeader("Cache-Control", "max-age=" + secsToLive + ", public");
         verify(response).setHeader("Pragma", "cache");
-        verify(response).setDateHeader(eq("Expires"), anyLong());
-        assertThat(response.getDateHeader("Expires")).isBetween(before + secsToLive, after + secsToLive);
+        verify(response).setHeader(eq("Expires"), anyString());
+        assertThat(response.getDateHeader("Expires")).isBetween(before + secsToLive * 1000L, after + secsToLive * 1000L);
         assertThat(caught).isNull();
     }
 
     @Test
     void testWithInit() {
         int daysToLive = CachingHttpHeadersFilter.DEFAULT_DAYS_TO_LIVE >>> 2;
-        long secsToLive = TimeUnit.DAYS.toMillis(daysToLive);
+        long secsToLive = TimeUnit.DAYS.toSeconds(daysToLive);
         properties.getHttp().getCache().setTimeToLiveInDays(daysToLive);
 
         long before = System.currentTimeMillis();
@@ -102,8 +103,58 @@ class CachingHttpHeadersFilterTest {
 
         verify(response).setHeader("Cache-Control", "max-age=" + secsToLive + ", public");
         verify(response).setHeader("Pragma", "cache");
-        verify(response).setDateHeader(eq("Expires"), anyLong());
-        assertThat(response.getDateHeader("Expires")).isBetween(before + secsToLive, after + secsToLive);
+        verify(response).setHeader(eq("Expires"), anyString());
+        assertThat(response.getDateHeader("Expires")).isBetween(before + secsToLive * 1000L, after + secsToLive * 1000L);
         assertThat(caught).isNull();
     }
+
+    @Test
+    void testImmutableAsset() throws Exception {
+        request.setRequestURI("/app/main.4f2a9c1e.js");
+
+        filter.init(null);
+        filter.doFilter(request, response, chain);
+
+        long secsToLive = CachingHttpHeadersFilter.DEFAULT_SECONDS_TO_LIVE;
+        verify(response).setHeader("Cache-Control", "max-age=" + secsToLive + ", public, immutable");
+        verify(response).setHeader(eq("Expires"), anyString());
+        verify(chain).doFilter(request, response);
+    }
+
+    @Test
+    void testHtmlRevalidated() throws Exception {
+        request.setRequestURI("/index.html");
+
+        filter.init(null);
+        filter.doFilter(request, response, chain);
+
+        verify(response).setHeader("Cache-Control", "no-cache");
+        verify(response, never()).setHeader(eq("Expires"), anyString());
+        verify(response, never()).setHeader(eq("Pragma"), anyString());
+        verify(chain).doFilter(request, response);
+    }
+
+    @Test
+    void testPoliciesDisabled() throws Exception {
+        properties.getHttp().getCache().setImmutablePattern("");
+        properties.getHttp().getCache().setRevalidatePattern("");
+        request.setRequestURI("/index.html");
+
+        filter.init(null);
+        filter.doFilter(request, response, chain);
+
+        verify(response).setHeader("Cache-Control", "max-age=" + CachingHttpHeadersFilter.DEFAULT_SECONDS_TO_LIVE + ", public");
+    }
+
+    @Test
+    void testExpiresReusedWithinSecond() throws Exception {
+        filter.init(null);
+        filter.doFilter(request, response, chain);
+        MockHttpServletResponse other = new MockHttpServletResponse();
+        filter.doFilter(request, other, new MockFilterChain());
+
+        long first = response.getDateHeader("Expires");
+        long second = other.getDateHeader("Expires");
+        assertThat(second - first).isIn(0L, 1000L);
+    }
 }
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.web.filter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EtagHeaderFilterTest {
+
+    private static final byte[] BODY = "{\"hello\":\"world\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final EtagHeaderFilter filter = new EtagHeaderFilter();
+
+    private final FilterChain chain = (request, response) -> response.getOutputStream().write(BODY);
+
+    @Test
+    void testStrongETagForStaticContent() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/app/main.js"), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).startsWith("\"").endsWith("\"");
+        assertThat(response.getContentAsByteArray()).isEqualTo(BODY);
+        assertThat(response.getContentLength()).isEqualTo(BODY.length);
+    }
+
+    @Test
+    void testWeakETagForApi() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/users"), response, chain);
+
+        assertThat(response.getHeader(HttpHeaders.ETAG)).startsWith("W/\"");
+        assertThat(response.getContentAsByteArray()).isEqualTo(BODY);
+    }
+
+    @Test
+    void testNotModified() throws Exception {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/users"), first, chain);
+        String etag = first.getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(etag);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void testModified() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/main.js");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).isEqualTo(BODY);
+    }
+
+    @Test
+    void testWriterBody() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockHttpServletResponse reference = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/app/main.js"), reference, chain);
+        filter.doFilter(new MockHttpServletRequest("GET", "/app/main.js"), response,
+            (req, res) -> res.getWriter().write(new String(BODY, StandardCharsets.UTF_8)));
+
+        assertThat(response.getContentAsByteArray()).isEqualTo(BODY);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(reference.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void testNoETagForPost() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/users"), response, chain);
+
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNull();
+        assertThat(response.getContentAsByteArray()).isEqualTo(BODY);
+    }
+
+    @Test
+    void testNoETagForNoStore() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/users"), response, (req, res) -> {
+            ((HttpServletResponse) res).setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+            res.getOutputStream().write(BODY);
+        });
+
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNull();
+        assertThat(response.getContentAsByteArray()).isEqualTo(BODY);
+    }
+
+    @Test
+    void testNoETagWithContentCachingDisabled() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/stream"), response, (req, res) -> {
+            ShallowEtagHeaderFilter.disableContentCaching(req);
+            res.getOutputStream().write(BODY);
+        });
+
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNull();
+        assertThat(response.getContentAsByteArray()).isEqualTo(BODY);
+    }
+
+    @Test
+    void testNoETagForError() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/users"), response, (req, res) -> {
+            ((HttpServletResponse) res).setStatus(500);
+            res.getOutputStream().write(BODY);
+        });
+
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNull();
+        assertThat(response.getContentAsByteArray()).isEqualTo(BODY);
+    }
+}
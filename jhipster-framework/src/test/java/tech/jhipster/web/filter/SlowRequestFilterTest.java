@@ -0,0 +1,57 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.web.filter;
+
+import io.micrometer.core.instrument.MockClock;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import tech.jhipster.config.metric.SlowSampleReservoir;
+
+import javax.servlet.ServletException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SlowRequestFilterTest {
+
+    private final SlowSampleReservoir reservoir = new SlowSampleReservoir(10, Duration.ofMinutes(5), new MockClock());
+
+    private final SlowRequestFilter filter = new SlowRequestFilter(reservoir);
+
+    @Test
+    void testRecordsRequest() throws Exception {
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/users"), new MockHttpServletResponse(),
+            (request, response) -> { });
+
+        assertThat(reservoir.getSamples()).extracting(SlowSampleReservoir.Sample::getName).containsExactly("GET /api/users");
+    }
+
+    @Test
+    void testRecordsFailedRequest() {
+        assertThatThrownBy(() -> filter.doFilter(new MockHttpServletRequest("POST", "/api/users"),
+            new MockHttpServletResponse(), (request, response) -> {
+                throw new ServletException("failure");
+            })).isInstanceOf(ServletException.class);
+
+        assertThat(reservoir.getSamples()).extracting(SlowSampleReservoir.Sample::getName).containsExactly("POST /api/users");
+    }
+}
@@ -25,6 +25,7 @@ import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
 import org.springframework.mock.web.server.MockServerWebExchange;
 import org.springframework.web.server.WebFilterChain;
 import reactor.core.publisher.Mono;
+import tech.jhipster.config.JHipsterProperties;
 
 import java.util.concurrent.TimeUnit;
 
@@ -42,7 +43,7 @@ class CachingHttpHeadersFilterTest {
             try {
                 HttpHeaders headers = filterExchange.getResponse().getHeaders();
                 assertThat(headers.getPragma()).isEqualTo("cache");
-                assertThat(headers.getCacheControl()).isEqualTo("max-age=172800000, public");
+                assertThat(headers.getCacheControl()).isEqualTo("max-age=172800, public");
                 assertThat(headers.getExpires() - now).isBetween(ttl - 1000, ttl + 1000);
             } catch (AssertionError ex) {
                 return Mono.error(ex);
@@ -74,4 +75,48 @@ class CachingHttpHeadersFilterTest {
         this.filter.filter(exchange, filterChain).block();
     }
 
+    @Test
+    void cacheHeadersSetWhenConfiguredPathMatches() {
+        CachingHttpHeadersFilter configuredFilter = new CachingHttpHeadersFilter(ttl, "/static/**");
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+            MockServerHttpRequest.get("/static/foo.js")
+        );
+        configuredFilter.filter(exchange, filterExchange -> Mono.empty()).block();
+        assertThat(exchange.getResponse().getHeaders().getCacheControl()).isEqualTo("max-age=172800, public");
+
+        MockServerWebExchange defaultExchange = MockServerWebExchange.from(
+            MockServerHttpRequest.get("/app/foo")
+        );
+        configuredFilter.filter(defaultExchange, filterExchange -> Mono.empty()).block();
+        assertThat(defaultExchange.getResponse().getHeaders().getCacheControl()).isNull();
+    }
+
+    @Test
+    void cacheHeadersSetFromProperties() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getHttp().getCache().setTimeToLiveInDays(2);
+        jHipsterProperties.getHttp().getCache().setPaths(new String[]{"/static/**"});
+        CachingHttpHeadersFilter configuredFilter = new CachingHttpHeadersFilter(jHipsterProperties);
+
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+            MockServerHttpRequest.get("/static/foo.js")
+        );
+        configuredFilter.filter(exchange, filterExchange -> Mono.empty()).block();
+        assertThat(exchange.getResponse().getHeaders().getCacheControl()).isEqualTo("max-age=172800, public");
+
+        MockServerWebExchange defaultExchange = MockServerWebExchange.from(
+            MockServerHttpRequest.get("/app/foo")
+        );
+        configuredFilter.filter(defaultExchange, filterExchange -> Mono.empty()).block();
+        assertThat(defaultExchange.getResponse().getHeaders().getCacheControl()).isNull();
+    }
+
+    @Test
+    void cacheHeadersSetWithinContextPath() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+            MockServerHttpRequest.get("/ctx/app/foo").contextPath("/ctx")
+        );
+        this.filter.filter(exchange, filterExchange -> Mono.empty()).block();
+        assertThat(exchange.getResponse().getHeaders().getCacheControl()).isEqualTo("max-age=172800, public");
+    }
 }
@@ -24,12 +24,16 @@ import org.springframework.http.HttpCookie;
 import org.springframework.http.ResponseCookie;
 import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
 import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.web.server.csrf.CookieServerCsrfTokenRepository;
 import org.springframework.security.web.server.csrf.CsrfToken;
+import org.springframework.security.web.server.csrf.CsrfWebFilter;
 import org.springframework.security.web.server.csrf.DefaultCsrfToken;
+import org.springframework.security.web.server.csrf.ServerCsrfTokenRepository;
 import org.springframework.web.server.WebFilterChain;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -99,4 +103,57 @@ class CookieCsrfFilterTest {
         );
         this.filter.filter(exchange, filterChain).block();
     }
+
+    @Test
+    void tokenGeneratedOnCallingThreadWithInlineRepository() {
+        Thread caller = Thread.currentThread();
+        AtomicReference<Thread> chainThread = new AtomicReference<>();
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(TEST_URL));
+
+        csrfWebFilter(new InlineCsrfTokenRepository(CookieServerCsrfTokenRepository.withHttpOnlyFalse()))
+            .filter(exchange, csrfExchange -> filter.filter(csrfExchange, filterExchange -> {
+                chainThread.set(Thread.currentThread());
+                return Mono.empty();
+            })).block();
+
+        assertThat(chainThread.get()).isSameAs(caller);
+        ResponseCookie cookie = exchange.getResponse().getCookies().getFirst(CSRF_COOKIE_NAME);
+        assertThat(cookie).isNotNull();
+        assertThat(cookie.getValue()).hasSize(36);
+    }
+
+    @Test
+    void tokenGeneratedOnBoundedElasticWithCookieRepository() {
+        AtomicReference<Thread> chainThread = new AtomicReference<>();
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(TEST_URL));
+
+        csrfWebFilter(CookieServerCsrfTokenRepository.withHttpOnlyFalse())
+            .filter(exchange, csrfExchange -> filter.filter(csrfExchange, filterExchange -> {
+                chainThread.set(Thread.currentThread());
+                return Mono.empty();
+            })).block();
+
+        assertThat(chainThread.get().getName()).startsWith("boundedElastic");
+    }
+
+    @Test
+    void inlineRepositoryLoadsTokenFromCookie() {
+        InlineCsrfTokenRepository repository = new InlineCsrfTokenRepository(CookieServerCsrfTokenRepository.withHttpOnlyFalse());
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+            MockServerHttpRequest.post(TEST_URL).cookie(new HttpCookie(CSRF_COOKIE_NAME, "csrf_token"))
+        );
+
+        CsrfToken token = repository.loadToken(exchange).block();
+
+        assertThat(token).isNotNull();
+        assertThat(token.getToken()).isEqualTo("csrf_token");
+        assertThat(token.getHeaderName()).isEqualTo(InlineCsrfTokenRepository.DEFAULT_HEADER_NAME);
+        assertThat(token.getParameterName()).isEqualTo(InlineCsrfTokenRepository.DEFAULT_PARAMETER_NAME);
+    }
+
+    private static CsrfWebFilter csrfWebFilter(ServerCsrfTokenRepository repository) {
+        CsrfWebFilter csrfWebFilter = new CsrfWebFilter();
+        csrfWebFilter.setCsrfTokenRepository(repository);
+        return csrfWebFilter;
+    }
 }
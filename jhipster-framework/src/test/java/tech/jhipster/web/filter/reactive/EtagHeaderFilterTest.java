@@ -0,0 +1,149 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.web.filter.reactive;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ZeroCopyHttpOutputMessage;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EtagHeaderFilterTest {
+
+    private static final String BODY = "{\"hello\":\"world\"}";
+
+    private final EtagHeaderFilter filter = new EtagHeaderFilter();
+
+    private final WebFilterChain chain = exchange -> exchange.getResponse().writeWith(Flux.just("{\"hello\":", "\"world\"}")
+        .map(EtagHeaderFilterTest::buffer));
+
+    @Test
+    void testStrongETagForStaticContent() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/app/main.js"));
+        filter.filter(exchange, chain).block();
+
+        assertThat(exchange.getResponse().getHeaders().getETag()).startsWith("\"").endsWith("\"");
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo(BODY);
+    }
+
+    @Test
+    void testWeakETagForApi() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/users"));
+        filter.filter(exchange, chain).block();
+
+        assertThat(exchange.getResponse().getHeaders().getETag()).startsWith("W/\"");
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo(BODY);
+    }
+
+    @Test
+    void testNotModified() {
+        MockServerWebExchange first = MockServerWebExchange.from(MockServerHttpRequest.get("/api/users"));
+        filter.filter(first, chain).block();
+        String etag = first.getResponse().getHeaders().getETag();
+
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/users")
+            .header(HttpHeaders.IF_NONE_MATCH, etag));
+        filter.filter(exchange, chain).block();
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(exchange.getResponse().getHeaders().getETag()).isEqualTo(etag);
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEmpty();
+    }
+
+    @Test
+    void testNoETagForPost() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/users"));
+        filter.filter(exchange, chain).block();
+
+        assertThat(exchange.getResponse().getHeaders().getETag()).isNull();
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo(BODY);
+    }
+
+    @Test
+    void testNoETagForError() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/users"));
+        filter.filter(exchange, filterExchange -> {
+            filterExchange.getResponse().setStatusCode(HttpStatus.INTERNAL_SERVER_ERROR);
+            return chain.filter(filterExchange);
+        }).block();
+
+        assertThat(exchange.getResponse().getHeaders().getETag()).isNull();
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo(BODY);
+    }
+
+    @Test
+    void testNoETagOverMaxBufferedSize() {
+        filter.setMaxBufferedSize(10);
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/users"));
+        filter.filter(exchange, chain).block();
+
+        assertThat(exchange.getResponse().getHeaders().getETag()).isNull();
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo(BODY);
+    }
+
+    @Test
+    void testZeroCopyKept(@TempDir Path tempDir) throws Exception {
+        Path file = Files.write(tempDir.resolve("main.js"), BODY.getBytes(StandardCharsets.UTF_8));
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/app/main.js"));
+        ServerWebExchange zeroCopyExchange = exchange.mutate().response(new ZeroCopyResponse(exchange.getResponse())).build();
+        long size = Files.size(file);
+
+        filter.filter(zeroCopyExchange, filterExchange -> {
+            assertThat(filterExchange.getResponse()).isInstanceOf(ZeroCopyHttpOutputMessage.class);
+            return ((ZeroCopyHttpOutputMessage) filterExchange.getResponse()).writeWith(file, 0, size);
+        }).block();
+
+        assertThat(exchange.getResponse().getHeaders().getETag()).isNull();
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo(BODY);
+    }
+
+    private static DataBuffer buffer(String chunk) {
+        return DefaultDataBufferFactory.sharedInstance.wrap(chunk.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static final class ZeroCopyResponse extends ServerHttpResponseDecorator implements ZeroCopyHttpOutputMessage {
+
+        private ZeroCopyResponse(ServerHttpResponse delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public Mono<Void> writeWith(Path file, long position, long count) {
+            return writeWith(DataBufferUtils.read(file, bufferFactory(), 4096));
+        }
+    }
+}
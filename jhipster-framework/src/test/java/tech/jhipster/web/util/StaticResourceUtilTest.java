@@ -0,0 +1,121 @@
+/*
+ * Copyright 2016-2022 the original author or authors from the JHipster project.
+ *
+ * This file is part of the JHipster project, see https://www.jhipster.tech/
+ * for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.jhipster.web.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.context.support.StaticWebApplicationContext;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.handler.SimpleUrlHandlerMapping;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StaticResourceUtilTest {
+
+    private ResourceHttpRequestHandler handler;
+
+    @BeforeEach
+    void setup() {
+        MockServletContext servletContext = new MockServletContext();
+        StaticWebApplicationContext context = new StaticWebApplicationContext();
+        context.setServletContext(servletContext);
+        context.refresh();
+        TestResourceHandlerRegistry registry = new TestResourceHandlerRegistry(context, servletContext);
+        StaticResourceUtil.precompressed(registry.addResourceHandler("/app/**").addResourceLocations("classpath:/static/app/"));
+        handler = registry.getResourceHttpRequestHandler("/app/**");
+    }
+
+    @Test
+    void testBrotli() throws Exception {
+        MockHttpServletResponse response = handle("main.js", "gzip, deflate, br");
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("br");
+        assertThat(response.getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(response.getContentAsByteArray()).isEqualTo(read("main.js.br"));
+    }
+
+    @Test
+    void testGzip() throws Exception {
+        MockHttpServletResponse response = handle("main.js", "gzip, deflate");
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            assertThat(StreamUtils.copyToByteArray(in)).isEqualTo(read("main.js"));
+        }
+    }
+
+    @Test
+    void testIdentity() throws Exception {
+        MockHttpServletResponse response = handle("main.js", null);
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getContentAsString()).isEqualTo("console.log(\"plain\");\n");
+    }
+
+    @Test
+    void testWithoutPrecompressedSibling() throws Exception {
+        MockHttpServletResponse response = handle("main.css", "gzip, deflate, br");
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getContentAsString()).isEqualTo("body{}\n");
+    }
+
+    private static byte[] read(String path) throws IOException {
+        try (InputStream in = new ClassPathResource("static/app/" + path).getInputStream()) {
+            return StreamUtils.copyToByteArray(in);
+        }
+    }
+
+    private MockHttpServletResponse handle(String path, String acceptEncoding) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/" + path);
+        request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, path);
+        if (acceptEncoding != null) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        handler.handleRequest(request, response);
+        return response;
+    }
+
+    private static class TestResourceHandlerRegistry extends ResourceHandlerRegistry {
+
+        TestResourceHandlerRegistry(StaticWebApplicationContext context, MockServletContext servletContext) {
+            super(context, servletContext);
+        }
+
+        ResourceHttpRequestHandler getResourceHttpRequestHandler(String pattern) {
+            SimpleUrlHandlerMapping handlerMapping = (SimpleUrlHandlerMapping) getHandlerMapping();
+            return (ResourceHttpRequestHandler) handlerMapping.getUrlMap().get(pattern);
+        }
+    }
+}